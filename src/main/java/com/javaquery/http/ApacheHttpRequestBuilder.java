@@ -1,5 +1,7 @@
 package com.javaquery.http;
 
+import com.javaquery.http.compression.CompressionStatistics;
+import com.javaquery.http.compression.ContentCompression;
 import com.javaquery.http.exception.HttpException;
 import com.javaquery.util.Objects;
 import com.javaquery.util.collection.Collections;
@@ -11,19 +13,34 @@ import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.EntityTemplate;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.mime.MIME;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.AbstractContentBody;
+import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.message.BasicNameValuePair;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Class is responsible to wrap {@link HttpRequest} into apache http request.
@@ -34,6 +51,7 @@ import java.util.List;
 class ApacheHttpRequestBuilder {
     private HttpUriRequest apacheHttpRequest;
     private final HttpRequest httpRequest;
+    private final CompressionStatistics compressionStatistics;
 
     /**
      * Instantiates a new Apache http request builder.
@@ -41,7 +59,18 @@ class ApacheHttpRequestBuilder {
      * @param httpRequest the http request
      */
     public ApacheHttpRequestBuilder(HttpRequest httpRequest) {
+        this(httpRequest, new CompressionStatistics());
+    }
+
+    /**
+     * Instantiates a new Apache http request builder.
+     *
+     * @param httpRequest           the http request
+     * @param compressionStatistics the statistics of gzip compressed payload
+     */
+    public ApacheHttpRequestBuilder(HttpRequest httpRequest, CompressionStatistics compressionStatistics) {
         this.httpRequest = httpRequest;
+        this.compressionStatistics = compressionStatistics;
     }
 
     /**
@@ -94,16 +123,34 @@ class ApacheHttpRequestBuilder {
     }
 
     /**
-     * Build payload of http request
+     * Build payload of http request, gzip compressed when payload asks for it.
      *
      * @return the HttpEntity
      */
     private HttpEntity buildHttpEntity() {
+        HttpEntity httpEntity = buildPayloadEntity();
+        if (Objects.nonNull(httpEntity) && httpRequest.getHttpPayload().isGzipCompression()) {
+            return ContentCompression.gzip(httpEntity, compressionStatistics);
+        }
+        return httpEntity;
+    }
+
+    /**
+     * Build payload of http request
+     *
+     * @return the HttpEntity
+     */
+    private HttpEntity buildPayloadEntity() {
         if (Objects.nonNull(httpRequest.getHttpPayload())) {
             if (Objects.nonNull(httpRequest.getHttpPayload().getPayload())) {
                 StringEntity stringEntity = new StringEntity(httpRequest.getHttpPayload().getPayload(), httpRequest.getHttpPayload().getCharset());
                 httpRequest.withHeader(StringPool.CONTENT_TYPE, httpRequest.getHttpPayload().getContentType());
                 return stringEntity;
+            } else if (Objects.nonNull(httpRequest.getHttpPayload().getContent())) {
+                if (Objects.nonNull(httpRequest.getHttpPayload().getContentType())) {
+                    httpRequest.withHeader(StringPool.CONTENT_TYPE, httpRequest.getHttpPayload().getContentType());
+                }
+                return buildContentEntity(httpRequest.getHttpPayload());
             } else if (Collections.nonNullNonEmpty(httpRequest.getHttpPayload().getForm())) {
                 if (StringPool.MULTIPART_FORM_DATA.equals(httpRequest.getHttpPayload().getContentType())
                         || httpRequest.getHttpPayload().getContentType().contains(StringPool.MULTIPART_FORM_DATA)) {
@@ -122,7 +169,7 @@ class ApacheHttpRequestBuilder {
                     return builder.build();
                 } else {
                     List<NameValuePair> form = new ArrayList<>();
-                    httpRequest.getHttpPayload().getForm().forEach((key, value) -> form.add(new BasicNameValuePair(key, (String) value)));
+                    httpRequest.getHttpPayload().getForm().forEach((key, value) -> form.add(new BasicNameValuePair(key, String.valueOf(value))));
                     try {
                         return new UrlEncodedFormEntity(form, httpRequest.getHttpPayload().getCharset());
                     } catch (UnsupportedEncodingException e) {
@@ -134,12 +181,87 @@ class ApacheHttpRequestBuilder {
         return null;
     }
 
+    /**
+     * Build entity of binary or streaming payload, content is never copied into intermediate buffer.
+     *
+     * @param httpPayload the http payload
+     * @return the HttpEntity
+     */
+    @SuppressWarnings("unchecked")
+    private HttpEntity buildContentEntity(HttpRequest.HttpPayload httpPayload) {
+        Object content = httpPayload.getContent();
+        if (content instanceof byte[]) {
+            return new ByteArrayEntity((byte[]) content);
+        } else if (content instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = (ByteBuffer) content;
+            if (byteBuffer.hasArray()) {
+                return new ByteArrayEntity(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+            }
+            return new ByteBufferEntity(byteBuffer);
+        } else if (content instanceof Path) {
+            return new FileEntity(((Path) content).toFile());
+        } else if (content instanceof Supplier) {
+            return new InputStreamSupplierEntity((Supplier<InputStream>) content, httpPayload.getContentLength());
+        } else if (content instanceof InputStream) {
+            return new InputStreamEntity((InputStream) content, httpPayload.getContentLength());
+        } else if (content instanceof HttpRequest.PayloadWriter) {
+            return new EntityTemplate(((HttpRequest.PayloadWriter) content)::writeTo);
+        }
+        throw new IllegalArgumentException("Unsupported payload content " + content.getClass().getName());
+    }
+
+    /**
+     * Build body of multipart form value, binary values are streamed like {@link HttpRequest.HttpFormPart} of default binary content type.
+     *
+     * @param value the value of form
+     * @return the content body
+     * @throws IllegalArgumentException when value is not supported
+     */
     private AbstractContentBody addFormPart(Object value) {
-        if (value instanceof File) {
+        if (value instanceof HttpRequest.HttpFormPart) {
+            return buildFormPartBody((HttpRequest.HttpFormPart) value);
+        } else if (value instanceof File) {
             return new FileBody((File) value, ContentType.DEFAULT_BINARY);
-        } else {
-            return new StringBody((String) value, ContentType.MULTIPART_FORM_DATA);
+        } else if (value instanceof Path) {
+            return new FileBody(((Path) value).toFile(), ContentType.DEFAULT_BINARY);
+        } else if (value instanceof byte[]) {
+            return new ByteArrayBody((byte[]) value, ContentType.DEFAULT_BINARY, null);
+        } else if (value instanceof ByteBuffer) {
+            return buildFormPartBody(new HttpRequest.HttpFormPart(null, null, (ByteBuffer) value));
+        } else if (value instanceof InputStream) {
+            return buildFormPartBody(new HttpRequest.HttpFormPart(null, null, (InputStream) value, -1));
+        } else if (value instanceof CharSequence) {
+            return new StringBody(value.toString(), ContentType.MULTIPART_FORM_DATA);
         }
+        throw new IllegalArgumentException(StringPool.ERROR_UNSUPPORTED_FORM_VALUE + (Objects.isNull(value) ? null : value.getClass().getName()));
+    }
+
+    /**
+     * Build body of form part, content is streamed from its source and never copied into intermediate buffer.
+     *
+     * @param httpFormPart the http form part
+     * @return the content body
+     */
+    @SuppressWarnings("unchecked")
+    private AbstractContentBody buildFormPartBody(HttpRequest.HttpFormPart httpFormPart) {
+        ContentType contentType = Objects.nonNull(httpFormPart.getContentType()) ? ContentType.parse(httpFormPart.getContentType()) : ContentType.DEFAULT_BINARY;
+        Object content = httpFormPart.getContent();
+        if (content instanceof Path) {
+            return new FileBody(((Path) content).toFile(), contentType, httpFormPart.getFileName());
+        } else if (content instanceof byte[]) {
+            return new ByteArrayBody((byte[]) content, contentType, httpFormPart.getFileName());
+        } else if (content instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = (ByteBuffer) content;
+            return new StreamingContentBody(contentType, httpFormPart.getFileName(), httpFormPart.getContentLength(),
+                    outputStream -> new ByteBufferEntity(byteBuffer).writeTo(outputStream));
+        } else if (content instanceof Supplier) {
+            return new StreamingContentBody(contentType, httpFormPart.getFileName(), httpFormPart.getContentLength(),
+                    new InputStreamSupplierEntity((Supplier<InputStream>) content, httpFormPart.getContentLength())::writeTo);
+        } else if (content instanceof InputStream) {
+            return new StreamingContentBody(contentType, httpFormPart.getFileName(), httpFormPart.getContentLength(),
+                    new InputStreamEntity((InputStream) content, httpFormPart.getContentLength())::writeTo);
+        }
+        throw new IllegalArgumentException(StringPool.ERROR_UNSUPPORTED_FORM_VALUE + content.getClass().getName());
     }
 
     public static class HttpGetWithEntity extends HttpEntityEnclosingRequestBase {
@@ -150,4 +272,164 @@ class ApacheHttpRequestBuilder {
             return METHOD_NAME;
         }
     }
+
+    /**
+     * Entity of direct (off-heap) byte buffer, written through channel without copying it to heap array.
+     */
+    static class ByteBufferEntity extends AbstractHttpEntity {
+        private final ByteBuffer byteBuffer;
+
+        ByteBufferEntity(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return byteBuffer.remaining();
+        }
+
+        /**
+         * Body pulled by non-blocking transport, remaining bytes are read from duplicate of buffer without copy.
+         */
+        @Override
+        public InputStream getContent() {
+            return new ByteBufferInputStream(byteBuffer.duplicate());
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            WritableByteChannel writableByteChannel = Channels.newChannel(outputStream);
+            ByteBuffer duplicate = byteBuffer.duplicate();
+            while (duplicate.hasRemaining()) {
+                writableByteChannel.write(duplicate);
+            }
+            outputStream.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+    /**
+     * Stream over remaining bytes of byte buffer, position of buffer moves as it is read.
+     */
+    static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer byteBuffer;
+
+        ByteBufferInputStream(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public int read() {
+            return byteBuffer.hasRemaining() ? byteBuffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!byteBuffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, byteBuffer.remaining());
+            byteBuffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return byteBuffer.remaining();
+        }
+    }
+
+    /**
+     * Entity which opens new stream from supplier for every write, so request can be retried.
+     */
+    static class InputStreamSupplierEntity extends AbstractHttpEntity {
+        private final Supplier<InputStream> inputStreamSupplier;
+        private final long contentLength;
+
+        InputStreamSupplierEntity(Supplier<InputStream> inputStreamSupplier, long contentLength) {
+            this.inputStreamSupplier = inputStreamSupplier;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return inputStreamSupplier.get();
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream inputStream = inputStreamSupplier.get()) {
+                byte[] buffer = new byte[8 * 1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+            outputStream.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+    /**
+     * Multipart body of known length which writes content directly to the request stream.
+     * Unlike {@link org.apache.http.entity.mime.content.InputStreamBody} it reports content length, so multipart request is not chunked.
+     */
+    static class StreamingContentBody extends AbstractContentBody {
+        private final String fileName;
+        private final long contentLength;
+        private final HttpRequest.PayloadWriter payloadWriter;
+
+        StreamingContentBody(ContentType contentType, String fileName, long contentLength, HttpRequest.PayloadWriter payloadWriter) {
+            super(contentType);
+            this.fileName = fileName;
+            this.contentLength = contentLength;
+            this.payloadWriter = payloadWriter;
+        }
+
+        @Override
+        public String getFilename() {
+            return fileName;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            payloadWriter.writeTo(outputStream);
+        }
+
+        @Override
+        public String getTransferEncoding() {
+            return MIME.ENC_BINARY;
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentLength;
+        }
+    }
 }
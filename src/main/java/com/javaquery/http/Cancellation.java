@@ -0,0 +1,63 @@
+package com.javaquery.http;
+
+import com.javaquery.util.Objects;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cancellation of one execution with all its retries. Execution holds abort of current attempt only,
+ * so callback registered once on future of caller does not keep every attempt reachable.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+final class Cancellation {
+
+    private final AtomicReference<Runnable> abort = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    /**
+     * Set abort of current attempt, abort runs at once when execution is already cancelled.
+     *
+     * @param abort the abort of attempt
+     */
+    void setAbort(Runnable abort) {
+        this.abort.set(abort);
+        if (cancelled) {
+            runAbort();
+        }
+    }
+
+    /**
+     * Release abort of finished attempt, abort of newer attempt is kept.
+     *
+     * @param abort the abort of attempt
+     */
+    void clearAbort(Runnable abort) {
+        this.abort.compareAndSet(abort, null);
+    }
+
+    /**
+     * Cancel execution and abort its current attempt.
+     */
+    void cancel() {
+        cancelled = true;
+        runAbort();
+    }
+
+    /**
+     * Is execution cancelled.
+     *
+     * @return the boolean
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void runAbort() {
+        Runnable currentAbort = abort.getAndSet(null);
+        if (Objects.nonNull(currentAbort)) {
+            currentAbort.run();
+        }
+    }
+}
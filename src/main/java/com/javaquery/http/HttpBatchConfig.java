@@ -0,0 +1,27 @@
+package com.javaquery.http;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Concurrency limits of {@link HttpClient#executeBatch}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+@Builder
+public class HttpBatchConfig {
+
+    /**
+     * Maximum requests of batch in flight.
+     */
+    @Builder.Default
+    private int maxConcurrency = 64;
+
+    /**
+     * Maximum requests of batch in flight per host (scheme + host + port), non-positive value means only {@link #maxConcurrency} applies.
+     */
+    @Builder.Default
+    private int maxConcurrencyPerHost = 0;
+}
@@ -0,0 +1,223 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpBatchListener;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.util.Objects;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed requests of batch to {@link HttpClient#executeAsync} within global and per host concurrency limits.
+ * Completion of one request dispatches the next one, so no thread waits for response while batch is in flight.
+ *
+ * @param <R> the type parameter
+ * @author javaquery
+ * @since 1.0.7
+ */
+final class HttpBatchExecutor<R> {
+
+    private final HttpClient httpClient;
+    private final HttpExecutionContext httpExecutionContext;
+    private final List<HttpRequest> httpRequests;
+    private final HttpResponseHandler<R> httpResponseHandler;
+    private final HttpBatchListener<R> httpBatchListener;
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerHost;
+
+    private final R[] results;
+    private final Throwable[] errors;
+    private final CountDownLatch completed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /* pending request indexes per host, hosts are served round-robin */
+    private final Map<String, ArrayDeque<Integer>> pending = new LinkedHashMap<>();
+    private final Map<String, Integer> inFlightPerHost = new HashMap<>();
+    private final List<CompletableFuture<R>> inFlightFutures = new ArrayList<>();
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
+    private int inFlight;
+    private boolean cancelled;
+
+    @SuppressWarnings("unchecked")
+    HttpBatchExecutor(HttpClient httpClient, HttpExecutionContext httpExecutionContext, List<HttpRequest> httpRequests,
+                      HttpResponseHandler<R> httpResponseHandler, HttpBatchConfig httpBatchConfig, HttpBatchListener<R> httpBatchListener) {
+        this.httpClient = httpClient;
+        this.httpExecutionContext = httpExecutionContext;
+        this.httpRequests = httpRequests;
+        this.httpResponseHandler = httpResponseHandler;
+        this.httpBatchListener = httpBatchListener;
+        this.maxConcurrency = Math.max(1, httpBatchConfig.getMaxConcurrency());
+        this.maxConcurrencyPerHost = httpBatchConfig.getMaxConcurrencyPerHost() > 0 ? httpBatchConfig.getMaxConcurrencyPerHost() : this.maxConcurrency;
+        this.results = (R[]) new Object[httpRequests.size()];
+        this.errors = new Throwable[httpRequests.size()];
+        this.completed = new CountDownLatch(httpRequests.size());
+        for (int i = 0; i < httpRequests.size(); i++) {
+            try {
+                pending.computeIfAbsent(hostKey(httpRequests.get(i)), key -> new ArrayDeque<>()).add(i);
+            } catch (Exception exception) {
+                errors[i] = exception;
+                completed.countDown();
+            }
+        }
+    }
+
+    /**
+     * Execute batch and wait till every request is completed.
+     *
+     * @return the http batch result
+     */
+    HttpBatchResult<R> execute() {
+        dispatch();
+        try {
+            completed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new HttpException(e);
+        }
+        return new HttpBatchResult<>(results, errors);
+    }
+
+    /**
+     * Start requests while global and per host limits allow.
+     * Request failing synchronously calls dispatch again, such call is handed over to the running loop instead of recursion.
+     */
+    private void dispatch() {
+        if (dispatchRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            List<Integer> ready = new ArrayList<>();
+            lock.lock();
+            try {
+                while (!cancelled && inFlight < maxConcurrency && !pending.isEmpty()) {
+                    Integer index = nextIndex();
+                    if (Objects.isNull(index)) {
+                        break;
+                    }
+                    inFlight++;
+                    ready.add(index);
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (Integer index : ready) {
+                start(index);
+            }
+            missed = dispatchRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Take next request of host which is below its limit and move that host to the end of queue.
+     *
+     * @return the index of request or null when every pending host is at its limit
+     */
+    private Integer nextIndex() {
+        Iterator<Map.Entry<String, ArrayDeque<Integer>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ArrayDeque<Integer>> entry = iterator.next();
+            int hostInFlight = inFlightPerHost.getOrDefault(entry.getKey(), 0);
+            if (hostInFlight < maxConcurrencyPerHost) {
+                Integer index = entry.getValue().poll();
+                iterator.remove();
+                if (!entry.getValue().isEmpty()) {
+                    pending.put(entry.getKey(), entry.getValue());
+                }
+                inFlightPerHost.put(entry.getKey(), hostInFlight + 1);
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private void start(int index) {
+        HttpRequest httpRequest = httpRequests.get(index);
+        CompletableFuture<R> future;
+        try {
+            future = httpClient.executeAsync(httpExecutionContext, httpRequest, httpResponseHandler);
+        } catch (Exception exception) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(exception);
+        }
+        lock.lock();
+        try {
+            inFlightFutures.add(future);
+        } finally {
+            lock.unlock();
+        }
+        CompletableFuture<R> attempt = future;
+        future.whenComplete((result, throwable) -> complete(index, attempt, result, throwable));
+    }
+
+    private void complete(int index, CompletableFuture<R> future, R result, Throwable throwable) {
+        HttpRequest httpRequest = httpRequests.get(index);
+        if (Objects.nonNull(throwable)) {
+            errors[index] = throwable;
+        } else {
+            results[index] = result;
+        }
+        lock.lock();
+        try {
+            inFlight--;
+            inFlightFutures.remove(future);
+            inFlightPerHost.merge(hostKey(httpRequest), -1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (Objects.nonNull(httpBatchListener)) {
+                httpBatchListener.onComplete(index, httpRequest, result, throwable);
+            }
+        } finally {
+            completed.countDown();
+            dispatch();
+        }
+    }
+
+    /**
+     * Stop dispatching, cancel requests in flight and count down pending requests.
+     */
+    private void cancel() {
+        List<CompletableFuture<R>> futures;
+        int notStarted = 0;
+        lock.lock();
+        try {
+            cancelled = true;
+            futures = new ArrayList<>(inFlightFutures);
+            for (ArrayDeque<Integer> indexes : pending.values()) {
+                notStarted += indexes.size();
+            }
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        futures.forEach(future -> future.cancel(true));
+        for (int i = 0; i < notStarted; i++) {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Scheme, host and port of request, the route of pooled connection.
+     *
+     * @param httpRequest the http request
+     * @return the host key
+     */
+    private static String hostKey(HttpRequest httpRequest) {
+        URI uri = httpRequest.httpRequestURI();
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+}
@@ -0,0 +1,64 @@
+package com.javaquery.http;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of {@link HttpClient#executeBatch} in the order of requests with failures collected by request index.
+ *
+ * @param <R> the type parameter
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpBatchResult<R> {
+
+    private final List<R> results;
+    private final Map<Integer, Throwable> errors;
+
+    /**
+     * Instantiates a new Http batch result.
+     *
+     * @param results the results
+     * @param errors  the errors
+     */
+    HttpBatchResult(R[] results, Throwable[] errors) {
+        this.results = Collections.unmodifiableList(Arrays.asList(results));
+        Map<Integer, Throwable> failures = new TreeMap<>();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                failures.put(i, errors[i]);
+            }
+        }
+        this.errors = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Gets results in the order of requests, result of failed request is null.
+     *
+     * @return the results
+     */
+    public List<R> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets errors by index of request.
+     *
+     * @return the errors
+     */
+    public Map<Integer, Throwable> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Any request of batch failed.
+     *
+     * @return the boolean
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
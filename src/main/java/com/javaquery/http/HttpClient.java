@@ -1,36 +1,192 @@
 package com.javaquery.http;
 
+import com.javaquery.http.cache.CachingHttpTransport;
+import com.javaquery.http.cache.HttpCacheStatistics;
+import com.javaquery.http.circuitbreaker.CircuitBreaker;
+import com.javaquery.http.circuitbreaker.CircuitBreakerRegistry;
+import com.javaquery.http.compression.CompressionStatistics;
+import com.javaquery.http.compression.ContentCompression;
+import com.javaquery.http.exception.CircuitBreakerOpenException;
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.handler.HttpBatchListener;
 import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.hedge.HedgedExecution;
+import com.javaquery.http.metrics.HttpClientMetrics;
+import com.javaquery.http.metrics.HttpPhaseTimings;
+import com.javaquery.http.metrics.MeteredHttpEntity;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryBudget;
+import com.javaquery.http.retry.RetryBudgetRegistry;
 import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.http.retry.RetryScheduler;
+import com.javaquery.http.transport.CoalescingHttpTransport;
+import com.javaquery.http.transport.HttpTransport;
+import com.javaquery.http.transport.HttpTransports;
 import com.javaquery.util.Objects;
 import com.javaquery.util.collection.Collections;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.BasicCookieStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static net.logstash.logback.marker.Markers.appendEntries;
 
 /**
  * The Http client responsible for making http requests.
+ * Client owns one pooled {@link HttpTransport} selected by {@link HttpTransports}, create it once and reuse it for all requests.
+ * Call {@link #close()} to release pooled connections when client is no longer required.
+ * <p>
+ * Client is thread-safe, one client and one {@link HttpExecutionContext} can serve all threads.
+ * Every attempt executes a copy of {@link HttpRequest}, so request handlers change only the copy and
+ * the same request can be executed concurrently as long as caller does not change it meanwhile.
  *
  * @author javaquery
  * @since 1.0.0
  */
-public class HttpClient {
+public class HttpClient implements Closeable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClient.class);
 
     private static final int MAX_BACKOFF_IN_MILLISECONDS = 5 * 60 * 1000;
+    private static final RetryPolicy.RetryCondition DEFAULT_FAILURE_CONDITION = new DefaultRetryCondition();
+
+    private final HttpClientConfig httpClientConfig;
+    private final HttpTransport httpTransport;
+    /* transport below the coalescer, hedged request must reach the network instead of joining the request it hedges */
+    private final HttpTransport hedgeHttpTransport;
+    private final CompressionStatistics compressionStatistics = new CompressionStatistics();
+    private final HttpCacheStatistics httpCacheStatistics = new HttpCacheStatistics();
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final RetryBudget hedgeBudget;
+    private final HttpClientMetrics httpClientMetrics;
+
+    /* locks of client, transport and circuit breaker are ReentrantLock instead of synchronized, so virtual threads of executor are not pinned */
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ExecutorService ownedExecutorService;
+
+    /**
+     * Instantiates a new Http client with {@link HttpClientConfig#defaultConfig()}.
+     */
+    public HttpClient() {
+        this(HttpClientConfig.defaultConfig());
+    }
+
+    /**
+     * Instantiates a new Http client.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public HttpClient(HttpClientConfig httpClientConfig) {
+        this.httpClientConfig = httpClientConfig;
+        HttpTransport transport = HttpTransports.create(httpClientConfig);
+        if (Objects.nonNull(httpClientConfig.getHttpCacheConfig())) {
+            transport = new CachingHttpTransport(transport, httpClientConfig.getHttpCacheConfig(), httpCacheStatistics);
+        }
+        this.hedgeHttpTransport = transport;
+        if (httpClientConfig.isRequestCoalescing()) {
+            transport = new CoalescingHttpTransport(transport, httpClientConfig.getRequestCoalescingHeaders());
+        }
+        this.httpTransport = transport;
+        this.circuitBreakerRegistry = Objects.nonNull(httpClientConfig.getCircuitBreakerConfig())
+                ? new CircuitBreakerRegistry(httpClientConfig.getCircuitBreakerConfig()) : null;
+        this.retryBudgetRegistry = Objects.nonNull(httpClientConfig.getRetryBudgetConfig())
+                ? new RetryBudgetRegistry(httpClientConfig.getRetryBudgetConfig()) : null;
+        this.hedgeBudget = new RetryBudget(null, httpClientConfig.getHedgeBudgetConfig());
+        this.httpClientMetrics = httpClientConfig.getHttpClientMetrics();
+        if (Objects.nonNull(httpClientMetrics)) {
+            httpClientMetrics.bindConnectionPool(httpTransport::getConnectionPoolStatistics);
+        }
+    }
+
+    /**
+     * Gets http client config.
+     *
+     * @return the http client config
+     */
+    public HttpClientConfig getHttpClientConfig() {
+        return httpClientConfig;
+    }
+
+    /**
+     * Gets bytes of compressed request and response bodies sent and received by this client.
+     *
+     * @return the compression statistics
+     */
+    public CompressionStatistics getCompressionStatistics() {
+        return compressionStatistics;
+    }
+
+    /**
+     * Gets hits, misses and revalidations of response cache, all zero when cache is not configured.
+     *
+     * @return the http cache statistics
+     */
+    public HttpCacheStatistics getHttpCacheStatistics() {
+        return httpCacheStatistics;
+    }
+
+    /**
+     * Gets circuit breakers by host, null when circuit breaker is not configured.
+     *
+     * @return the circuit breaker registry
+     */
+    public CircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return circuitBreakerRegistry;
+    }
+
+    /**
+     * Gets retry budgets and their permitted and denied retries, null when retry budget is not configured.
+     *
+     * @return the retry budget registry
+     */
+    public RetryBudgetRegistry getRetryBudgetRegistry() {
+        return retryBudgetRegistry;
+    }
+
+    /**
+     * Gets budget of hedged requests, permitted retries of budget are hedged requests sent.
+     *
+     * @return the hedge budget
+     */
+    public RetryBudget getHedgeBudget() {
+        return hedgeBudget;
+    }
+
+    /**
+     * Gets recorder of request metrics, null when metrics are not configured.
+     *
+     * @return the http client metrics
+     */
+    public HttpClientMetrics getHttpClientMetrics() {
+        return httpClientMetrics;
+    }
 
     /**
      * Execute.
+     * Backoff between retries parks the calling thread, use {@link #executeAsync} to wait for backoff on {@link RetryScheduler} instead.
+     * Response is closed and its connection released once the handler returns, so read the body in handler.
+     * When handler returns the {@link HttpResponse} itself, body is read into memory before the connection is released.
      *
      * @param <R>                  the type parameter
      * @param httpExecutionContext the http execution context
@@ -39,64 +195,767 @@ public class HttpClient {
      * @return the r
      */
     public <R> R execute(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponseHandler<R> httpResponseHandler) {
-        final Map<String, String> originalHeaders = new HashMap<>(httpRequest.getHeaders());
-        final Map<String, String> originalQueryParameters = new LinkedHashMap<>(httpRequest.getQueryParameters());
-        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        return execute(httpExecutionContext, httpRequest, httpResponseHandler, new Cancellation());
+    }
+
+    /**
+     * Execute, in-flight attempt is aborted and no retry is made once execution is cancelled.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest the http request
+     * @param httpResponseHandler the http response handler
+     * @param cancellation the cancellation of execution
+     * @param <R> result type
+     * @return result
+     */
+    private <R> R execute(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponseHandler<R> httpResponseHandler,
+                          Cancellation cancellation) {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest.copy());
 
-        R responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler);
+        R responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler, cancellation);
 
         if (Objects.nonNull(httpRequest.getRetryPolicy())) {
-            while (shouldRetry(httpRequest.getRetryPolicy(), httpRequestResponse)) {
-                sleepFor(httpRequest.getRetryPolicy(), httpRequestResponse, httpRequestResponse.getRetriesAttempted());
-                int retriesAttempted = httpRequestResponse.getRetriesAttempted();
-                httpRequestResponse = new HttpRequestResponse(httpRequest);
-                httpRequestResponse.setRetriesAttempted(retriesAttempted + 1);
-                httpRequest.withHeaders(originalHeaders);
-                httpRequest.withQueryParameter(originalQueryParameters);
-                responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler);
+            while (!cancellation.isCancelled() && shouldRetry(httpRequest.getRetryPolicy(), httpRequestResponse)) {
+                sleepFor(httpRequestResponse);
+                if (cancellation.isCancelled()) {
+                    break;
+                }
+                releaseConnection(httpRequestResponse);
+                recordRetry(httpRequest);
+                httpRequestResponse = httpRequestResponse.newRetryAttempt(httpRequest.copy());
+                responseHandlerResult = doExecute(httpExecutionContext, httpRequestResponse, httpResponseHandler, cancellation);
             }
             if (httpRequestResponse.getRetriesAttempted() == httpRequest.getRetryPolicy().getMaxErrorRetry()) {
                 httpResponseHandler.onMaxRetryAttempted(httpRequestResponse.getHttpResponse());
             }
         }
 
+        releaseConnection(httpRequestResponse, responseHandlerResult);
         return responseHandlerResult;
     }
 
+    /**
+     * Run blocking {@link #execute} on executor, virtual thread per request on JDK 21+.
+     * Handlers keep their blocking style, retries park only the virtual thread.
+     * Cancelling the future aborts in-flight request and stops its retries.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @param httpResponseHandler  the http response handler
+     * @return the future of r
+     */
+    public <R> CompletableFuture<R> submit(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponseHandler<R> httpResponseHandler) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Cancellation cancellation = new Cancellation();
+        Future<?> task = executorService().submit(() -> {
+            try {
+                result.complete(execute(httpExecutionContext, httpRequest, httpResponseHandler, cancellation));
+            } catch (Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+        /* abort in-flight attempt and interrupt backoff sleep of cancelled request */
+        result.whenComplete((r, throwable) -> {
+            if (result.isCancelled()) {
+                cancellation.cancel();
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Execute all requests concurrently using {@link #submit} and wait for all of them.
+     * When response handler of any request fails, remaining requests are cancelled and exception is thrown.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequests         the http requests
+     * @param httpResponseHandler  the http response handler
+     * @return results in the order of requests
+     */
+    public <R> List<R> executeAll(HttpExecutionContext httpExecutionContext, Collection<HttpRequest> httpRequests, HttpResponseHandler<R> httpResponseHandler) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(httpRequests.size());
+        for (HttpRequest httpRequest : httpRequests) {
+            futures.add(submit(httpExecutionContext, httpRequest, httpResponseHandler));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new HttpException(e);
+        }
+        return results;
+    }
+
+    /**
+     * Execute requests on non-blocking I/O with at most maxConcurrency requests in flight and wait for all of them.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequests         the http requests
+     * @param httpResponseHandler  the http response handler
+     * @param maxConcurrency       the max concurrency
+     * @return results in the order of requests and errors by index of request
+     */
+    public <R> HttpBatchResult<R> executeBatch(HttpExecutionContext httpExecutionContext, List<HttpRequest> httpRequests, HttpResponseHandler<R> httpResponseHandler, int maxConcurrency) {
+        return executeBatch(httpExecutionContext, httpRequests, httpResponseHandler, HttpBatchConfig.builder().maxConcurrency(maxConcurrency).build(), null);
+    }
+
+    /**
+     * Execute requests on non-blocking I/O within limits of {@link HttpBatchConfig} and wait for all of them.
+     * Next request is sent as soon as one completes, hosts are served round-robin so slow host does not block others.
+     * Failure of one request does not stop the batch, it is collected in {@link HttpBatchResult#getErrors()}.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequests         the http requests
+     * @param httpResponseHandler  the http response handler
+     * @param httpBatchConfig      the http batch config
+     * @param httpBatchListener    receives result of each request as it completes, nullable
+     * @return results in the order of requests and errors by index of request
+     */
+    public <R> HttpBatchResult<R> executeBatch(HttpExecutionContext httpExecutionContext, List<HttpRequest> httpRequests, HttpResponseHandler<R> httpResponseHandler,
+                                               HttpBatchConfig httpBatchConfig, HttpBatchListener<R> httpBatchListener) {
+        return new HttpBatchExecutor<>(this, httpExecutionContext, httpRequests, httpResponseHandler, httpBatchConfig, httpBatchListener).execute();
+    }
+
+    /**
+     * Execute request asynchronously on non-blocking I/O, retries are scheduled on timer instead of sleeping the thread.
+     * {@link com.javaquery.http.handler.HttpRequestHandler} and {@link HttpResponseHandler} are called on I/O dispatcher thread,
+     * so avoid long-running blocking work in them.
+     * Payload of {@link HttpRequest.PayloadWriter} writes to blocking stream and can not be pulled by non-blocking I/O,
+     * such request fails with {@link IllegalArgumentException}, send it using {@link #execute} or {@link #submit} instead.
+     *
+     * @param <R>                  the type parameter
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest          the http request
+     * @param httpResponseHandler  the http response handler
+     * @return the future of r
+     */
+    public <R> CompletableFuture<R> executeAsync(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponseHandler<R> httpResponseHandler) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        if (Objects.nonNull(httpRequest.getHttpPayload()) && httpRequest.getHttpPayload().getContent() instanceof HttpRequest.PayloadWriter) {
+            result.completeExceptionally(new IllegalArgumentException(StringPool.ERROR_ASYNC_PAYLOAD_WRITER));
+            return result;
+        }
+        /* one callback per execution, it aborts current attempt or backoff */
+        Cancellation cancellation = new Cancellation();
+        result.whenComplete((responseHandlerResult, throwable) -> cancellation.cancel());
+        doExecuteAsync(httpExecutionContext, httpRequest, new HttpRequestResponse(httpRequest.copy()), httpResponseHandler, result, cancellation);
+        return result;
+    }
+
     /**
      * @param httpExecutionContext the http execution context
      * @param httpRequestResponse the http request response
      * @param httpResponseHandler the http response handler
+     * @param cancellation the cancellation of execution
      * @param <R> result type
      * @return result
      */
-    private <R> R doExecute(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, HttpResponseHandler<R> httpResponseHandler) {
+    private <R> R doExecute(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, HttpResponseHandler<R> httpResponseHandler,
+                            Cancellation cancellation) {
         HttpRequest httpRequest = httpRequestResponse.getHttpRequest();
+        CircuitBreaker circuitBreaker = null;
+        CompletableFuture<Void> deadlineTimer = null;
+        Runnable abort = null;
         try {
             beforeRequest(httpExecutionContext, httpRequest);
+            circuitBreaker = acquirePermission(httpRequest);
 
-            ApacheHttpRequestBuilder apacheHttpRequestBuilder = new ApacheHttpRequestBuilder(httpRequest);
-            HttpUriRequest apacheHttpRequest = apacheHttpRequestBuilder.build();
-
-            CloseableHttpClient closeableHttpClient = HttpClients.custom()
-                    .setDefaultCredentialsProvider(apacheHttpRequestBuilder.credentialsProvider())
-                    .build();
-            org.apache.http.HttpResponse closeableHttpResponse = closeableHttpClient.execute(apacheHttpRequest);
-            httpRequestResponse.setExecutionEndTime();
-            HttpResponse httpResponse = new HttpResponse(closeableHttpResponse);
-            afterResponse(httpExecutionContext, httpRequest, httpResponse);
-            httpRequestResponse.setHttpResponse(httpResponse);
+            ApacheHttpRequestBuilder apacheHttpRequestBuilder = new ApacheHttpRequestBuilder(httpRequest, compressionStatistics);
+            org.apache.http.HttpResponse closeableHttpResponse;
+            if (isHedged(httpRequest)) {
+                CompletableFuture<org.apache.http.HttpResponse> hedgedFuture = executeHedged(httpRequest, apacheHttpRequestBuilder);
+                abort = () -> hedgedFuture.cancel(false);
+                deadlineTimer = scheduleDeadline(httpRequestResponse, abort);
+                cancellation.setAbort(abort);
+                closeableHttpResponse = awaitResponse(hedgedFuture);
+            } else {
+                HttpUriRequest apacheHttpRequest = apacheHttpRequest(httpRequest, apacheHttpRequestBuilder);
+                abort = apacheHttpRequest::abort;
+                deadlineTimer = scheduleDeadline(httpRequestResponse, abort);
+                cancellation.setAbort(abort);
+                HttpClientContext httpClientContext = httpClientContext(httpRequest, apacheHttpRequestBuilder);
+                httpRequestResponse.setHttpPhaseTimings(HttpPhaseTimings.get(httpClientContext));
+                closeableHttpResponse = httpTransport.execute(apacheHttpRequest, httpClientContext);
+            }
+            processResponse(httpExecutionContext, httpRequestResponse, closeableHttpResponse);
         } catch (Exception exception) {
-            LOGGER.error(exception.getMessage(), exception);
-            onError(httpExecutionContext, httpRequest, exception);
+            processError(httpExecutionContext, httpRequestResponse, deadlineExceeded(httpRequestResponse, exception));
+        }
+
+        /* deadline keeps running while response handler reads the body, attempt is logged after it so body read is in phase timings */
+        try {
+            recordOutcome(circuitBreaker, httpRequestResponse);
+            decideRetry(httpExecutionContext, httpRequestResponse);
+            if (Objects.nonNull(httpResponseHandler) && shouldExecuteHttpResponseHandler(httpRequestResponse)) {
+                return httpResponseHandler.onResponse(httpRequestResponse.getHttpResponse());
+            }
+            return null;
         } finally {
+            if (Objects.nonNull(deadlineTimer)) {
+                deadlineTimer.cancel(false);
+            }
+            if (Objects.nonNull(abort)) {
+                cancellation.clearAbort(abort);
+            }
             LOGGER.info(appendEntries(httpRequestResponse.getAttributes()), null);
+            recordMetrics(httpRequestResponse);
+        }
+    }
+
+    /**
+     * Send one attempt of request on async client and continue with retry or response handler once response arrives.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest the http request of caller, every attempt executes its copy
+     * @param httpRequestResponse the http request response
+     * @param httpResponseHandler the http response handler
+     * @param result the result future
+     * @param cancellation the cancellation of execution
+     * @param <R> result type
+     */
+    private <R> void doExecuteAsync(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpRequestResponse httpRequestResponse,
+                                    HttpResponseHandler<R> httpResponseHandler, CompletableFuture<R> result, Cancellation cancellation) {
+        HttpRequest attemptHttpRequest = httpRequestResponse.getHttpRequest();
+        CircuitBreaker permittedCircuitBreaker = null;
+        CompletableFuture<Void> attemptCompleted = new CompletableFuture<>();
+        /* set before request is sent, callback of fast response may already have set abort of next backoff, which must not be replaced */
+        CompletableFuture<Future<?>> submitted = new CompletableFuture<>();
+        Runnable abort = () -> submitted.thenAccept(future -> future.cancel(true));
+        cancellation.setAbort(abort);
+        try {
+            beforeRequest(httpExecutionContext, attemptHttpRequest);
+            CircuitBreaker circuitBreaker = acquirePermission(attemptHttpRequest);
+            permittedCircuitBreaker = circuitBreaker;
+
+            ApacheHttpRequestBuilder apacheHttpRequestBuilder = new ApacheHttpRequestBuilder(attemptHttpRequest, compressionStatistics);
+            FutureCallback<org.apache.http.HttpResponse> futureCallback = new FutureCallback<org.apache.http.HttpResponse>() {
+                @Override
+                public void completed(org.apache.http.HttpResponse apacheHttpResponse) {
+                    attemptCompleted.complete(null);
+                    try {
+                        processResponse(httpExecutionContext, httpRequestResponse, apacheHttpResponse);
+                    } catch (Exception exception) {
+                        processError(httpExecutionContext, httpRequestResponse, exception);
+                    } finally {
+                        LOGGER.info(appendEntries(httpRequestResponse.getAttributes()), null);
+                        recordMetrics(httpRequestResponse);
+                    }
+                    recordOutcome(circuitBreaker, httpRequestResponse);
+                    completeAsyncAttempt(httpExecutionContext, httpRequest, httpRequestResponse, httpResponseHandler, result, cancellation);
+                }
+
+                @Override
+                public void failed(Exception exception) {
+                    attemptCompleted.complete(null);
+                    try {
+                        processError(httpExecutionContext, httpRequestResponse, deadlineExceeded(httpRequestResponse, exception));
+                    } finally {
+                        LOGGER.info(appendEntries(httpRequestResponse.getAttributes()), null);
+                        recordMetrics(httpRequestResponse);
+                    }
+                    recordOutcome(circuitBreaker, httpRequestResponse);
+                    completeAsyncAttempt(httpExecutionContext, httpRequest, httpRequestResponse, httpResponseHandler, result, cancellation);
+                }
+
+                @Override
+                public void cancelled() {
+                    attemptCompleted.complete(null);
+                    if (isDeadlineExceeded(httpRequestResponse)) {
+                        failed(deadlineExceeded(httpRequestResponse, null));
+                    } else {
+                        try {
+                            processError(httpExecutionContext, httpRequestResponse, new CancellationException(StringPool.ERROR_REQUEST_CANCELLED));
+                        } finally {
+                            LOGGER.info(appendEntries(httpRequestResponse.getAttributes()), null);
+                            recordMetrics(httpRequestResponse);
+                        }
+                        releasePermission(circuitBreaker);
+                        result.cancel(false);
+                    }
+                }
+            };
+            final Future<?> future;
+            if (isHedged(attemptHttpRequest)) {
+                future = executeHedged(attemptHttpRequest, apacheHttpRequestBuilder, futureCallback);
+            } else {
+                HttpClientContext httpClientContext = httpClientContext(attemptHttpRequest, apacheHttpRequestBuilder);
+                httpRequestResponse.setHttpPhaseTimings(HttpPhaseTimings.get(httpClientContext));
+                future = httpTransport.execute(apacheHttpRequest(attemptHttpRequest, apacheHttpRequestBuilder), httpClientContext, futureCallback);
+            }
+            submitted.complete(future);
+            CompletableFuture<Void> deadlineTimer = scheduleDeadline(httpRequestResponse, abort);
+            /* released with the attempt, not with the result, so retries do not pile up */
+            attemptCompleted.whenComplete((v, throwable) -> {
+                cancellation.clearAbort(abort);
+                if (Objects.nonNull(deadlineTimer)) {
+                    deadlineTimer.cancel(false);
+                }
+            });
+        } catch (Exception exception) {
+            cancellation.clearAbort(abort);
+            try {
+                processError(httpExecutionContext, httpRequestResponse, exception);
+            } finally {
+                LOGGER.info(appendEntries(httpRequestResponse.getAttributes()), null);
+                recordMetrics(httpRequestResponse);
+            }
+            recordOutcome(permittedCircuitBreaker, httpRequestResponse);
+            completeAsyncAttempt(httpExecutionContext, httpRequest, httpRequestResponse, httpResponseHandler, result, cancellation);
+        }
+    }
+
+    /**
+     * Schedule the retry of async request or complete the result using response handler.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequest the http request of caller, every attempt executes its copy
+     * @param httpRequestResponse the http request response
+     * @param httpResponseHandler the http response handler
+     * @param result the result future
+     * @param cancellation the cancellation of execution
+     * @param <R> result type
+     */
+    private <R> void completeAsyncAttempt(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpRequestResponse httpRequestResponse,
+                                          HttpResponseHandler<R> httpResponseHandler, CompletableFuture<R> result, Cancellation cancellation) {
+        try {
+            decideRetry(httpExecutionContext, httpRequestResponse);
+            RetryPolicy retryPolicy = httpRequest.getRetryPolicy();
+            if (Objects.nonNull(retryPolicy) && shouldRetry(retryPolicy, httpRequestResponse)) {
+                releaseConnection(httpRequestResponse);
+                CompletableFuture<Void> backoff = httpClientConfig.getRetryScheduler().delay(httpRequestResponse.getRetryDelay());
+                recordRetry(httpRequest);
+                cancellation.setAbort(() -> backoff.cancel(false));
+                backoff.thenRunAsync(() -> doExecuteAsync(httpExecutionContext, httpRequest, httpRequestResponse.newRetryAttempt(httpRequest.copy()),
+                        httpResponseHandler, result, cancellation), executorService());
+                return;
+            }
+
+            R responseHandlerResult = null;
+            if (Objects.nonNull(httpResponseHandler)) {
+                responseHandlerResult = httpResponseHandler.onResponse(httpRequestResponse.getHttpResponse());
+                if (Objects.nonNull(retryPolicy) && httpRequestResponse.getRetriesAttempted() == retryPolicy.getMaxErrorRetry()) {
+                    httpResponseHandler.onMaxRetryAttempted(httpRequestResponse.getHttpResponse());
+                }
+            }
+            releaseConnection(httpRequestResponse, responseHandlerResult);
+            result.complete(responseHandlerResult);
+        } catch (Exception exception) {
+            releaseConnection(httpRequestResponse);
+            result.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Wrap apache response, process after response handler and attach it to request response.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     * @param apacheHttpResponse the apache http response
+     */
+    private void processResponse(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, org.apache.http.HttpResponse apacheHttpResponse) {
+        httpRequestResponse.setExecutionEndTime();
+        HttpPhaseTimings httpPhaseTimings = httpRequestResponse.getHttpPhaseTimings();
+        if (Objects.isNull(apacheHttpResponse.getEntity())) {
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markResponseEnd();
+            }
+        } else if (Objects.nonNull(httpClientMetrics) || Objects.nonNull(httpPhaseTimings)) {
+            /* body is read later by response handler, end of body read is marked when stream reaches the end or is closed */
+            String httpRequestName = httpRequestResponse.getHttpRequest().getHttpRequestName();
+            apacheHttpResponse.setEntity(new MeteredHttpEntity(apacheHttpResponse.getEntity(), bytes -> {
+                if (Objects.nonNull(httpPhaseTimings)) {
+                    httpPhaseTimings.markResponseEnd();
+                }
+                if (Objects.nonNull(httpClientMetrics)) {
+                    httpClientMetrics.recordBytesReceived(httpRequestName, bytes);
+                }
+            }));
+        }
+        if (Objects.nonNull(httpClientConfig.getContentDecoderRegistry())) {
+            ContentCompression.decode(apacheHttpResponse, httpClientConfig.getContentDecoderRegistry(), compressionStatistics);
         }
+        HttpResponse httpResponse = new HttpResponse(apacheHttpResponse, httpClientConfig.getHttpBodyCodec());
+        afterResponse(httpExecutionContext, httpRequestResponse.getHttpRequest(), httpResponse);
+        httpRequestResponse.setHttpResponse(httpResponse);
+    }
+
+    /**
+     * Log the exception and process error handler.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     * @param exception the exception
+     */
+    private void processError(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse, Exception exception) {
+        LOGGER.error(exception.getMessage(), exception);
+        if (httpRequestResponse.getExecutionEndTime() == 0) {
+            httpRequestResponse.setExecutionEndTime();
+        }
+        httpRequestResponse.setException(exception);
+        onError(httpExecutionContext, httpRequestResponse.getHttpRequest(), exception);
+    }
+
+    /**
+     * Record latency and status of attempt.
+     * @param httpRequestResponse the http request response
+     */
+    private void recordMetrics(HttpRequestResponse httpRequestResponse) {
+        if (Objects.nonNull(httpClientMetrics)) {
+            httpClientMetrics.recordRequest(httpRequestResponse);
+        }
+    }
+
+    /**
+     * Record retry of request.
+     * @param httpRequest the http request
+     */
+    private void recordRetry(HttpRequest httpRequest) {
+        if (Objects.nonNull(httpClientMetrics)) {
+            httpClientMetrics.recordRetry(httpRequest.getHttpRequestName());
+        }
+    }
+
+    /**
+     * Acquire permission of circuit breaker of request host.
+     * @param httpRequest the http request
+     * @return the circuit breaker, null when circuit breaker is not configured
+     * @throws CircuitBreakerOpenException when circuit of host is open
+     */
+    private CircuitBreaker acquirePermission(HttpRequest httpRequest) throws CircuitBreakerOpenException {
+        if (Objects.isNull(circuitBreakerRegistry)) {
+            return null;
+        }
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.get(httpRequest.httpRequestURI());
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new CircuitBreakerOpenException(circuitBreaker.getHost());
+        }
+        return circuitBreaker;
+    }
+
+    /**
+     * Record outcome of permitted request, request without response or response matching
+     * {@link com.javaquery.http.circuitbreaker.CircuitBreakerConfig#getFailureCondition()} is failure.
+     * @param circuitBreaker the circuit breaker, nullable
+     * @param httpRequestResponse the http request response
+     */
+    private void recordOutcome(CircuitBreaker circuitBreaker, HttpRequestResponse httpRequestResponse) {
+        if (Objects.isNull(circuitBreaker)) {
+            return;
+        }
+        if (Objects.isNull(httpRequestResponse.getHttpResponse())
+                || httpClientConfig.getCircuitBreakerConfig().getFailureCondition().shouldRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted())) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * Give back permission of attempt cancelled by caller, cancellation says nothing about health of host.
+     * @param circuitBreaker the circuit breaker which permitted the attempt, nullable
+     */
+    private void releasePermission(CircuitBreaker circuitBreaker) {
+        if (Objects.nonNull(circuitBreaker)) {
+            circuitBreaker.releasePermission();
+        }
+    }
+
+    /**
+     * Decide once per attempt whether it is retried and after what delay, capped at {@link #MAX_BACKOFF_IN_MILLISECONDS}.
+     * Retry is denied by marking the attempt {@link HttpRequestResponse#isRetryDeadlineExceeded()} when backoff strategy
+     * returns {@link RetryPolicy.BackoffStrategy#STOP_RETRY} or retry would start after total timeout of request, or {@link HttpRequestResponse#isRetryBudgetExhausted()}
+     * when retry budget is empty. Retry denied by total timeout reports {@link DeadlineExceededException} to request handlers.
+     * Successful attempt, see {@link #isSuccess(RetryPolicy, HttpRequestResponse)}, deposits share of successful request to retry budget.
+     * @param httpExecutionContext the http execution context
+     * @param httpRequestResponse the http request response
+     */
+    private void decideRetry(HttpExecutionContext httpExecutionContext, HttpRequestResponse httpRequestResponse) {
+        RetryPolicy retryPolicy = httpRequestResponse.getHttpRequest().getRetryPolicy();
+        if (Objects.isNull(retryPolicy) || !shouldRetry(retryPolicy, httpRequestResponse)) {
+            if (Objects.nonNull(retryBudgetRegistry) && isSuccess(retryPolicy, httpRequestResponse)) {
+                retryBudgetRegistry.get(httpRequestResponse.getHttpRequest().httpRequestURI()).onSuccess();
+            }
+            return;
+        }
+        long delay = retryPolicy.getBackOffStrategy().delayBeforeNextRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted());
+        long deadline = deadline(httpRequestResponse);
+        if (delay < 0) {
+            httpRequestResponse.setRetryDeadlineExceeded(true);
+        } else if (deadline > 0 && System.currentTimeMillis() + delay >= deadline) {
+            httpRequestResponse.setRetryDeadlineExceeded(true);
+            processError(httpExecutionContext, httpRequestResponse,
+                    new DeadlineExceededException(httpTimeout(httpRequestResponse.getHttpRequest()).getTotalTimeoutInMilliseconds(), httpRequestResponse.getException()));
+        } else if (Objects.nonNull(retryBudgetRegistry) && !retryBudgetRegistry.get(httpRequestResponse.getHttpRequest().httpRequestURI()).tryAcquireRetry()) {
+            httpRequestResponse.setRetryBudgetExhausted(true);
+        } else {
+            httpRequestResponse.setRetryDelay(Math.min(delay, MAX_BACKOFF_IN_MILLISECONDS));
+        }
+    }
+
+    /**
+     * Attempt is successful when it has response and neither retry condition of request nor failure condition of
+     * circuit breaker matches it, failed and exhausted attempts must not refill retry budget.
+     * @param retryPolicy the retry policy of request, nullable
+     * @param httpRequestResponse the http request response
+     * @return true when attempt is successful
+     */
+    private boolean isSuccess(RetryPolicy retryPolicy, HttpRequestResponse httpRequestResponse) {
+        if (Objects.isNull(httpRequestResponse.getHttpResponse()) || Objects.nonNull(httpRequestResponse.getException())) {
+            return false;
+        }
+        if (Objects.nonNull(retryPolicy) && retryPolicy.getRetryCondition().shouldRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted())) {
+            return false;
+        }
+        RetryPolicy.RetryCondition failureCondition = Objects.nonNull(httpClientConfig.getCircuitBreakerConfig())
+                ? httpClientConfig.getCircuitBreakerConfig().getFailureCondition() : DEFAULT_FAILURE_CONDITION;
+        return !failureCondition.shouldRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted());
+    }
+
+    /**
+     * Executor configured by {@link HttpClientConfig#getExecutorService()}, otherwise virtual thread executor owned by this client.
+     * @return the executor service
+     */
+    private ExecutorService executorService() {
+        if (Objects.nonNull(httpClientConfig.getExecutorService())) {
+            return httpClientConfig.getExecutorService();
+        }
+        if (Objects.isNull(ownedExecutorService)) {
+            lock.lock();
+            try {
+                if (Objects.isNull(ownedExecutorService)) {
+                    ownedExecutorService = HttpExecutors.newVirtualThreadPerTaskExecutor();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return ownedExecutorService;
+    }
+
+    /**
+     * Build apache request and ask for content codings of {@link HttpClientConfig#getContentDecoderRegistry()}.
+     * @param httpRequest the http request
+     * @param apacheHttpRequestBuilder the apache http request builder
+     * @return the apache http request
+     */
+    private HttpUriRequest apacheHttpRequest(HttpRequest httpRequest, ApacheHttpRequestBuilder apacheHttpRequestBuilder) {
+        HttpUriRequest apacheHttpRequest = apacheHttpRequestBuilder.build();
+        if (Objects.nonNull(httpClientConfig.getContentDecoderRegistry())) {
+            ContentCompression.acceptEncoding(apacheHttpRequest, httpClientConfig.getContentDecoderRegistry());
+        }
+        if (Objects.nonNull(httpClientMetrics) && apacheHttpRequest instanceof HttpEntityEnclosingRequest) {
+            HttpEntityEnclosingRequest httpEntityEnclosingRequest = (HttpEntityEnclosingRequest) apacheHttpRequest;
+            if (Objects.nonNull(httpEntityEnclosingRequest.getEntity())) {
+                String httpRequestName = httpRequest.getHttpRequestName();
+                httpEntityEnclosingRequest.setEntity(new MeteredHttpEntity(httpEntityEnclosingRequest.getEntity(), bytes -> httpClientMetrics.recordBytesSent(httpRequestName, bytes)));
+            }
+        }
+        return apacheHttpRequest;
+    }
+
+    /**
+     * Only GET request without payload is hedged, so duplicate request cannot change state on server.
+     * @param httpRequest the http request
+     * @return result true or false
+     */
+    private boolean isHedged(HttpRequest httpRequest) {
+        return Objects.nonNull(httpRequest.getHedgePolicy())
+                && httpRequest.getHttpMethod() == HttpMethod.GET
+                && Objects.isNull(httpRequest.getHttpPayload());
+    }
 
-        if (Objects.nonNull(httpResponseHandler) && shouldExecuteHttpResponseHandler(httpRequestResponse)) {
-            return httpResponseHandler.onResponse(httpRequestResponse.getHttpResponse());
+    /**
+     * Send request with hedged requests of {@link HttpRequest#getHedgePolicy()}, first response wins.
+     * @param httpRequest the http request
+     * @param apacheHttpRequestBuilder the apache http request builder
+     * @return the future of first response
+     */
+    private CompletableFuture<org.apache.http.HttpResponse> executeHedged(HttpRequest httpRequest, ApacheHttpRequestBuilder apacheHttpRequestBuilder) {
+        return HedgedExecution.execute(hedgeHttpTransport, httpClientConfig.getRetryScheduler(), executorService(), hedgeBudget, httpRequest.getHedgePolicy(),
+                () -> apacheHttpRequest(httpRequest, apacheHttpRequestBuilder), () -> httpClientContext(httpRequest, apacheHttpRequestBuilder));
+    }
+
+    /**
+     * Send hedged request and report first response to callback.
+     * @param httpRequest the http request
+     * @param apacheHttpRequestBuilder the apache http request builder
+     * @param futureCallback the future callback
+     * @return the future of first response
+     */
+    private Future<?> executeHedged(HttpRequest httpRequest, ApacheHttpRequestBuilder apacheHttpRequestBuilder, FutureCallback<org.apache.http.HttpResponse> futureCallback) {
+        CompletableFuture<org.apache.http.HttpResponse> hedgedFuture = executeHedged(httpRequest, apacheHttpRequestBuilder);
+        hedgedFuture.whenComplete((apacheHttpResponse, throwable) -> {
+            if (hedgedFuture.isCancelled()) {
+                futureCallback.cancelled();
+            } else if (Objects.nonNull(throwable)) {
+                futureCallback.failed(throwable instanceof Exception ? (Exception) throwable : new ExecutionException(throwable));
+            } else {
+                futureCallback.completed(apacheHttpResponse);
+            }
+        });
+        return hedgedFuture;
+    }
+
+    /**
+     * Timeouts of request with defaults of {@link HttpClientConfig#getHttpTimeout()}.
+     * @param httpRequest the http request
+     * @return the http timeout
+     */
+    private HttpTimeout httpTimeout(HttpRequest httpRequest) {
+        return Objects.nonNull(httpRequest.getHttpTimeout())
+                ? httpRequest.getHttpTimeout().withDefaults(httpClientConfig.getHttpTimeout())
+                : httpClientConfig.getHttpTimeout();
+    }
+
+    /**
+     * Deadline of request, first attempt start time plus {@link HttpTimeout#getTotalTimeoutInMilliseconds()}.
+     * @param httpRequestResponse the http request response
+     * @return deadline in epoch milliseconds, 0 when request has no deadline
+     */
+    private long deadline(HttpRequestResponse httpRequestResponse) {
+        HttpTimeout httpTimeout = httpTimeout(httpRequestResponse.getHttpRequest());
+        if (Objects.isNull(httpTimeout) || Objects.isNull(httpTimeout.getTotalTimeoutInMilliseconds()) || httpTimeout.getTotalTimeoutInMilliseconds() <= 0) {
+            return 0;
+        }
+        return httpRequestResponse.getFirstExecutionStartTime() + httpTimeout.getTotalTimeoutInMilliseconds();
+    }
+
+    /**
+     * check whether deadline of request expired
+     * @param httpRequestResponse the http request response
+     * @return result true or false
+     */
+    private boolean isDeadlineExceeded(HttpRequestResponse httpRequestResponse) {
+        long deadline = deadline(httpRequestResponse);
+        return deadline > 0 && System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * Failure of attempt, replaced by {@link DeadlineExceededException} when attempt was aborted by deadline.
+     * @param httpRequestResponse the http request response
+     * @param exception the exception, nullable
+     * @return the exception
+     */
+    private Exception deadlineExceeded(HttpRequestResponse httpRequestResponse, Exception exception) {
+        if (exception instanceof DeadlineExceededException || !isDeadlineExceeded(httpRequestResponse)) {
+            return exception;
+        }
+        return new DeadlineExceededException(httpTimeout(httpRequestResponse.getHttpRequest()).getTotalTimeoutInMilliseconds(), exception);
+    }
+
+    /**
+     * Abort in-flight attempt when deadline of request expires.
+     * @param httpRequestResponse the http request response
+     * @param abort aborts the attempt
+     * @return the deadline timer, cancel it once attempt completes, null when request has no deadline
+     */
+    private CompletableFuture<Void> scheduleDeadline(HttpRequestResponse httpRequestResponse, Runnable abort) {
+        long deadline = deadline(httpRequestResponse);
+        if (deadline <= 0) {
+            return null;
+        }
+        CompletableFuture<Void> deadlineTimer = httpClientConfig.getRetryScheduler().delay(deadline - System.currentTimeMillis());
+        deadlineTimer.thenRunAsync(abort, executorService());
+        return deadlineTimer;
+    }
+
+    /**
+     * Wait for response of async exchange, interrupted thread cancels the exchange.
+     * @param future the future of response
+     * @return the apache http response
+     * @throws Exception failure of exchange
+     */
+    private org.apache.http.HttpResponse awaitResponse(CompletableFuture<org.apache.http.HttpResponse> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * Build per request context, so credentials, cookies, timeouts and phase timings are not shared between requests of pooled client.
+     * @param httpRequest the http request
+     * @param apacheHttpRequestBuilder the apache http request builder
+     * @return the http client context
+     */
+    private HttpClientContext httpClientContext(HttpRequest httpRequest, ApacheHttpRequestBuilder apacheHttpRequestBuilder) {
+        HttpClientContext httpClientContext = HttpClientContext.create();
+        httpClientContext.setCookieStore(new BasicCookieStore());
+        httpClientContext.setAttribute(HttpPhaseTimings.CONTEXT_ATTRIBUTE, new HttpPhaseTimings());
+        HttpTimeout httpTimeout = httpTimeout(httpRequest);
+        if (Objects.nonNull(httpTimeout)) {
+            httpClientContext.setRequestConfig(RequestConfig.custom()
+                    .setConnectTimeout(timeout(httpTimeout.getConnectTimeoutInMilliseconds()))
+                    .setSocketTimeout(timeout(httpTimeout.getSocketTimeoutInMilliseconds()))
+                    .setConnectionRequestTimeout(timeout(httpTimeout.getConnectionRequestTimeoutInMilliseconds()))
+                    .build());
+        }
+        CredentialsProvider credentialsProvider = apacheHttpRequestBuilder.credentialsProvider();
+        if (Objects.nonNull(credentialsProvider)) {
+            httpClientContext.setCredentialsProvider(credentialsProvider);
+        }
+        return httpClientContext;
+    }
+
+    /**
+     * Timeout of apache request config, -1 uses default of the system.
+     * @param timeoutInMilliseconds the timeout in milliseconds, nullable
+     * @return the timeout
+     */
+    private static int timeout(Integer timeoutInMilliseconds) {
+        return Objects.nonNull(timeoutInMilliseconds) ? timeoutInMilliseconds : -1;
+    }
+
+    /**
+     * Release pooled connection held by the response of request.
+     * Connection is returned to pool when body is fully read, otherwise it is closed.
+     * @param httpRequestResponse the http request response
+     */
+    private void releaseConnection(HttpRequestResponse httpRequestResponse) {
+        if (Objects.nonNull(httpRequestResponse.getHttpResponse())) {
+            httpRequestResponse.getHttpResponse().close();
+        }
+    }
+
+    /**
+     * Release pooled connection once response handler returned.
+     * When handler returns the response itself, its body is read into memory first so caller can still read it.
+     * @param httpRequestResponse the http request response
+     * @param responseHandlerResult the result of response handler
+     */
+    private void releaseConnection(HttpRequestResponse httpRequestResponse, Object responseHandlerResult) {
+        HttpResponse httpResponse = httpRequestResponse.getHttpResponse();
+        if (Objects.nonNull(httpResponse) && httpResponse == responseHandlerResult) {
+            httpResponse.bufferBodyIfNotStreamed();
+        }
+        releaseConnection(httpRequestResponse);
+    }
+
+    /**
+     * Close the transport and executor owned by this client.
+     */
+    @Override
+    public void close() {
+        try {
+            httpTransport.close();
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        } finally {
+            if (Objects.nonNull(ownedExecutorService)) {
+                ownedExecutorService.shutdown();
+            }
         }
-        return null;
     }
 
     /**
@@ -151,22 +1010,23 @@ public class HttpClient {
      * @return result true or false
      */
     private boolean shouldRetry(RetryPolicy retryPolicy, HttpRequestResponse httpRequestResponse) {
+        if (httpRequestResponse.isRetryBudgetExhausted() || httpRequestResponse.isRetryDeadlineExceeded()
+                || httpRequestResponse.getException() instanceof CircuitBreakerOpenException
+                || httpRequestResponse.getException() instanceof DeadlineExceededException) {
+            return false;
+        }
         boolean shouldRetryAttempted = retryPolicy.isRetryTillSucceed() || retryPolicy.getMaxErrorRetry() > httpRequestResponse.getRetriesAttempted();
         boolean shouldRetryCustomCondition = retryPolicy.getRetryCondition().shouldRetry(httpRequestResponse, httpRequestResponse.getRetriesAttempted());
         return shouldRetryAttempted && shouldRetryCustomCondition;
     }
 
     /**
-     * Sleep for given milliseconds between retries
-     * @param retryPolicy the retry policy
+     * Sleep for retry delay of attempt before next retry
      * @param httpRequestResponse the http request response
-     * @param retriesAttempted retries attempted
      */
-    private void sleepFor(RetryPolicy retryPolicy, HttpRequestResponse httpRequestResponse, int retriesAttempted) {
-        long delay = retryPolicy.getBackOffStrategy().delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
-        delay = Math.min(delay, MAX_BACKOFF_IN_MILLISECONDS);
+    private void sleepFor(HttpRequestResponse httpRequestResponse) {
         try {
-            TimeUnit.MILLISECONDS.sleep(delay);
+            TimeUnit.MILLISECONDS.sleep(httpRequestResponse.getRetryDelay());
         } catch (InterruptedException e) {
             LOGGER.error(e.getMessage(), e);
         }
@@ -0,0 +1,151 @@
+package com.javaquery.http;
+
+import com.javaquery.http.cache.HttpCacheConfig;
+import com.javaquery.http.circuitbreaker.CircuitBreakerConfig;
+import com.javaquery.http.codec.HttpBodyCodec;
+import com.javaquery.http.codec.JacksonHttpBodyCodec;
+import com.javaquery.http.compression.ContentDecoderRegistry;
+import com.javaquery.http.metrics.HttpClientMetrics;
+import com.javaquery.http.retry.RetryBudgetConfig;
+import com.javaquery.http.retry.RetryScheduler;
+import lombok.Builder;
+import lombok.Getter;
+import org.apache.http.HttpHeaders;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuration of the long-lived {@link HttpClient} and its connection pool.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+@Builder
+public class HttpClientConfig {
+
+    /**
+     * Protocol of transport, {@link HttpProtocol#HTTP_2} multiplexes requests to the same host over one connection.
+     */
+    @Builder.Default
+    private HttpProtocol httpProtocol = HttpProtocol.HTTP_1_1;
+
+    /**
+     * Name of {@link com.javaquery.http.transport.HttpTransportProvider}, overrides {@link #httpProtocol} when set.
+     * Built-in transports are "apache4", "apache5" and "apache5-h2".
+     */
+    private String httpTransportName;
+
+    /**
+     * Maximum pooled connections per route (scheme + host + port), not used by {@link HttpProtocol#HTTP_2} which multiplexes one connection.
+     */
+    @Builder.Default
+    private int maxConnectionsPerRoute = 20;
+
+    /**
+     * Maximum pooled connections across all routes.
+     */
+    @Builder.Default
+    private int maxConnectionsTotal = 200;
+
+    /**
+     * Idle connections older than this are evicted by the background evictor.
+     */
+    @Builder.Default
+    private long maxIdleTimeInMilliseconds = 30 * 1000;
+
+    /**
+     * Total time to live of pooled connection, non-positive value means connection never expires.
+     */
+    @Builder.Default
+    private long connectionTimeToLiveInMilliseconds = -1;
+
+    /**
+     * Pooled connection inactive for this period is validated before it is leased again.
+     */
+    @Builder.Default
+    private int validateAfterInactivityInMilliseconds = 2000;
+
+    /**
+     * Default timeouts of requests, see {@link HttpTimeout#defaultConfig()}.
+     */
+    @Builder.Default
+    private HttpTimeout httpTimeout = HttpTimeout.defaultConfig();
+
+    /**
+     * Timer used by {@link HttpClient#executeAsync} to wait for backoff between retries.
+     */
+    @Builder.Default
+    private RetryScheduler retryScheduler = RetryScheduler.shared();
+
+    /**
+     * Codec used by {@link HttpResponse#getBody(Class)}, {@link HttpResponse#getBodyIterator(Class)} and their streaming variants.
+     */
+    @Builder.Default
+    private HttpBodyCodec httpBodyCodec = JacksonHttpBodyCodec.getDefault();
+
+    /**
+     * Content codings sent as Accept-Encoding, response body is decoded while it is read.
+     * Set null to leave Accept-Encoding to the request and pass response body as it is received.
+     */
+    @Builder.Default
+    private ContentDecoderRegistry contentDecoderRegistry = ContentDecoderRegistry.getDefault();
+
+    /**
+     * Response cache of GET requests, fresh responses are served without request to server. Disabled when not set.
+     */
+    private HttpCacheConfig httpCacheConfig;
+
+    /**
+     * Concurrent identical GET and HEAD requests share one request to server, see {@link com.javaquery.http.transport.CoalescingHttpTransport}.
+     */
+    private boolean requestCoalescing;
+
+    /**
+     * Request headers which make coalesced requests different, method, URI and credentials always do.
+     */
+    @Builder.Default
+    private List<String> requestCoalescingHeaders = Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.AUTHORIZATION, "Cookie");
+
+    /**
+     * Per host circuit breaker, requests to host with open circuit fail fast with
+     * {@link com.javaquery.http.exception.CircuitBreakerOpenException} and are not retried. Disabled when not set.
+     */
+    private CircuitBreakerConfig circuitBreakerConfig;
+
+    /**
+     * Retry budget shared by requests, retries over budget are denied even when {@link com.javaquery.http.retry.RetryPolicy} permits them.
+     * Disabled when not set.
+     */
+    private RetryBudgetConfig retryBudgetConfig;
+
+    /**
+     * Budget of hedged requests of {@link com.javaquery.http.hedge.HedgePolicy}, every hedged exchange deposits retryPercentage
+     * of one hedged request, so by default at most 10% of requests are hedged.
+     */
+    @Builder.Default
+    private RetryBudgetConfig hedgeBudgetConfig = RetryBudgetConfig.builder().retryPercentage(10).maxRetries(10).build();
+
+    /**
+     * Recorder of latency, status codes, retries, bytes and connection pool of requests, for example
+     * {@link com.javaquery.http.metrics.DefaultHttpClientMetrics}. Disabled when not set.
+     */
+    private HttpClientMetrics httpClientMetrics;
+
+    /**
+     * Executor of {@link HttpClient#submit} and {@link HttpClient#executeAll}, caller owns its lifecycle.
+     * When not set, client creates {@link HttpExecutors#newVirtualThreadPerTaskExecutor()} on first use and shuts it down on close.
+     */
+    private ExecutorService executorService;
+
+    /**
+     * Default http client config.
+     *
+     * @return the http client config
+     */
+    public static HttpClientConfig defaultConfig() {
+        return HttpClientConfig.builder().build();
+    }
+}
@@ -2,29 +2,33 @@ package com.javaquery.http;
 
 import com.javaquery.http.handler.HttpRequestHandler;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The Http execution context to hold extra data/information for http request and response.
  * Use this class to provide {@link HttpRequestHandler}.
+ * <p>
+ * Context is thread-safe and can be shared by concurrent requests. Meta data is kept in {@link ConcurrentHashMap}
+ * and handler chain in {@link CopyOnWriteArrayList}, so requests in flight keep iterating the chain they started with
+ * while handlers are added.
  *
  * @author javaquery
  * @since 1.0.0
  */
 public class HttpExecutionContext {
 
-    private Map<String, Object> metaData;
-    private List<HttpRequestHandler> httpRequestHandlers;
+    private volatile Map<String, Object> metaData;
+    private volatile List<HttpRequestHandler> httpRequestHandlers;
 
     /**
      * Instantiates a new Http execution context.
      */
     public HttpExecutionContext() {
-        this.metaData = new HashMap<>();
-        this.httpRequestHandlers = new ArrayList<>();
+        this.metaData = new ConcurrentHashMap<>();
+        this.httpRequestHandlers = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -48,22 +52,32 @@ public class HttpExecutionContext {
     }
 
     /**
-     * Sets meta data.
+     * Sets meta data, entries are copied to concurrent map and entries with null value are skipped.
      *
      * @param metaData the meta data
      */
     public void setMetaData(Map<String, Object> metaData) {
-        this.metaData = metaData;
+        Map<String, Object> concurrentMetaData = new ConcurrentHashMap<>();
+        metaData.forEach((key, value) -> {
+            if (value != null) {
+                concurrentMetaData.put(key, value);
+            }
+        });
+        this.metaData = concurrentMetaData;
     }
 
     /**
-     * Add meta data.
+     * Add meta data, null value removes the key.
      *
      * @param key   the key
      * @param value the value
      */
     public void addMetaData(String key, Object value){
-        this.metaData.put(key, value);
+        if (value == null) {
+            this.metaData.remove(key);
+        } else {
+            this.metaData.put(key, value);
+        }
     }
 
     /**
@@ -76,12 +90,12 @@ public class HttpExecutionContext {
     }
 
     /**
-     * Sets http request handlers.
+     * Sets http request handlers, handlers are copied to copy-on-write list.
      *
      * @param httpRequestHandlers the http request handlers
      */
     public void setHttpRequestHandlers(List<HttpRequestHandler> httpRequestHandlers) {
-        this.httpRequestHandlers = httpRequestHandlers;
+        this.httpRequestHandlers = new CopyOnWriteArrayList<>(httpRequestHandlers);
     }
 
     /**
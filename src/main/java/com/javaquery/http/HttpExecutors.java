@@ -0,0 +1,49 @@
+package com.javaquery.http;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors to run blocking {@link HttpClient#execute} off the caller thread.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class HttpExecutors {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private HttpExecutors() {
+    }
+
+    /**
+     * Executor which starts new virtual thread for each task on JDK 21+.
+     * Library is compiled for Java 8, so executor is looked up at runtime and
+     * {@link #newCachedThreadPool()} is returned on older JDK.
+     *
+     * @return the executor service
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Cached pool of daemon platform threads.
+     *
+     * @return the executor service
+     */
+    public static ExecutorService newCachedThreadPool() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "javaquery-http-executor-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
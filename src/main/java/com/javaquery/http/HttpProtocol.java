@@ -0,0 +1,18 @@
+package com.javaquery.http;
+
+/**
+ * The enum Http protocol, selects transport of {@link HttpClient}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public enum HttpProtocol {
+    /**
+     * HTTP/1.1 on Apache HttpClient 4, one request per connection at a time.
+     */
+    HTTP_1_1,
+    /**
+     * HTTP/2 on Apache HttpClient 5, requests to the same host are multiplexed over one connection.
+     */
+    HTTP_2;
+}
@@ -3,15 +3,29 @@ package com.javaquery.http;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.hedge.HedgePolicy;
 import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.util.Objects;
 import com.javaquery.util.collection.Collections;
+import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * The build Http request using the class.
@@ -31,13 +45,21 @@ public class HttpRequest {
     private final int port;
     private final String endPoint;
 
+    /* unmodifiable, change replaces the map so templates and copies of request share it without copying */
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
-    private Map<String, String> headers;
+    private volatile Map<String, String> headers;
 
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private Map<String, String> queryParameters;
     private final HttpPayload httpPayload;
     private final RetryPolicy retryPolicy;
+    private final HedgePolicy hedgePolicy;
+    private final HttpTimeout httpTimeout;
+
+    /* host, port and end point compiled once by builder, query parameters are appended to it */
+    private final URI baseURI;
+    /* complete URI, reset when query parameters are changed */
+    private URI httpRequestURI;
 
     /**
      * Instantiates a new Http request.
@@ -54,10 +76,72 @@ public class HttpRequest {
         this.host = httpRequestBuilder.host;
         this.port = httpRequestBuilder.port;
         this.endPoint = httpRequestBuilder.endPoint;
-        this.headers = httpRequestBuilder.headers;
-        this.queryParameters = httpRequestBuilder.queryParameters;
+        this.headers = java.util.Collections.unmodifiableMap(new HashMap<>(httpRequestBuilder.headers));
+        this.queryParameters = new LinkedHashMap<>(httpRequestBuilder.queryParameters);
         this.httpPayload = httpRequestBuilder.httpPayload;
         this.retryPolicy = httpRequestBuilder.retryPolicy;
+        this.hedgePolicy = httpRequestBuilder.hedgePolicy;
+        this.httpTimeout = httpRequestBuilder.httpTimeout;
+        this.baseURI = httpRequestBuilder.baseURI();
+    }
+
+    /**
+     * Instantiates a new Http request from template.
+     *
+     * @param httpRequestTemplate the http request template
+     * @param endPoint            the end point with bound path variables
+     * @param baseURI             the compiled base URI
+     * @param queryParameters     the query parameters owned by this request
+     * @param httpPayload         the http payload
+     */
+    HttpRequest(HttpRequestTemplate httpRequestTemplate, String endPoint, URI baseURI, Map<String, String> queryParameters, HttpPayload httpPayload) {
+        this.httpRequestName = httpRequestTemplate.getHttpRequestName();
+        this.httpMethod = httpRequestTemplate.getHttpMethod();
+        this.username = httpRequestTemplate.getUsername();
+        this.password = httpRequestTemplate.getPassword();
+        this.host = httpRequestTemplate.getHost();
+        this.port = httpRequestTemplate.getPort();
+        this.endPoint = endPoint;
+        this.headers = httpRequestTemplate.getHeaders();
+        this.queryParameters = queryParameters;
+        this.httpPayload = httpPayload;
+        this.retryPolicy = httpRequestTemplate.getRetryPolicy();
+        this.hedgePolicy = httpRequestTemplate.getHedgePolicy();
+        this.httpTimeout = httpRequestTemplate.getHttpTimeout();
+        this.baseURI = baseURI;
+    }
+
+    /**
+     * Copy of http request for one execution attempt.
+     * Headers are shared by both requests as they are never changed in place, query parameters are copied.
+     *
+     * @param httpRequest the http request
+     */
+    private HttpRequest(HttpRequest httpRequest) {
+        this.httpRequestName = httpRequest.httpRequestName;
+        this.httpMethod = httpRequest.httpMethod;
+        this.username = httpRequest.username;
+        this.password = httpRequest.password;
+        this.host = httpRequest.host;
+        this.port = httpRequest.port;
+        this.endPoint = httpRequest.endPoint;
+        this.headers = httpRequest.headers;
+        this.queryParameters = new LinkedHashMap<>(httpRequest.queryParameters);
+        this.httpPayload = httpRequest.httpPayload;
+        this.retryPolicy = httpRequest.retryPolicy;
+        this.hedgePolicy = httpRequest.hedgePolicy;
+        this.httpTimeout = httpRequest.httpTimeout;
+        this.baseURI = httpRequest.baseURI;
+        this.httpRequestURI = httpRequest.httpRequestURI;
+    }
+
+    /**
+     * Copy http request, {@link HttpClient} executes copy so request handlers never change the request of caller.
+     *
+     * @return the http request
+     */
+    HttpRequest copy() {
+        return new HttpRequest(this);
     }
 
     /**
@@ -119,9 +203,9 @@ public class HttpRequest {
     }
 
     /**
-     * Gets headers.
+     * Gets headers, change them using {@link #withHeader(String, String)} or {@link #withHeaders(Map)}.
      *
-     * @return the headers
+     * @return the unmodifiable headers
      */
     public Map<String, String> getHeaders() {
         return headers;
@@ -135,10 +219,9 @@ public class HttpRequest {
      * @return the http request
      */
     public HttpRequest withHeader(String key, String value) {
-        if (Collections.nullOrEmpty(headers)) {
-            headers = new HashMap<>();
-        }
-        this.headers.put(key, value);
+        Map<String, String> headers = copyOfHeaders();
+        headers.put(key, value);
+        this.headers = java.util.Collections.unmodifiableMap(headers);
         return this;
     }
 
@@ -149,10 +232,21 @@ public class HttpRequest {
      * @return the http request
      */
     public HttpRequest withHeaders(Map<String, String> headers) {
-        this.headers.putAll(headers);
+        Map<String, String> copyOfHeaders = copyOfHeaders();
+        copyOfHeaders.putAll(headers);
+        this.headers = java.util.Collections.unmodifiableMap(copyOfHeaders);
         return this;
     }
 
+    /**
+     * Copy headers before they are changed, current map may be shared with {@link HttpRequestTemplate} or other copies of request.
+     *
+     * @return the modifiable copy of headers
+     */
+    private Map<String, String> copyOfHeaders() {
+        return Collections.nullOrEmpty(headers) ? new HashMap<>() : new HashMap<>(headers);
+    }
+
     /**
      * With query parameter http request.
      *
@@ -162,6 +256,7 @@ public class HttpRequest {
      */
     public HttpRequest withQueryParameter(String key, String value) {
         this.queryParameters.put(key, value);
+        this.httpRequestURI = null;
         return this;
     }
 
@@ -173,16 +268,17 @@ public class HttpRequest {
      */
     public HttpRequest withQueryParameter(Map<String, String> queryParameters) {
         this.queryParameters.putAll(queryParameters);
+        this.httpRequestURI = null;
         return this;
     }
 
     /**
-     * Gets query parameters.
+     * Gets query parameters, use {@link #withQueryParameter(String, String)} to change them.
      *
-     * @return the query parameters
+     * @return the unmodifiable query parameters
      */
     public Map<String, String> getQueryParameters() {
-        return queryParameters;
+        return java.util.Collections.unmodifiableMap(queryParameters);
     }
 
     /**
@@ -204,19 +300,79 @@ public class HttpRequest {
     }
 
     /**
-     * Build http request complete URI with parameters
+     * Gets hedge policy.
+     *
+     * @return the hedge policy
+     */
+    public HedgePolicy getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    /**
+     * Gets http timeout.
+     *
+     * @return the http timeout
+     */
+    public HttpTimeout getHttpTimeout() {
+        return httpTimeout;
+    }
+
+    /**
+     * Build http request complete URI with parameters.
+     * URI is built once and reused till query parameters are changed.
      *
      * @return the URI
      */
     public URI httpRequestURI() {
+        URI uri = httpRequestURI;
+        if (Objects.isNull(uri)) {
+            uri = Objects.nonNull(baseURI) ? appendQueryParameters(baseURI) : buildURI();
+            httpRequestURI = uri;
+        }
+        return uri;
+    }
+
+    /**
+     * Append encoded query parameters to compiled base URI.
+     *
+     * @param baseURI the base URI
+     * @return the URI
+     */
+    private URI appendQueryParameters(URI baseURI) {
+        if (Collections.nullOrEmpty(queryParameters)) {
+            return baseURI;
+        }
+        if (Objects.nonNull(baseURI.getRawFragment())) {
+            return buildURI();
+        }
+        List<NameValuePair> nameValuePairs = new ArrayList<>(queryParameters.size());
+        queryParameters.forEach((key, value) -> nameValuePairs.add(new BasicNameValuePair(key, value)));
+        String uri = baseURI.toString();
+        StringBuilder stringBuilder = new StringBuilder(uri.length() + queryParameters.size() * 32)
+                .append(uri)
+                .append(Objects.isNull(baseURI.getRawQuery()) ? '?' : '&')
+                .append(URLEncodedUtils.format(nameValuePairs, StandardCharsets.UTF_8));
+        try {
+            return new URI(stringBuilder.toString());
+        } catch (URISyntaxException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Build URI from host, port, end point and query parameters.
+     *
+     * @return the URI
+     */
+    private URI buildURI() {
         try {
             URIBuilder uriBuilder = new URIBuilder(getHost());
             if (getPort() != 0) {
                 uriBuilder.setPort(getPort());
             }
             uriBuilder.setPath(getEndPoint());
-            if (Collections.nonNullNonEmpty(getQueryParameters())) {
-                getQueryParameters().forEach(uriBuilder::addParameter);
+            if (Collections.nonNullNonEmpty(queryParameters)) {
+                queryParameters.forEach(uriBuilder::addParameter);
             }
             return uriBuilder.build();
         } catch (URISyntaxException e) {
@@ -228,6 +384,11 @@ public class HttpRequest {
      * The type Http payload.
      * Use HttpPayload(String charset, String contentType, String payload) for String based payload.
      * Use HttpPayload(String charset, String contentType, Map&lt;String, Object&gt; form) for form based payload.
+     * Use HttpPayload(String contentType, byte[] bytes), HttpPayload(String contentType, ByteBuffer byteBuffer)
+     * or HttpPayload(String contentType, Path path) for binary payload.
+     * Use HttpPayload(String contentType, Supplier&lt;InputStream&gt; inputStreamSupplier, long contentLength),
+     * HttpPayload(String contentType, InputStream inputStream, long contentLength)
+     * or HttpPayload(String contentType, PayloadWriter payloadWriter) to stream payload without building it in memory.
      */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class HttpPayload {
@@ -236,6 +397,11 @@ public class HttpRequest {
         private final String payload;
         @JsonInclude(JsonInclude.Include.NON_EMPTY)
         private final Map<String, Object> form;
+        @JsonIgnore
+        private final Object content;
+        @JsonIgnore
+        private final long contentLength;
+        private final boolean gzipCompression;
 
         /**
          * Instantiates a new Http payload.
@@ -245,10 +411,7 @@ public class HttpRequest {
          * @param payload     the payload
          */
         public HttpPayload(String charset, String contentType, String payload) {
-            this.charset = charset;
-            this.contentType = contentType;
-            this.payload = payload;
-            this.form = null;
+            this(charset, contentType, payload, null, null, -1);
         }
 
         /**
@@ -259,10 +422,94 @@ public class HttpRequest {
          * @param form        the form
          */
         public HttpPayload(String charset, String contentType, Map<String, Object> form) {
+            this(charset, contentType, null, form, null, -1);
+        }
+
+        /**
+         * Instantiates a new binary Http payload, bytes are sent as it is without copy.
+         *
+         * @param contentType the content type
+         * @param bytes       the bytes
+         */
+        public HttpPayload(String contentType, byte[] bytes) {
+            this(null, contentType, null, null, bytes, bytes.length);
+        }
+
+        /**
+         * Instantiates a new binary Http payload, remaining bytes of buffer are sent without copy.
+         * Position of the buffer is not changed, so payload can be sent again on retry.
+         *
+         * @param contentType the content type
+         * @param byteBuffer  the byte buffer
+         */
+        public HttpPayload(String contentType, ByteBuffer byteBuffer) {
+            this(null, contentType, null, null, byteBuffer, byteBuffer.remaining());
+        }
+
+        /**
+         * Instantiates a new file Http payload, file is streamed with known content length.
+         *
+         * @param contentType the content type
+         * @param path        the path of file
+         */
+        public HttpPayload(String contentType, Path path) {
+            this(null, contentType, null, null, path, path.toFile().length());
+        }
+
+        /**
+         * Instantiates a new streaming Http payload, supplier is called for every attempt so payload can be retried.
+         *
+         * @param contentType         the content type
+         * @param inputStreamSupplier the input stream supplier
+         * @param contentLength       the content length, -1 when unknown and payload will be sent chunked
+         */
+        public HttpPayload(String contentType, Supplier<InputStream> inputStreamSupplier, long contentLength) {
+            this(null, contentType, null, null, inputStreamSupplier, contentLength);
+        }
+
+        /**
+         * Instantiates a new streaming Http payload, stream can be sent only once so request with such payload can not be retried.
+         *
+         * @param contentType   the content type
+         * @param inputStream   the input stream
+         * @param contentLength the content length, -1 when unknown and payload will be sent chunked
+         */
+        public HttpPayload(String contentType, InputStream inputStream, long contentLength) {
+            this(null, contentType, null, null, inputStream, contentLength);
+        }
+
+        /**
+         * Instantiates a new streaming Http payload, writer is called for every attempt and payload is sent chunked.
+         *
+         * @param contentType   the content type
+         * @param payloadWriter the payload writer
+         */
+        public HttpPayload(String contentType, PayloadWriter payloadWriter) {
+            this(null, contentType, null, null, payloadWriter, -1);
+        }
+
+        private HttpPayload(String charset, String contentType, String payload, Map<String, Object> form, Object content, long contentLength) {
+            this(charset, contentType, payload, form, content, contentLength, false);
+        }
+
+        private HttpPayload(String charset, String contentType, String payload, Map<String, Object> form, Object content, long contentLength, boolean gzipCompression) {
             this.charset = charset;
             this.contentType = contentType;
+            this.payload = payload;
             this.form = form;
-            this.payload = null;
+            this.content = content;
+            this.contentLength = contentLength;
+            this.gzipCompression = gzipCompression;
+        }
+
+        /**
+         * Copy of this payload which is gzip compressed while it is sent, with Content-Encoding: gzip.
+         * Compressed length is not known upfront, so payload is sent chunked.
+         *
+         * @return the http payload
+         */
+        public HttpPayload withGzipCompression() {
+            return new HttpPayload(charset, contentType, payload, form, content, contentLength, true);
         }
 
         /**
@@ -300,6 +547,170 @@ public class HttpRequest {
         public Map<String, Object> getForm() {
             return form;
         }
+
+        /**
+         * Gets binary or streaming content, one of byte[], {@link ByteBuffer}, {@link Path},
+         * Supplier&lt;InputStream&gt;, {@link InputStream} or {@link PayloadWriter}.
+         *
+         * @return the content
+         */
+        @JsonIgnore
+        public Object getContent() {
+            return content;
+        }
+
+        /**
+         * Gets content length of binary or streaming content, -1 when unknown.
+         *
+         * @return the content length
+         */
+        @JsonIgnore
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        /**
+         * Is payload gzip compressed while it is sent.
+         *
+         * @return the boolean
+         */
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        public boolean isGzipCompression() {
+            return gzipCompression;
+        }
+    }
+
+    /**
+     * Part of multipart form payload, put it as value (or list of values) of form in HttpPayload.
+     * Part is streamed from its source while request is written, with known content length multipart request is not chunked.
+     * Path, byte[], {@link ByteBuffer} and Supplier&lt;InputStream&gt; parts can be sent again on retry,
+     * {@link InputStream} part can be sent only once.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class HttpFormPart {
+        private final String contentType;
+        private final String fileName;
+        @JsonIgnore
+        private final Object content;
+        @JsonIgnore
+        private final long contentLength;
+
+        /**
+         * Instantiates a new file form part, file is streamed from disk.
+         *
+         * @param contentType the content type
+         * @param fileName    the file name, name of file when null
+         * @param path        the path of file
+         */
+        public HttpFormPart(String contentType, String fileName, Path path) {
+            this(contentType, Objects.nonNull(fileName) ? fileName : path.getFileName().toString(), path, path.toFile().length());
+        }
+
+        /**
+         * Instantiates a new binary form part, bytes are sent as it is without copy.
+         *
+         * @param contentType the content type
+         * @param fileName    the file name
+         * @param bytes       the bytes
+         */
+        public HttpFormPart(String contentType, String fileName, byte[] bytes) {
+            this(contentType, fileName, bytes, bytes.length);
+        }
+
+        /**
+         * Instantiates a new binary form part, remaining bytes of buffer are sent without copy.
+         * Position of the buffer is not changed, so part can be sent again on retry.
+         *
+         * @param contentType the content type
+         * @param fileName    the file name
+         * @param byteBuffer  the byte buffer
+         */
+        public HttpFormPart(String contentType, String fileName, ByteBuffer byteBuffer) {
+            this(contentType, fileName, byteBuffer, byteBuffer.remaining());
+        }
+
+        /**
+         * Instantiates a new streaming form part, supplier is called for every attempt so part can be retried.
+         *
+         * @param contentType         the content type
+         * @param fileName            the file name
+         * @param inputStreamSupplier the input stream supplier
+         * @param contentLength       the content length, -1 when unknown and request will be sent chunked
+         */
+        public HttpFormPart(String contentType, String fileName, Supplier<InputStream> inputStreamSupplier, long contentLength) {
+            this(contentType, fileName, (Object) inputStreamSupplier, contentLength);
+        }
+
+        /**
+         * Instantiates a new streaming form part, stream can be sent only once so request with such part can not be retried.
+         *
+         * @param contentType   the content type
+         * @param fileName      the file name
+         * @param inputStream   the input stream
+         * @param contentLength the content length, -1 when unknown and request will be sent chunked
+         */
+        public HttpFormPart(String contentType, String fileName, InputStream inputStream, long contentLength) {
+            this(contentType, fileName, (Object) inputStream, contentLength);
+        }
+
+        private HttpFormPart(String contentType, String fileName, Object content, long contentLength) {
+            this.contentType = contentType;
+            this.fileName = fileName;
+            this.content = content;
+            this.contentLength = contentLength;
+        }
+
+        /**
+         * Gets content type.
+         *
+         * @return the content type
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Gets file name.
+         *
+         * @return the file name
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Gets content, one of byte[], {@link ByteBuffer}, {@link Path}, Supplier&lt;InputStream&gt; or {@link InputStream}.
+         *
+         * @return the content
+         */
+        @JsonIgnore
+        public Object getContent() {
+            return content;
+        }
+
+        /**
+         * Gets content length, -1 when unknown.
+         *
+         * @return the content length
+         */
+        @JsonIgnore
+        public long getContentLength() {
+            return contentLength;
+        }
+    }
+
+    /**
+     * Implement interface to write payload directly to the connection stream.
+     */
+    @FunctionalInterface
+    public interface PayloadWriter {
+        /**
+         * Write payload.
+         *
+         * @param outputStream the output stream of request body
+         * @throws IOException the io exception
+         */
+        void writeTo(OutputStream outputStream) throws IOException;
     }
 
     /**
@@ -317,6 +728,9 @@ public class HttpRequest {
         private Map<String, String> queryParameters;
         private HttpPayload httpPayload;
         private RetryPolicy retryPolicy;
+        private HedgePolicy hedgePolicy;
+        private HttpTimeout httpTimeout;
+        private URI baseURI;
 
         /**
          * Instantiates a new Http request builder.
@@ -353,6 +767,7 @@ public class HttpRequest {
         public HttpRequestBuilder withHost(String host) {
             try {
                 this.host = new URI(host);
+                this.baseURI = null;
             } catch (URISyntaxException e) {
                 throw new HttpException(e);
             }
@@ -361,6 +776,7 @@ public class HttpRequest {
 
         public HttpRequestBuilder withPort(int port) {
             this.port = port;
+            this.baseURI = null;
             return this;
         }
 
@@ -372,6 +788,7 @@ public class HttpRequest {
          */
         public HttpRequestBuilder withEndPoint(String endPoint) {
             this.endPoint = endPoint;
+            this.baseURI = null;
             return this;
         }
 
@@ -443,6 +860,50 @@ public class HttpRequest {
             return this;
         }
 
+        /**
+         * With hedge policy http request builder, only GET request without payload is hedged.
+         *
+         * @param hedgePolicy the hedge policy
+         * @return the http request builder
+         */
+        public HttpRequestBuilder withHedgePolicy(HedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy;
+            return this;
+        }
+
+        /**
+         * With http timeout http request builder, timeouts which are not set fall back to {@link HttpClientConfig#getHttpTimeout()}.
+         *
+         * @param httpTimeout the http timeout
+         * @return the http request builder
+         */
+        public HttpRequestBuilder withHttpTimeout(HttpTimeout httpTimeout) {
+            this.httpTimeout = httpTimeout;
+            return this;
+        }
+
+        /**
+         * Compile host, port and end point once, so requests built by this builder only append query parameters.
+         * Invalid URI is reported when request URI is built.
+         *
+         * @return the base URI or null
+         */
+        private URI baseURI() {
+            if (Objects.isNull(baseURI) && Objects.nonNull(host)) {
+                try {
+                    URIBuilder uriBuilder = new URIBuilder(host);
+                    if (port != 0) {
+                        uriBuilder.setPort(port);
+                    }
+                    uriBuilder.setPath(endPoint);
+                    baseURI = uriBuilder.build();
+                } catch (URISyntaxException e) {
+                    return null;
+                }
+            }
+            return baseURI;
+        }
+
         /**
          * Build http request.
          *
@@ -1,5 +1,6 @@
 package com.javaquery.http;
 
+import com.javaquery.http.metrics.HttpPhaseTimings;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,9 +19,19 @@ import java.util.Objects;
 public class HttpRequestResponse {
     private HttpRequest httpRequest;
     private HttpResponse httpResponse;
+    private Exception exception;
     private int retriesAttempted = 0;
+    private boolean retryBudgetExhausted;
+    private boolean retryDeadlineExceeded;
+    private long retryDelay;
+    private long previousRetryDelay;
+    private long firstExecutionStartTime;
     private long executionStartTime;
     private long executionEndTime;
+    private long executionStartNanoTime;
+    private long executionEndNanoTime;
+    /* phases of attempt, null when transport did not send it */
+    private HttpPhaseTimings httpPhaseTimings;
 
     /**
      * Instantiates a new Http request response.
@@ -30,6 +41,22 @@ public class HttpRequestResponse {
     public HttpRequestResponse(HttpRequest httpRequest){
         this.httpRequest = httpRequest;
         this.executionStartTime = System.currentTimeMillis();
+        this.executionStartNanoTime = System.nanoTime();
+        this.firstExecutionStartTime = executionStartTime;
+    }
+
+    /**
+     * Create request response of next retry, it keeps start time of first attempt and delay before this retry.
+     *
+     * @param httpRequest the http request of retry
+     * @return the http request response
+     */
+    public HttpRequestResponse newRetryAttempt(HttpRequest httpRequest) {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(httpRequest);
+        httpRequestResponse.retriesAttempted = retriesAttempted + 1;
+        httpRequestResponse.firstExecutionStartTime = firstExecutionStartTime;
+        httpRequestResponse.previousRetryDelay = retryDelay;
+        return httpRequestResponse;
     }
 
     /**
@@ -37,6 +64,16 @@ public class HttpRequestResponse {
      */
     public void setExecutionEndTime(){
         executionEndTime = System.currentTimeMillis();
+        executionEndNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Gets execution time of attempt measured using monotonic clock.
+     *
+     * @return execution time in nanoseconds, -1 when attempt has not ended
+     */
+    public long getExecutionTimeInNanos() {
+        return executionEndNanoTime != 0 ? executionEndNanoTime - executionStartNanoTime : -1;
     }
 
     /**
@@ -55,6 +92,12 @@ public class HttpRequestResponse {
             attributes.put(StringPool.LOG_HTTP_RESPONSE, httpResponse);
         }
         attributes.put(StringPool.RETRIES_ATTEMPTED, retriesAttempted);
+        if(Objects.nonNull(httpPhaseTimings)){
+            Map<String, Long> phaseTimings = httpPhaseTimings.toMap();
+            if(!phaseTimings.isEmpty()){
+                attributes.put(StringPool.PHASE_TIMINGS, phaseTimings);
+            }
+        }
         return attributes;
     }
 }
@@ -0,0 +1,413 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.hedge.HedgePolicy;
+import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.util.Objects;
+import com.javaquery.util.collection.Collections;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.http.client.utils.URIBuilder;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable and thread-safe blueprint of {@link HttpRequest}.
+ * Host, end point, static headers and retry policy are set once, URI is compiled once and
+ * every call of {@link #newHttpRequest(Map, Map, HttpRequest.HttpPayload)} creates lightweight {@link HttpRequest}
+ * with bound path variables, query parameters and payload.
+ * <p>
+ * End point may contain path variables like <code>/users/{userId}/orders</code>, value of path variable is encoded as path segment.
+ * Headers of template are shared with created requests and copied only when request changes them.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+public final class HttpRequestTemplate {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final String PATH_SEGMENT_SAFE_CHARACTERS = "_-!.~'()*,;:$&+=@";
+
+    private final String httpRequestName;
+    private final HttpMethod httpMethod;
+    private final String username;
+    private final String password;
+    private final URI host;
+    private final int port;
+    private final String endPoint;
+    private final Map<String, String> headers;
+    private final Map<String, String> queryParameters;
+    private final HttpRequest.HttpPayload httpPayload;
+    private final RetryPolicy retryPolicy;
+    private final HedgePolicy hedgePolicy;
+    private final HttpTimeout httpTimeout;
+
+    /* scheme, authority of host and encoded literal parts of end point, path variables are placed between literal parts */
+    @Getter(AccessLevel.NONE)
+    private final String uriPrefix;
+    @Getter(AccessLevel.NONE)
+    private final String uriSuffix;
+    @Getter(AccessLevel.NONE)
+    private final String[] encodedEndPointParts;
+    @Getter(AccessLevel.NONE)
+    private final String[] endPointParts;
+    @Getter(AccessLevel.NONE)
+    private final String[] pathVariables;
+    /* compiled URI when end point has no path variable */
+    @Getter(AccessLevel.NONE)
+    private final URI baseURI;
+
+    private HttpRequestTemplate(HttpRequestTemplateBuilder builder) {
+        this.httpRequestName = builder.httpRequestName;
+        this.httpMethod = builder.httpMethod;
+        this.username = builder.username;
+        this.password = builder.password;
+        this.host = builder.host;
+        this.port = builder.port;
+        this.endPoint = builder.endPoint;
+        this.headers = java.util.Collections.unmodifiableMap(new HashMap<>(builder.headers));
+        this.queryParameters = java.util.Collections.unmodifiableMap(new LinkedHashMap<>(builder.queryParameters));
+        this.httpPayload = builder.httpPayload;
+        this.retryPolicy = builder.retryPolicy;
+        this.hedgePolicy = builder.hedgePolicy;
+        this.httpTimeout = builder.httpTimeout;
+
+        List<String> parts = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        parseEndPoint(builder.endPoint, parts, variables);
+        this.endPointParts = parts.toArray(new String[0]);
+        this.pathVariables = variables.toArray(new String[0]);
+        this.encodedEndPointParts = new String[endPointParts.length];
+        for (int i = 0; i < endPointParts.length; i++) {
+            encodedEndPointParts[i] = encode(endPointParts[i], true);
+        }
+
+        try {
+            URIBuilder uriBuilder = new URIBuilder(host);
+            if (port != 0) {
+                uriBuilder.setPort(port);
+            }
+            URI hostURI = uriBuilder.setPath(null).removeQuery().setFragment(null).build();
+            this.uriPrefix = hostURI.toString();
+        } catch (URISyntaxException e) {
+            throw new HttpException(e);
+        }
+        StringBuilder suffix = new StringBuilder();
+        if (Objects.nonNull(host.getRawQuery())) {
+            suffix.append('?').append(host.getRawQuery());
+        }
+        if (Objects.nonNull(host.getRawFragment())) {
+            suffix.append('#').append(host.getRawFragment());
+        }
+        this.uriSuffix = suffix.toString();
+        this.baseURI = pathVariables.length == 0 ? expand(java.util.Collections.emptyMap(), new StringBuilder()) : null;
+    }
+
+    /**
+     * Create http request without path variables.
+     *
+     * @return the http request
+     */
+    public HttpRequest newHttpRequest() {
+        return newHttpRequest(java.util.Collections.emptyMap(), null, null);
+    }
+
+    /**
+     * Create http request with bound path variables.
+     *
+     * @param pathVariables the path variables
+     * @return the http request
+     */
+    public HttpRequest newHttpRequest(Map<String, String> pathVariables) {
+        return newHttpRequest(pathVariables, null, null);
+    }
+
+    /**
+     * Create http request with bound path variables, query parameters and payload.
+     * Query parameters are added to query parameters of template, payload of template is used when payload is null.
+     *
+     * @param pathVariables   the path variables
+     * @param queryParameters the query parameters, nullable
+     * @param httpPayload     the http payload, nullable
+     * @return the http request
+     */
+    public HttpRequest newHttpRequest(Map<String, String> pathVariables, Map<String, String> queryParameters, HttpRequest.HttpPayload httpPayload) {
+        URI requestBaseURI = baseURI;
+        String requestEndPoint = endPoint;
+        if (Objects.isNull(requestBaseURI)) {
+            StringBuilder expandedEndPoint = new StringBuilder(endPoint.length() + 16 * this.pathVariables.length);
+            requestBaseURI = expand(pathVariables, expandedEndPoint);
+            requestEndPoint = expandedEndPoint.toString();
+        }
+        Map<String, String> requestQueryParameters = new LinkedHashMap<>(this.queryParameters);
+        if (Collections.nonNullNonEmpty(queryParameters)) {
+            requestQueryParameters.putAll(queryParameters);
+        }
+        return new HttpRequest(this, requestEndPoint, requestBaseURI, requestQueryParameters,
+                Objects.nonNull(httpPayload) ? httpPayload : this.httpPayload);
+    }
+
+    /**
+     * Build base URI with encoded path variables.
+     *
+     * @param pathVariables    the path variables
+     * @param expandedEndPoint receives end point with path variables replaced by their value
+     * @return the URI
+     */
+    private URI expand(Map<String, String> pathVariables, StringBuilder expandedEndPoint) {
+        StringBuilder uri = new StringBuilder(uriPrefix.length() + 64).append(uriPrefix);
+        for (int i = 0; i < encodedEndPointParts.length; i++) {
+            uri.append(encodedEndPointParts[i]);
+            expandedEndPoint.append(endPointParts[i]);
+            if (i < this.pathVariables.length) {
+                String value = Objects.nonNull(pathVariables) ? pathVariables.get(this.pathVariables[i]) : null;
+                if (Objects.isNull(value)) {
+                    throw new IllegalArgumentException(StringPool.ERROR_MISSING_PATH_VARIABLE + this.pathVariables[i]);
+                }
+                uri.append(encode(value, false));
+                expandedEndPoint.append(value);
+            }
+        }
+        uri.append(uriSuffix);
+        try {
+            return new URI(uri.toString());
+        } catch (URISyntaxException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Split end point into literal parts and path variable names.
+     *
+     * @param endPoint  the end point
+     * @param parts     receives literal parts, always one more than variables
+     * @param variables receives path variable names
+     */
+    private static void parseEndPoint(String endPoint, List<String> parts, List<String> variables) {
+        if (Objects.isNull(endPoint) || endPoint.isEmpty()) {
+            parts.add("");
+            return;
+        }
+        String path = endPoint.charAt(0) == '/' ? endPoint : "/" + endPoint;
+        int start = 0;
+        int open;
+        while ((open = path.indexOf('{', start)) >= 0) {
+            int close = path.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            parts.add(path.substring(start, open));
+            variables.add(path.substring(open + 1, close));
+            start = close + 1;
+        }
+        parts.add(path.substring(start));
+    }
+
+    /**
+     * Percent encode path the same way as {@link URIBuilder#setPath(String)}.
+     *
+     * @param value     the value
+     * @param allowSlash false to encode path variable as single path segment
+     * @return the encoded value
+     */
+    private static String encode(String value, boolean allowSlash) {
+        StringBuilder encoded = null;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            boolean safe = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                    || (b < 0x80 && PATH_SEGMENT_SAFE_CHARACTERS.indexOf(b) >= 0)
+                    || (allowSlash && b == '/');
+            if (safe) {
+                if (Objects.nonNull(encoded)) {
+                    encoded.append((char) b);
+                }
+            } else {
+                if (Objects.isNull(encoded)) {
+                    encoded = new StringBuilder(bytes.length * 3);
+                    for (int j = 0; j < i; j++) {
+                        encoded.append((char) bytes[j]);
+                    }
+                }
+                encoded.append('%').append(HEX_DIGITS[b >> 4]).append(HEX_DIGITS[b & 0xF]);
+            }
+        }
+        return Objects.isNull(encoded) ? value : encoded.toString();
+    }
+
+    /**
+     * The type Http request template builder.
+     */
+    public static final class HttpRequestTemplateBuilder {
+        private final String httpRequestName;
+        private final HttpMethod httpMethod;
+        private String username;
+        private String password;
+        private URI host;
+        private int port;
+        private String endPoint;
+        private final Map<String, String> headers = new HashMap<>();
+        private final Map<String, String> queryParameters = new LinkedHashMap<>();
+        private HttpRequest.HttpPayload httpPayload;
+        private RetryPolicy retryPolicy;
+        private HedgePolicy hedgePolicy;
+        private HttpTimeout httpTimeout;
+
+        /**
+         * Instantiates a new Http request template builder.
+         *
+         * @param httpRequestName the http request name
+         * @param httpMethod      the http method
+         */
+        public HttpRequestTemplateBuilder(String httpRequestName, HttpMethod httpMethod) {
+            this.httpRequestName = httpRequestName;
+            this.httpMethod = httpMethod;
+        }
+
+        /**
+         * With username password http request template builder.
+         *
+         * @param username the username
+         * @param password the password
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withUsernamePassword(String username, String password) {
+            this.username = username;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * With host http request template builder.
+         *
+         * @param host the host
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHost(String host) {
+            try {
+                this.host = new URI(host);
+            } catch (URISyntaxException e) {
+                throw new HttpException(e);
+            }
+            return this;
+        }
+
+        /**
+         * With port http request template builder.
+         *
+         * @param port the port
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * With end point http request template builder, path variables are written as <code>{name}</code>.
+         *
+         * @param endPoint the end point
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withEndPoint(String endPoint) {
+            this.endPoint = endPoint;
+            return this;
+        }
+
+        /**
+         * With header http request template builder.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHeader(String key, String value) {
+            this.headers.put(key, value);
+            return this;
+        }
+
+        /**
+         * With headers http request template builder.
+         *
+         * @param headers the headers
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHeaders(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        /**
+         * With query parameter sent by every request of template.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withQueryParameter(String key, String value) {
+            this.queryParameters.put(key, value);
+            return this;
+        }
+
+        /**
+         * With default http payload, it must be repeatable (not {@link java.io.InputStream}) to be shared by requests.
+         *
+         * @param httpPayload the http payload
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHttpPayload(HttpRequest.HttpPayload httpPayload) {
+            this.httpPayload = httpPayload;
+            return this;
+        }
+
+        /**
+         * With retry policy http request template builder.
+         *
+         * @param retryPolicy the retry policy
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * With hedge policy http request template builder, latency observed by policy is shared by all requests of template.
+         *
+         * @param hedgePolicy the hedge policy
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHedgePolicy(HedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy;
+            return this;
+        }
+
+        /**
+         * With http timeout http request template builder.
+         *
+         * @param httpTimeout the http timeout
+         * @return the http request template builder
+         */
+        public HttpRequestTemplateBuilder withHttpTimeout(HttpTimeout httpTimeout) {
+            this.httpTimeout = httpTimeout;
+            return this;
+        }
+
+        /**
+         * Build http request template.
+         *
+         * @return the http request template
+         */
+        public HttpRequestTemplate build() {
+            return new HttpRequestTemplate(this);
+        }
+    }
+}
@@ -2,20 +2,40 @@ package com.javaquery.http;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.javaquery.http.codec.HttpBodyCodec;
+import com.javaquery.http.codec.JacksonHttpBodyCodec;
+import com.javaquery.http.exception.HttpException;
 import com.javaquery.util.Objects;
 import com.javaquery.util.string.Strings;
 import lombok.Getter;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.protocol.HTTP;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The Http response object.
@@ -24,34 +44,64 @@ import java.util.Map;
  * @since 1.0.0
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class HttpResponse {
+public class HttpResponse implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpResponse.class);
+    private static final byte[] UTF8_BOM_BYTES = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
 
     private int statusCode;
 
+    /* read only, response can be handed to other threads */
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
     @Getter
     private Map<String, String> headers;
 
     @JsonIgnore
-    private String body;
+    private volatile String body;
+
+    /* body read from entity once and shared by all body accessors, published to other threads through volatile field */
+    @JsonIgnore
+    private volatile BufferedBody bufferedBody;
+    @JsonIgnore
+    private volatile Charset bodyCharset;
+    /* body stream taken from entity without buffering, it can not be read again, guarded by lock */
+    @JsonIgnore
+    private boolean bodyStreamed;
+    @JsonIgnore
+    private final ReentrantLock lock = new ReentrantLock();
 
     @JsonIgnore
     private org.apache.http.HttpResponse apacheHttpResponse;
 
+    @JsonIgnore
+    private final HttpBodyCodec httpBodyCodec;
+
     /**
      * Instantiates a new Http response.
      *
      * @param httpResponse the http response
      */
     public HttpResponse(org.apache.http.HttpResponse httpResponse) {
+        this(httpResponse, JacksonHttpBodyCodec.getDefault());
+    }
+
+    /**
+     * Instantiates a new Http response.
+     *
+     * @param httpResponse  the http response
+     * @param httpBodyCodec the codec used by {@link #getBody(Class)} and {@link #getBodyIterator(Class)}
+     */
+    public HttpResponse(org.apache.http.HttpResponse httpResponse, HttpBodyCodec httpBodyCodec) {
+        this.httpBodyCodec = httpBodyCodec;
         apacheHttpResponse = httpResponse;
         if(Objects.nonNull(httpResponse.getAllHeaders())
             && httpResponse.getAllHeaders().length > 0){
-            headers = new HashMap<>();
+            Map<String, String> responseHeaders = new HashMap<>();
             for (Header header: httpResponse.getAllHeaders()) {
-                headers.put(header.getName(), header.getValue());
+                responseHeaders.put(header.getName(), header.getValue());
             }
+            headers = java.util.Collections.unmodifiableMap(responseHeaders);
         }
     }
 
@@ -61,26 +111,391 @@ public class HttpResponse {
      * @param httpEntity the http entity
      */
     public void updateHttpResponse(HttpEntity httpEntity) {
-        this.apacheHttpResponse.setEntity(httpEntity);
+        lock.lock();
+        try {
+            this.apacheHttpResponse.setEntity(httpEntity);
+            this.body = null;
+            this.bufferedBody = null;
+            this.bodyCharset = null;
+            this.bodyStreamed = false;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Gets body.
+     * Body is read and decoded once, subsequent calls return the same value. UTF-8 byte order mark is skipped.
      *
      * @return the body
      */
     public String getBody() {
-        if(Objects.nonNull(apacheHttpResponse)){
-            try {
-                body = EntityUtils.toString(apacheHttpResponse.getEntity());
-                if(Strings.nonNullNonEmpty(body) && body.startsWith(StringPool.UTF8_BOM)){
-                    body = body.substring(1);
-                }
+        String body = this.body;
+        if (Objects.isNull(body)) {
+            BufferedBody bufferedBody = bufferBody();
+            if (Objects.nonNull(bufferedBody)) {
+                body = new String(bufferedBody.bytes, bufferedBody.offset, bufferedBody.bytes.length - bufferedBody.offset, bufferedBody.charset);
+                this.body = body;
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Decode body into object of given type using {@link HttpBodyCodec}.
+     * Body is read once and decoded from buffered bytes, other body accessors can still be called.
+     *
+     * @param <T>  the type parameter
+     * @param type the type of object
+     * @return the decoded object or null when response has no body
+     */
+    public <T> T getBody(Class<T> type) {
+        BufferedBody bufferedBody = bufferBody();
+        if (Objects.isNull(bufferedBody)) {
+            return null;
+        }
+        try {
+            return httpBodyCodec.decode(bufferedBody.text(), bufferedBody.charset, type);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Decode array body element by element while iterating using {@link HttpBodyCodec}.
+     * Body is read once and decoded from buffered bytes, other body accessors can still be called.
+     *
+     * @param <T>         the type parameter
+     * @param elementType the type of array element
+     * @return the iterator of elements or null when response has no body
+     */
+    public <T> Iterator<T> getBodyIterator(Class<T> elementType) {
+        BufferedBody bufferedBody = bufferBody();
+        if (Objects.isNull(bufferedBody)) {
+            return null;
+        }
+        try {
+            return httpBodyCodec.decodeArray(bufferedBody.text(), bufferedBody.charset, elementType);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Decode body into object of given type straight from the connection stream without buffering it in memory.
+     * Body which is not read yet is consumed, other body accessors then throw {@link IllegalStateException}.
+     *
+     * @param <T>  the type parameter
+     * @param type the type of object
+     * @return the decoded object or null when response has no body
+     * @see #getBodyInputStream()
+     */
+    public <T> T getStreamingBody(Class<T> type) {
+        InputStream inputStream = getBodyInputStream();
+        if (Objects.isNull(inputStream)) {
+            return null;
+        }
+        try (InputStream bodyInputStream = skipByteOrderMark(inputStream)) {
+            return httpBodyCodec.decode(bodyInputStream, getBodyCharset(), type);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Decode array body element by element straight from the connection stream while iterating.
+     * Iterator must be consumed before the response is closed. Body which is not read yet is consumed,
+     * other body accessors then throw {@link IllegalStateException}.
+     *
+     * @param <T>         the type parameter
+     * @param elementType the type of array element
+     * @return the iterator of elements or null when response has no body
+     * @see #getBodyInputStream()
+     */
+    public <T> Iterator<T> getStreamingBodyIterator(Class<T> elementType) {
+        InputStream inputStream = getBodyInputStream();
+        if (Objects.isNull(inputStream)) {
+            return null;
+        }
+        try {
+            return httpBodyCodec.decodeArray(skipByteOrderMark(inputStream), getBodyCharset(), elementType);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Gets body bytes as received, byte order mark is kept.
+     * Body is read once and the returned array is shared, do not modify it.
+     *
+     * @return the body bytes or null when response has no body
+     */
+    @JsonIgnore
+    public byte[] getBodyBytes() {
+        BufferedBody bufferedBody = bufferBody();
+        return Objects.nonNull(bufferedBody) ? bufferedBody.bytes : null;
+    }
+
+    /**
+     * Gets charset of body from content-type header, default charset of mime type otherwise ISO-8859-1.
+     *
+     * @return the body charset or null when response has no body
+     */
+    @JsonIgnore
+    public Charset getBodyCharset() {
+        Charset bodyCharset = this.bodyCharset;
+        if (Objects.isNull(bodyCharset) && Objects.nonNull(apacheHttpResponse) && Objects.nonNull(apacheHttpResponse.getEntity())) {
+            bodyCharset = charset(apacheHttpResponse.getEntity());
+            this.bodyCharset = bodyCharset;
+        }
+        return bodyCharset;
+    }
+
+    /**
+     * Read the entity once into memory, later calls reuse the buffered bytes.
+     * Threads racing for the body wait on lock and get the same buffered body.
+     *
+     * @return the buffered body or null when body is not available
+     * @throws IllegalStateException when body is already consumed as stream
+     */
+    private BufferedBody bufferBody() {
+        BufferedBody bufferedBody = this.bufferedBody;
+        if (Objects.nonNull(bufferedBody)) {
+            return bufferedBody;
+        }
+        lock.lock();
+        try {
+            if (Objects.nonNull(this.bufferedBody)) {
+                return this.bufferedBody;
+            }
+            if (Objects.isNull(apacheHttpResponse) || Objects.isNull(apacheHttpResponse.getEntity())) {
+                return null;
+            }
+            if (bodyStreamed) {
+                throw new IllegalStateException(StringPool.ERROR_BODY_STREAMED);
+            }
+            HttpEntity httpEntity = apacheHttpResponse.getEntity();
+            try (InputStream inputStream = httpEntity.getContent()) {
+                byte[] bytes = readAllBytes(inputStream, httpEntity.getContentLength());
+                bufferedBody = new BufferedBody(bytes, byteOrderMarkLength(bytes), getBodyCharset());
+                this.bufferedBody = bufferedBody;
+                return bufferedBody;
             } catch (IOException e) {
                 LOGGER.error(e.getMessage(), e);
+                return null;
             }
+        } finally {
+            lock.unlock();
         }
-        return body;
+    }
+
+    /**
+     * Gets body as stream of bytes as received, byte order mark is kept.
+     * When body is not read yet, stream reads from connection without buffering it in memory,
+     * such stream can be taken only once and must be consumed before the response is closed.
+     * Other body accessors then throw {@link IllegalStateException}.
+     *
+     * @return the body input stream or null when response has no body
+     * @throws IllegalStateException when body is already consumed as stream
+     */
+    @JsonIgnore
+    public InputStream getBodyInputStream() {
+        BufferedBody bufferedBody = this.bufferedBody;
+        if (Objects.nonNull(bufferedBody)) {
+            return new ByteArrayInputStream(bufferedBody.bytes);
+        }
+        lock.lock();
+        try {
+            if (Objects.nonNull(this.bufferedBody)) {
+                return new ByteArrayInputStream(this.bufferedBody.bytes);
+            }
+            if (Objects.isNull(apacheHttpResponse) || Objects.isNull(apacheHttpResponse.getEntity())) {
+                return null;
+            }
+            if (bodyStreamed) {
+                throw new IllegalStateException(StringPool.ERROR_BODY_STREAMED);
+            }
+            bodyStreamed = true;
+            return apacheHttpResponse.getEntity().getContent();
+        } catch (IOException e) {
+            throw new HttpException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets body as channel without buffering it in memory, bytes are as received.
+     *
+     * @return the body channel or null when response has no body
+     * @see #getBodyInputStream()
+     */
+    @JsonIgnore
+    public ReadableByteChannel getBodyChannel() {
+        InputStream inputStream = getBodyInputStream();
+        return Objects.nonNull(inputStream) ? Channels.newChannel(inputStream) : null;
+    }
+
+    /**
+     * Stream the body to file, file is created or truncated.
+     * Bytes are moved by {@link FileChannel#transferFrom} so body is never held in heap.
+     *
+     * @param path the path of file
+     * @return the number of bytes written
+     */
+    public long transferTo(Path path) {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transferTo(fileChannel);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Stream the body to output stream, stream is not closed.
+     * {@link FileOutputStream} is written using {@link FileChannel#transferFrom}.
+     *
+     * @param outputStream the output stream
+     * @return the number of bytes written
+     */
+    public long transferTo(OutputStream outputStream) {
+        try {
+            if (outputStream instanceof FileOutputStream) {
+                return transferTo(((FileOutputStream) outputStream).getChannel());
+            }
+            InputStream inputStream = getBodyInputStream();
+            if (Objects.isNull(inputStream)) {
+                return 0;
+            }
+            try (InputStream bodyInputStream = inputStream) {
+                return copy(bodyInputStream, outputStream);
+            }
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Append the body to file channel at its current position.
+     *
+     * @param fileChannel the file channel
+     * @return the number of bytes written
+     * @throws IOException the io exception
+     */
+    private long transferTo(FileChannel fileChannel) throws IOException {
+        ReadableByteChannel readableByteChannel = getBodyChannel();
+        if (Objects.isNull(readableByteChannel)) {
+            return 0;
+        }
+        try (ReadableByteChannel bodyChannel = readableByteChannel) {
+            long startPosition = fileChannel.position();
+            long position = startPosition;
+            long transferred;
+            while ((transferred = fileChannel.transferFrom(bodyChannel, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+            fileChannel.position(position);
+            return position - startPosition;
+        }
+    }
+
+    /**
+     * Charset of entity from content-type header, default charset of mime type otherwise ISO-8859-1.
+     *
+     * @param httpEntity the http entity
+     * @return the charset
+     */
+    private static Charset charset(HttpEntity httpEntity) {
+        Charset charset = null;
+        try {
+            ContentType contentType = ContentType.get(httpEntity);
+            if (Objects.nonNull(contentType)) {
+                charset = contentType.getCharset();
+                if (Objects.isNull(charset) && Objects.nonNull(ContentType.getByMimeType(contentType.getMimeType()))) {
+                    charset = ContentType.getByMimeType(contentType.getMimeType()).getCharset();
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn(e.getMessage());
+        }
+        return Objects.nonNull(charset) ? charset : HTTP.DEF_CONTENT_CHARSET;
+    }
+
+    /**
+     * Skip UTF-8 byte order mark at the start of stream.
+     *
+     * @param inputStream the input stream
+     * @return the input stream positioned after byte order mark
+     * @throws IOException the io exception
+     */
+    private static InputStream skipByteOrderMark(InputStream inputStream) throws IOException {
+        PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, UTF8_BOM_BYTES.length);
+        byte[] head = new byte[UTF8_BOM_BYTES.length];
+        int length = 0;
+        int read;
+        while (length < head.length && (read = pushbackInputStream.read(head, length, head.length - length)) != -1) {
+            length += read;
+        }
+        if (length != UTF8_BOM_BYTES.length || head[0] != UTF8_BOM_BYTES[0] || head[1] != UTF8_BOM_BYTES[1] || head[2] != UTF8_BOM_BYTES[2]) {
+            pushbackInputStream.unread(head, 0, length);
+        }
+        return pushbackInputStream;
+    }
+
+    /**
+     * Read stream fully, exact sized array is allocated when content length is known.
+     *
+     * @param inputStream   the input stream
+     * @param contentLength the content length, negative when unknown
+     * @return the bytes
+     * @throws IOException the io exception
+     */
+    private static byte[] readAllBytes(InputStream inputStream, long contentLength) throws IOException {
+        if (contentLength < 0 || contentLength > Integer.MAX_VALUE - 8) {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(BUFFER_SIZE);
+            copy(inputStream, byteArrayOutputStream);
+            return byteArrayOutputStream.toByteArray();
+        }
+        byte[] bytes = new byte[(int) contentLength];
+        int length = 0;
+        int read;
+        while (length < bytes.length && (read = inputStream.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+        }
+        return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Copy input stream to output stream.
+     *
+     * @param inputStream  the input stream
+     * @param outputStream the output stream
+     * @return the number of bytes copied
+     * @throws IOException the io exception
+     */
+    private static long copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        long copied = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            copied += read;
+        }
+        return copied;
+    }
+
+    /**
+     * Length of UTF-8 byte order mark when bytes starts with it.
+     *
+     * @param bytes the bytes
+     * @return 3 when byte order mark is present otherwise 0
+     */
+    private static int byteOrderMarkLength(byte[] bytes) {
+        if (bytes.length >= UTF8_BOM_BYTES.length
+                && bytes[0] == UTF8_BOM_BYTES[0] && bytes[1] == UTF8_BOM_BYTES[1] && bytes[2] == UTF8_BOM_BYTES[2]) {
+            return UTF8_BOM_BYTES.length;
+        }
+        return 0;
     }
 
     /**
@@ -119,4 +534,53 @@ public class HttpResponse {
     public int getStatusCode() {
         return Objects.nonNull(apacheHttpResponse) ? apacheHttpResponse.getStatusLine().getStatusCode() : -1;
     }
+
+    /**
+     * Read body into memory so it can be read after the response is closed.
+     * Body already taken as stream is left to its reader.
+     */
+    void bufferBodyIfNotStreamed() {
+        lock.lock();
+        try {
+            if (!bodyStreamed) {
+                bufferBody();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the response and release the underlying pooled connection.
+     * Body which is not read till now will be discarded.
+     */
+    @Override
+    public void close() {
+        if (apacheHttpResponse instanceof Closeable) {
+            try {
+                ((Closeable) apacheHttpResponse).close();
+            } catch (IOException e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Body read from entity, text starts after byte order mark at offset.
+     */
+    private static final class BufferedBody {
+        private final byte[] bytes;
+        private final int offset;
+        private final Charset charset;
+
+        private BufferedBody(byte[] bytes, int offset, Charset charset) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.charset = charset;
+        }
+
+        private InputStream text() {
+            return new ByteArrayInputStream(bytes, offset, bytes.length - offset);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package com.javaquery.http;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.javaquery.util.Objects;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Timeouts of request. {@link HttpClientConfig#getHttpTimeout()} sets defaults of client,
+ * timeout which is not set on {@link HttpRequest} falls back to default of client.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HttpTimeout {
+
+    /**
+     * Timeout of establishing connection, 0 means infinite.
+     */
+    private Integer connectTimeoutInMilliseconds;
+
+    /**
+     * Maximum inactivity between two packets of response, 0 means infinite.
+     */
+    private Integer socketTimeoutInMilliseconds;
+
+    /**
+     * Timeout of waiting for connection from pool.
+     */
+    private Integer connectionRequestTimeoutInMilliseconds;
+
+    /**
+     * Deadline of request measured from first attempt, it spans all retries and backoff between them.
+     * In-flight request is aborted when deadline expires and request fails with {@link com.javaquery.http.exception.DeadlineExceededException}.
+     */
+    private Long totalTimeoutInMilliseconds;
+
+    /**
+     * Default timeouts of client, 10 seconds to connect and lease connection from pool, 60 seconds of socket inactivity and no deadline.
+     *
+     * @return the http timeout
+     */
+    public static HttpTimeout defaultConfig() {
+        return HttpTimeout.builder()
+                .connectTimeoutInMilliseconds(10 * 1000)
+                .socketTimeoutInMilliseconds(60 * 1000)
+                .connectionRequestTimeoutInMilliseconds(10 * 1000)
+                .build();
+    }
+
+    /**
+     * Timeouts of this, unset timeouts are taken from defaults.
+     *
+     * @param defaults the defaults, nullable
+     * @return the http timeout
+     */
+    public HttpTimeout withDefaults(HttpTimeout defaults) {
+        if (Objects.isNull(defaults)) {
+            return this;
+        }
+        return HttpTimeout.builder()
+                .connectTimeoutInMilliseconds(Objects.nonNull(connectTimeoutInMilliseconds) ? connectTimeoutInMilliseconds : defaults.connectTimeoutInMilliseconds)
+                .socketTimeoutInMilliseconds(Objects.nonNull(socketTimeoutInMilliseconds) ? socketTimeoutInMilliseconds : defaults.socketTimeoutInMilliseconds)
+                .connectionRequestTimeoutInMilliseconds(Objects.nonNull(connectionRequestTimeoutInMilliseconds) ? connectionRequestTimeoutInMilliseconds : defaults.connectionRequestTimeoutInMilliseconds)
+                .totalTimeoutInMilliseconds(Objects.nonNull(totalTimeoutInMilliseconds) ? totalTimeoutInMilliseconds : defaults.totalTimeoutInMilliseconds)
+                .build();
+    }
+}
@@ -14,5 +14,17 @@ public class StringPool {
     public static final String LOG_HTTP_RESPONSE = "httpResponse";
     public static final String ERROR_MAX_RETRY_VALUE = "Please provide positive value for maxErrorRetry.";
     public static final String RETRIES_ATTEMPTED = "retriesAttempted";
+    public static final String PHASE_TIMINGS = "phaseTimings";
     public static final String MULTIPART_FORM_DATA = "multipart/form-data";
+    public static final String ERROR_MISSING_PATH_VARIABLE = "Please provide value for path variable: ";
+    public static final String ERROR_UNKNOWN_TRANSPORT = "No HttpTransportProvider registered for transport: ";
+    public static final String ERROR_CIRCUIT_BREAKER_OPEN = "Circuit breaker is open for host: ";
+    public static final String ERROR_BODY_STREAMED = "Body of response is already consumed as stream.";
+    public static final String ERROR_UNSUPPORTED_FORM_VALUE = "Unsupported value of multipart form: ";
+    public static final String ERROR_ASYNC_PAYLOAD_WRITER = "PayloadWriter can not be sent on asynchronous execution, use execute or submit.";
+    public static final String ERROR_COALESCED_REQUEST_ABORTED = "Request aborted while waiting for coalesced request.";
+    public static final String ERROR_COALESCED_REQUEST_TIMEOUT = "Coalesced request did not complete within socket timeout in milliseconds: ";
+    public static final String ERROR_RESPONSE_BODY_CLOSED = "Response body closed before it was read completely.";
+    public static final String ERROR_REQUEST_CANCELLED = "Request cancelled by caller.";
+    public static final String ERROR_DEADLINE_EXCEEDED = "Total timeout of request expired in milliseconds: ";
 }
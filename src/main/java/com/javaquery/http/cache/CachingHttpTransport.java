@@ -0,0 +1,345 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.http.metrics.ConnectionPoolStatistics;
+import com.javaquery.http.transport.HttpTransport;
+import com.javaquery.util.Objects;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport which serves GET responses from {@link HttpCacheStorage} while they are fresh and
+ * revalidates stale responses using If-None-Match / If-Modified-Since, other requests go to the transport underneath.
+ * Successful unsafe request (POST, PUT, DELETE...) removes cached response of its URI.
+ * Responses are cached per caller, credentials and Authorization / Cookie headers of request are part of the cache key.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class CachingHttpTransport implements HttpTransport {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final String[] IDENTITY_HEADERS = {HttpHeaders.AUTHORIZATION, HttpHeaders.PROXY_AUTHORIZATION, "Cookie"};
+
+    private final HttpTransport httpTransport;
+    private final HttpCacheStorage httpCacheStorage;
+    private final long maxEntrySizeInBytes;
+    private final HttpCacheStatistics httpCacheStatistics;
+
+    /**
+     * Instantiates a new Caching http transport.
+     *
+     * @param httpTransport       the http transport underneath
+     * @param httpCacheConfig     the http cache config
+     * @param httpCacheStatistics the http cache statistics
+     */
+    public CachingHttpTransport(HttpTransport httpTransport, HttpCacheConfig httpCacheConfig, HttpCacheStatistics httpCacheStatistics) {
+        this.httpTransport = httpTransport;
+        this.httpCacheStorage = httpCacheStorage(httpCacheConfig);
+        this.maxEntrySizeInBytes = httpCacheConfig.getMaxEntrySizeInBytes();
+        this.httpCacheStatistics = httpCacheStatistics;
+    }
+
+    @Override
+    public HttpResponse execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws IOException {
+        if (!HttpCachePolicy.isCacheable(httpUriRequest)) {
+            HttpResponse httpResponse = httpTransport.execute(httpUriRequest, httpClientContext);
+            invalidate(httpUriRequest, httpClientContext, httpResponse);
+            return httpResponse;
+        }
+        String key = key(httpUriRequest, httpClientContext);
+        HttpCacheEntry httpCacheEntry = lookup(key, httpUriRequest);
+        long requestTime = System.currentTimeMillis();
+        if (Objects.nonNull(httpCacheEntry) && HttpCachePolicy.isFresh(httpUriRequest, httpCacheEntry, requestTime)) {
+            httpCacheStatistics.hit();
+            return httpCacheEntry.toHttpResponse(currentAgeInSeconds(httpCacheEntry, requestTime));
+        }
+        HttpCacheEntry revalidating = conditional(httpUriRequest, httpCacheEntry);
+        HttpResponse httpResponse = httpTransport.execute(httpUriRequest, httpClientContext);
+        return cache(key, httpUriRequest, revalidating, requestTime, httpResponse);
+    }
+
+    @Override
+    public Future<?> execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, FutureCallback<HttpResponse> futureCallback) {
+        if (!HttpCachePolicy.isCacheable(httpUriRequest)) {
+            return httpTransport.execute(httpUriRequest, httpClientContext, new DelegatingFutureCallback(futureCallback) {
+                @Override
+                public void completed(HttpResponse httpResponse) {
+                    invalidate(httpUriRequest, httpClientContext, httpResponse);
+                    futureCallback.completed(httpResponse);
+                }
+            });
+        }
+        String key = key(httpUriRequest, httpClientContext);
+        HttpCacheEntry httpCacheEntry = lookup(key, httpUriRequest);
+        long requestTime = System.currentTimeMillis();
+        if (Objects.nonNull(httpCacheEntry) && HttpCachePolicy.isFresh(httpUriRequest, httpCacheEntry, requestTime)) {
+            httpCacheStatistics.hit();
+            HttpResponse httpResponse = httpCacheEntry.toHttpResponse(currentAgeInSeconds(httpCacheEntry, requestTime));
+            futureCallback.completed(httpResponse);
+            return CompletableFuture.completedFuture(httpResponse);
+        }
+        HttpCacheEntry revalidating = conditional(httpUriRequest, httpCacheEntry);
+        return httpTransport.execute(httpUriRequest, httpClientContext, new DelegatingFutureCallback(futureCallback) {
+            @Override
+            public void completed(HttpResponse httpResponse) {
+                HttpResponse cachedHttpResponse;
+                try {
+                    cachedHttpResponse = cache(key, httpUriRequest, revalidating, requestTime, httpResponse);
+                } catch (IOException e) {
+                    futureCallback.failed(e);
+                    return;
+                }
+                futureCallback.completed(cachedHttpResponse);
+            }
+        });
+    }
+
+    @Override
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return httpTransport.getConnectionPoolStatistics();
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpTransport.close();
+    }
+
+    /**
+     * Cached response of request, response cached for other values of headers named by Vary is not used.
+     */
+    private HttpCacheEntry lookup(String key, HttpUriRequest httpUriRequest) {
+        HttpCacheEntry httpCacheEntry = httpCacheStorage.get(key);
+        if (Objects.nonNull(httpCacheEntry) && HttpCachePolicy.matchesVary(httpUriRequest, httpCacheEntry)) {
+            return httpCacheEntry;
+        }
+        return null;
+    }
+
+    /**
+     * Add validators of stale response to the request, unless caller sent its own conditional request.
+     *
+     * @return the cache entry being revalidated or null when request is not made conditional
+     */
+    private HttpCacheEntry conditional(HttpUriRequest httpUriRequest, HttpCacheEntry httpCacheEntry) {
+        if (Objects.isNull(httpCacheEntry)
+                || httpUriRequest.containsHeader(HttpHeaders.IF_NONE_MATCH)
+                || httpUriRequest.containsHeader(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return null;
+        }
+        Header eTag = httpCacheEntry.getFirstHeader(HttpHeaders.ETAG);
+        Header lastModified = httpCacheEntry.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        if (Objects.isNull(eTag) && Objects.isNull(lastModified)) {
+            return null;
+        }
+        if (Objects.nonNull(eTag)) {
+            httpUriRequest.setHeader(HttpHeaders.IF_NONE_MATCH, eTag.getValue());
+        }
+        if (Objects.nonNull(lastModified)) {
+            httpUriRequest.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified.getValue());
+        }
+        return httpCacheEntry;
+    }
+
+    /**
+     * Serve cached response confirmed by 304, otherwise store the new response when it is storable and small enough.
+     */
+    private HttpResponse cache(String key, HttpUriRequest httpUriRequest, HttpCacheEntry revalidating, long requestTime, HttpResponse httpResponse) throws IOException {
+        long responseTime = System.currentTimeMillis();
+        if (Objects.nonNull(revalidating) && httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+            release(httpResponse);
+            HttpCacheEntry revalidated = revalidating.revalidated(httpResponse.getAllHeaders(), requestTime, responseTime);
+            httpCacheStorage.put(key, revalidated);
+            httpCacheStatistics.revalidated();
+            return revalidated.toHttpResponse(currentAgeInSeconds(revalidated, responseTime));
+        }
+        httpCacheStatistics.miss();
+        if (!HttpCachePolicy.isStorable(httpResponse)) {
+            if (HttpCachePolicy.isNoStore(httpResponse)) {
+                httpCacheStorage.remove(key);
+            }
+            return httpResponse;
+        }
+        byte[] body = bufferBody(httpResponse);
+        if (Objects.nonNull(body)) {
+            Map<String, String> varyHeaders = HttpCachePolicy.varyHeaders(httpUriRequest, httpResponse.getHeaders(HttpHeaders.VARY));
+            httpCacheStorage.put(key, new HttpCacheEntry(httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase(),
+                    httpResponse.getAllHeaders(), varyHeaders, body, requestTime, responseTime));
+        }
+        return httpResponse;
+    }
+
+    /**
+     * Read body up to max entry size and put it back to response.
+     * Bigger body is not read further, response continues streaming from the bytes already read.
+     *
+     * @return the body or null when it is too big to cache
+     */
+    private byte[] bufferBody(HttpResponse httpResponse) throws IOException {
+        HttpEntity httpEntity = httpResponse.getEntity();
+        if (Objects.isNull(httpEntity)) {
+            return new byte[0];
+        }
+        if (httpEntity.getContentLength() > maxEntrySizeInBytes) {
+            return null;
+        }
+        InputStream inputStream = httpEntity.getContent();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(httpEntity.getContentLength() > 0 ? (int) httpEntity.getContentLength() : BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            if (outputStream.size() > maxEntrySizeInBytes) {
+                BufferedEntity partial = new BufferedEntity(httpEntity, new SequenceInputStream(new ByteArrayInputStream(outputStream.toByteArray()), inputStream));
+                httpResponse.setEntity(partial);
+                return null;
+            }
+        }
+        inputStream.close();
+        byte[] body = outputStream.toByteArray();
+        ByteArrayEntity byteArrayEntity = new ByteArrayEntity(body);
+        byteArrayEntity.setContentType(httpEntity.getContentType());
+        byteArrayEntity.setContentEncoding(httpEntity.getContentEncoding());
+        httpResponse.setEntity(byteArrayEntity);
+        return body;
+    }
+
+    /**
+     * Remove cached response of URI changed by successful unsafe request, response cached for anonymous request and for the caller.
+     */
+    private void invalidate(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, HttpResponse httpResponse) {
+        if (HttpCachePolicy.isUnsafe(httpUriRequest) && httpResponse.getStatusLine().getStatusCode() < HttpStatus.SC_BAD_REQUEST) {
+            String anonymousKey = httpUriRequest.getURI().toString();
+            String key = key(httpUriRequest, httpClientContext);
+            httpCacheStorage.remove(anonymousKey);
+            if (!anonymousKey.equals(key)) {
+                httpCacheStorage.remove(key);
+            }
+        }
+    }
+
+    private static void release(HttpResponse httpResponse) throws IOException {
+        EntityUtils.consume(httpResponse.getEntity());
+        if (httpResponse instanceof Closeable) {
+            ((Closeable) httpResponse).close();
+        }
+    }
+
+    private static long currentAgeInSeconds(HttpCacheEntry httpCacheEntry, long now) {
+        return TimeUnit.MILLISECONDS.toSeconds(HttpCachePolicy.currentAge(httpCacheEntry, now));
+    }
+
+    /**
+     * URI of request followed by credentials, Authorization and Cookie headers, so response of one caller is never served to another.
+     */
+    private static String key(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) {
+        StringBuilder key = new StringBuilder(httpUriRequest.getURI().toString());
+        for (String identityHeader : IDENTITY_HEADERS) {
+            Header[] headers = httpUriRequest.getHeaders(identityHeader);
+            if (headers.length > 0) {
+                key.append('\n').append(identityHeader.toLowerCase(Locale.ROOT)).append(':');
+                for (Header header : headers) {
+                    key.append(header.getValue()).append(',');
+                }
+            }
+        }
+        if (Objects.nonNull(httpClientContext) && Objects.nonNull(httpClientContext.getCredentialsProvider())) {
+            Credentials credentials = httpClientContext.getCredentialsProvider().getCredentials(AuthScope.ANY);
+            if (Objects.nonNull(credentials)) {
+                key.append('\n').append(credentials.getUserPrincipal().getName()).append(':').append(credentials.getPassword());
+            }
+        }
+        return key.toString();
+    }
+
+    private static HttpCacheStorage httpCacheStorage(HttpCacheConfig httpCacheConfig) {
+        if (Objects.nonNull(httpCacheConfig.getHttpCacheStorage())) {
+            return httpCacheConfig.getHttpCacheStorage();
+        }
+        HttpCacheStorage memory = new MemoryHttpCacheStorage(httpCacheConfig.getMaxMemorySizeInBytes());
+        if (Objects.nonNull(httpCacheConfig.getDirectory())) {
+            return new TieredHttpCacheStorage(memory, new FileHttpCacheStorage(httpCacheConfig.getDirectory(), httpCacheConfig.getMaxDiskSizeInBytes()));
+        }
+        return memory;
+    }
+
+    /**
+     * Response body too big to cache, bytes already read followed by the rest of the stream.
+     */
+    static class BufferedEntity extends HttpEntityWrapper {
+        private final InputStream inputStream;
+
+        BufferedEntity(HttpEntity httpEntity, InputStream inputStream) {
+            super(httpEntity);
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return inputStream;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+    }
+
+    /**
+     * Pass failure and cancellation of transport to the callback of caller.
+     */
+    private abstract static class DelegatingFutureCallback implements FutureCallback<HttpResponse> {
+        private final FutureCallback<HttpResponse> futureCallback;
+
+        DelegatingFutureCallback(FutureCallback<HttpResponse> futureCallback) {
+            this.futureCallback = futureCallback;
+        }
+
+        @Override
+        public void failed(Exception exception) {
+            futureCallback.failed(exception);
+        }
+
+        @Override
+        public void cancelled() {
+            futureCallback.cancelled();
+        }
+    }
+}
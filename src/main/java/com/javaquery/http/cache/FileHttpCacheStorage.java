@@ -0,0 +1,225 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * On-disk storage bounded by size of files, one file per response named by SHA-256 of cache key.
+ * File is written to temporary file and moved in place, so concurrent reader never sees partial response.
+ * Least recently used file is deleted first once storage is full, files left by previous run are counted oldest first.
+ * Unreadable file is deleted and treated as cache miss.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class FileHttpCacheStorage implements HttpCacheStorage {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileHttpCacheStorage.class);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String FILE_EXTENSION = ".cache";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    /* access ordered size of files, eldest file is least recently used */
+    private final LinkedHashMap<Path, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    /**
+     * Instantiates a new File http cache storage, directory is created when it does not exist.
+     *
+     * @param directory      the directory
+     * @param maxSizeInBytes the max size of files in bytes
+     */
+    public FileHttpCacheStorage(Path directory, long maxSizeInBytes) {
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+        try {
+            Files.createDirectories(directory);
+            indexFiles();
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    @Override
+    public HttpCacheEntry get(String key) {
+        Path path = path(key);
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            HttpCacheEntry httpCacheEntry = HttpCacheEntry.readFrom(new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE)));
+            lock.lock();
+            try {
+                files.get(path);
+            } finally {
+                lock.unlock();
+            }
+            return httpCacheEntry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+            remove(key);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, HttpCacheEntry httpCacheEntry) {
+        if (httpCacheEntry.getSizeInBytes() > maxSizeInBytes) {
+            remove(key);
+            return;
+        }
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, null, null);
+            try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+                DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+                httpCacheEntry.writeTo(dataOutputStream);
+                dataOutputStream.flush();
+            }
+            long fileSize = Files.size(temporary);
+            Path path = path(key);
+            lock.lock();
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                removeFile(path);
+                files.put(path, fileSize);
+                sizeInBytes += fileSize;
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        Path path = path(key);
+        lock.lock();
+        try {
+            removeFile(path);
+            deleteQuietly(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets size of cached files.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        lock.lock();
+        try {
+            return sizeInBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count files of previous run, oldest modified first, and delete the oldest when they do not fit.
+     */
+    private void indexFiles() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            directoryStream.forEach(paths::add);
+        }
+        Map<Path, FileTime> lastModifiedTimes = new HashMap<>();
+        for (Path path : paths) {
+            lastModifiedTimes.put(path, Files.getLastModifiedTime(path));
+        }
+        paths.sort(Comparator.comparing(lastModifiedTimes::get));
+        lock.lock();
+        try {
+            for (Path path : paths) {
+                long fileSize = Files.size(path);
+                files.put(path, fileSize);
+                sizeInBytes += fileSize;
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete least recently used files until storage fits, lock must be held.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Path, Long>> iterator = files.entrySet().iterator();
+        while (sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+            Map.Entry<Path, Long> eldest = iterator.next();
+            sizeInBytes -= eldest.getValue();
+            iterator.remove();
+            deleteQuietly(eldest.getKey());
+        }
+    }
+
+    /**
+     * Forget size of file, lock must be held.
+     */
+    private void removeFile(Path path) {
+        Long fileSize = files.remove(path);
+        if (Objects.nonNull(fileSize)) {
+            sizeInBytes -= fileSize;
+        }
+    }
+
+    private Path path(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            char[] name = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                name[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                name[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return directory.resolve(new String(name) + FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (Objects.isNull(path)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.javaquery.http.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of response cache of {@link com.javaquery.http.HttpClient}, set it using
+ * {@link com.javaquery.http.HttpClientConfig#getHttpCacheConfig()} to cache GET responses.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+@Builder
+public class HttpCacheConfig {
+
+    /**
+     * Responses with bigger body are not cached.
+     */
+    @Builder.Default
+    private long maxEntrySizeInBytes = 1024 * 1024;
+
+    /**
+     * Size of in-memory tier, least recently used responses are evicted once it is full.
+     */
+    @Builder.Default
+    private long maxMemorySizeInBytes = 16 * 1024 * 1024;
+
+    /**
+     * Size of on-disk tier, least recently used responses are deleted once it is full.
+     */
+    @Builder.Default
+    private long maxDiskSizeInBytes = 256 * 1024 * 1024;
+
+    /**
+     * Directory of on-disk tier, responses evicted from memory are still served from disk. Memory only when not set.
+     */
+    private Path directory;
+
+    /**
+     * Storage of cached responses, overrides {@link #maxMemorySizeInBytes}, {@link #maxDiskSizeInBytes} and {@link #directory} when set.
+     */
+    private HttpCacheStorage httpCacheStorage;
+
+    /**
+     * Default http cache config, 16 MB in-memory cache.
+     *
+     * @return the http cache config
+     */
+    public static HttpCacheConfig defaultConfig() {
+        return HttpCacheConfig.builder().build();
+    }
+}
@@ -0,0 +1,231 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.util.Objects;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached response, body is kept as received (still compressed when server compressed it).
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class HttpCacheEntry {
+
+    /* fixed cost of entry besides headers and body */
+    private static final int ENTRY_OVERHEAD_IN_BYTES = 256;
+    private static final int FORMAT_VERSION = 1;
+
+    private final int statusCode;
+    private final String reasonPhrase;
+    private final Header[] headers;
+    private final Map<String, String> varyHeaders;
+    private final byte[] body;
+    private final long requestTime;
+    private final long responseTime;
+
+    /**
+     * Instantiates a new Http cache entry.
+     *
+     * @param statusCode   the status code
+     * @param reasonPhrase the reason phrase
+     * @param headers      the response headers
+     * @param varyHeaders  the request headers named by Vary and their values
+     * @param body         the body
+     * @param requestTime  the time request was sent in epoch milliseconds
+     * @param responseTime the time response was received in epoch milliseconds
+     */
+    HttpCacheEntry(int statusCode, String reasonPhrase, Header[] headers, Map<String, String> varyHeaders, byte[] body, long requestTime, long responseTime) {
+        this.statusCode = statusCode;
+        this.reasonPhrase = reasonPhrase;
+        this.headers = headers;
+        this.varyHeaders = varyHeaders;
+        this.body = body;
+        this.requestTime = requestTime;
+        this.responseTime = responseTime;
+    }
+
+    /**
+     * Gets status code.
+     *
+     * @return the status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Gets response headers.
+     *
+     * @return the headers
+     */
+    public Header[] getHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * Gets first response header of name.
+     *
+     * @param name the name
+     * @return the header or null
+     */
+    public Header getFirstHeader(String name) {
+        for (Header header : headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets request headers named by Vary of response and their values when response was cached.
+     *
+     * @return the vary headers
+     */
+    public Map<String, String> getVaryHeaders() {
+        return java.util.Collections.unmodifiableMap(varyHeaders);
+    }
+
+    /**
+     * Gets time request was sent in epoch milliseconds.
+     *
+     * @return the request time
+     */
+    public long getRequestTime() {
+        return requestTime;
+    }
+
+    /**
+     * Gets time response was received in epoch milliseconds.
+     *
+     * @return the response time
+     */
+    public long getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Gets approximate memory used by entry.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        long size = ENTRY_OVERHEAD_IN_BYTES + body.length;
+        for (Header header : headers) {
+            size += 2L * (header.getName().length() + header.getValue().length());
+        }
+        return size;
+    }
+
+    /**
+     * Response served from cache, body is shared and never copied.
+     *
+     * @param currentAgeInSeconds the current age in seconds
+     * @return the http response
+     */
+    HttpResponse toHttpResponse(long currentAgeInSeconds) {
+        BasicHttpResponse httpResponse = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, reasonPhrase));
+        httpResponse.setHeaders(headers);
+        httpResponse.setHeader(HttpHeaders.AGE, String.valueOf(currentAgeInSeconds));
+        ByteArrayEntity byteArrayEntity = new ByteArrayEntity(body);
+        byteArrayEntity.setContentType(getFirstHeader(HttpHeaders.CONTENT_TYPE));
+        byteArrayEntity.setContentEncoding(getFirstHeader(HttpHeaders.CONTENT_ENCODING));
+        httpResponse.setEntity(byteArrayEntity);
+        return httpResponse;
+    }
+
+    /**
+     * Entry freshened by 304 response, headers of 304 response replace stored headers of the same name.
+     *
+     * @param notModifiedHeaders the headers of 304 response
+     * @param requestTime        the time conditional request was sent
+     * @param responseTime       the time 304 response was received
+     * @return the http cache entry
+     */
+    HttpCacheEntry revalidated(Header[] notModifiedHeaders, long requestTime, long responseTime) {
+        Map<String, List<Header>> merged = new LinkedHashMap<>();
+        for (Header header : headers) {
+            merged.computeIfAbsent(header.getName().toLowerCase(), name -> new ArrayList<>()).add(header);
+        }
+        Map<String, List<Header>> updated = new LinkedHashMap<>();
+        for (Header header : notModifiedHeaders) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getName())) {
+                updated.computeIfAbsent(header.getName().toLowerCase(), name -> new ArrayList<>()).add(header);
+            }
+        }
+        merged.putAll(updated);
+        List<Header> mergedHeaders = new ArrayList<>();
+        merged.values().forEach(mergedHeaders::addAll);
+        return new HttpCacheEntry(statusCode, reasonPhrase, mergedHeaders.toArray(new Header[0]), varyHeaders, body, requestTime, responseTime);
+    }
+
+    /**
+     * Write entry to storage.
+     *
+     * @param dataOutputStream the data output stream
+     * @throws IOException the io exception
+     */
+    void writeTo(DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeInt(FORMAT_VERSION);
+        dataOutputStream.writeInt(statusCode);
+        dataOutputStream.writeUTF(Objects.nonNull(reasonPhrase) ? reasonPhrase : "");
+        dataOutputStream.writeLong(requestTime);
+        dataOutputStream.writeLong(responseTime);
+        dataOutputStream.writeInt(headers.length);
+        for (Header header : headers) {
+            dataOutputStream.writeUTF(header.getName());
+            dataOutputStream.writeUTF(header.getValue());
+        }
+        dataOutputStream.writeInt(varyHeaders.size());
+        for (Map.Entry<String, String> entry : varyHeaders.entrySet()) {
+            dataOutputStream.writeUTF(entry.getKey());
+            dataOutputStream.writeUTF(entry.getValue());
+        }
+        dataOutputStream.writeInt(body.length);
+        dataOutputStream.write(body);
+    }
+
+    /**
+     * Read entry written by {@link #writeTo(DataOutputStream)}.
+     *
+     * @param dataInputStream the data input stream
+     * @return the http cache entry
+     * @throws IOException the io exception, also when entry is written by other format version
+     */
+    static HttpCacheEntry readFrom(DataInputStream dataInputStream) throws IOException {
+        if (dataInputStream.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown format of http cache entry");
+        }
+        int statusCode = dataInputStream.readInt();
+        String reasonPhrase = dataInputStream.readUTF();
+        long requestTime = dataInputStream.readLong();
+        long responseTime = dataInputStream.readLong();
+        Header[] headers = new Header[dataInputStream.readInt()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = new BasicHeader(dataInputStream.readUTF(), dataInputStream.readUTF());
+        }
+        int varyHeadersSize = dataInputStream.readInt();
+        Map<String, String> varyHeaders = new LinkedHashMap<>(varyHeadersSize);
+        for (int i = 0; i < varyHeadersSize; i++) {
+            varyHeaders.put(dataInputStream.readUTF(), dataInputStream.readUTF());
+        }
+        byte[] body = new byte[dataInputStream.readInt()];
+        dataInputStream.readFully(body);
+        return new HttpCacheEntry(statusCode, reasonPhrase, headers, varyHeaders, body, requestTime, responseTime);
+    }
+}
@@ -0,0 +1,254 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.util.Objects;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rules of private cache (RFC 9111): what is stored, how long it is fresh and when it must be revalidated.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+final class HttpCachePolicy {
+
+    private static final String GET = "GET";
+    private static final String HEAD = "HEAD";
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE = "max-age";
+    private static final String MIN_FRESH = "min-fresh";
+    private static final String PUBLIC = "public";
+    private static final String VARY_ANY = "*";
+    private static final long MAX_HEURISTIC_FRESHNESS_IN_MILLISECONDS = TimeUnit.DAYS.toMillis(1);
+    /* status codes cacheable by default, freshness of these can be calculated from Last-Modified */
+    private static final Set<Integer> HEURISTICALLY_CACHEABLE_STATUS = new HashSet<>(Arrays.asList(
+            HttpStatus.SC_OK, HttpStatus.SC_NON_AUTHORITATIVE_INFORMATION, HttpStatus.SC_NO_CONTENT, HttpStatus.SC_MULTIPLE_CHOICES,
+            HttpStatus.SC_MOVED_PERMANENTLY, 308, HttpStatus.SC_NOT_FOUND, HttpStatus.SC_METHOD_NOT_ALLOWED, HttpStatus.SC_GONE,
+            HttpStatus.SC_REQUEST_URI_TOO_LONG, HttpStatus.SC_NOT_IMPLEMENTED));
+
+    private HttpCachePolicy() {
+    }
+
+    /**
+     * GET request without body which does not forbid caching.
+     *
+     * @param httpRequest the http request
+     * @return the boolean
+     */
+    static boolean isCacheable(HttpRequest httpRequest) {
+        return GET.equals(httpRequest.getRequestLine().getMethod())
+                && !(httpRequest instanceof org.apache.http.HttpEntityEnclosingRequest && Objects.nonNull(((org.apache.http.HttpEntityEnclosingRequest) httpRequest).getEntity()))
+                && !cacheControl(httpRequest.getHeaders(HttpHeaders.CACHE_CONTROL)).containsKey(NO_STORE);
+    }
+
+    /**
+     * Request which changes resource, cached response of its URI is removed once it succeeds.
+     *
+     * @param httpRequest the http request
+     * @return the boolean
+     */
+    static boolean isUnsafe(HttpRequest httpRequest) {
+        String method = httpRequest.getRequestLine().getMethod();
+        return !GET.equals(method) && !HEAD.equals(method) && !"OPTIONS".equals(method) && !"TRACE".equals(method);
+    }
+
+    /**
+     * Response which can be stored and later served or revalidated.
+     *
+     * @param httpResponse the http response
+     * @return the boolean
+     */
+    static boolean isStorable(HttpResponse httpResponse) {
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        Map<String, String> cacheControl = cacheControl(httpResponse.getHeaders(HttpHeaders.CACHE_CONTROL));
+        if (cacheControl.containsKey(NO_STORE)) {
+            return false;
+        }
+        for (Header vary : httpResponse.getHeaders(HttpHeaders.VARY)) {
+            if (vary.getValue().contains(VARY_ANY)) {
+                return false;
+            }
+        }
+        boolean explicitFreshness = cacheControl.containsKey(MAX_AGE) || httpResponse.containsHeader(HttpHeaders.EXPIRES);
+        boolean validator = httpResponse.containsHeader(HttpHeaders.ETAG) || httpResponse.containsHeader(HttpHeaders.LAST_MODIFIED);
+        if (HEURISTICALLY_CACHEABLE_STATUS.contains(statusCode)) {
+            return explicitFreshness || validator || cacheControl.containsKey(PUBLIC);
+        }
+        return statusCode != HttpStatus.SC_NOT_MODIFIED && statusCode != HttpStatus.SC_PARTIAL_CONTENT
+                && statusCode < HttpStatus.SC_INTERNAL_SERVER_ERROR && explicitFreshness;
+    }
+
+    /**
+     * Response forbids storing, previously cached response of its URI is removed.
+     *
+     * @param httpResponse the http response
+     * @return the boolean
+     */
+    static boolean isNoStore(HttpResponse httpResponse) {
+        return cacheControl(httpResponse.getHeaders(HttpHeaders.CACHE_CONTROL)).containsKey(NO_STORE);
+    }
+
+    /**
+     * Cached response can be served without contacting server.
+     *
+     * @param httpRequest    the http request
+     * @param httpCacheEntry the http cache entry
+     * @param now            the now in epoch milliseconds
+     * @return the boolean
+     */
+    static boolean isFresh(HttpRequest httpRequest, HttpCacheEntry httpCacheEntry, long now) {
+        Map<String, String> requestCacheControl = cacheControl(httpRequest.getHeaders(HttpHeaders.CACHE_CONTROL));
+        Header pragma = httpRequest.getFirstHeader(HttpHeaders.PRAGMA);
+        if (requestCacheControl.containsKey(NO_CACHE) || (Objects.nonNull(pragma) && pragma.getValue().contains(NO_CACHE))) {
+            return false;
+        }
+        if (cacheControl(headers(httpCacheEntry, HttpHeaders.CACHE_CONTROL)).containsKey(NO_CACHE)) {
+            return false;
+        }
+        long currentAge = currentAge(httpCacheEntry, now);
+        long freshnessLifetime = freshnessLifetime(httpCacheEntry);
+        long requestMaxAge = seconds(requestCacheControl.get(MAX_AGE));
+        if (requestMaxAge >= 0 && currentAge > TimeUnit.SECONDS.toMillis(requestMaxAge)) {
+            return false;
+        }
+        long minFresh = Math.max(0, seconds(requestCacheControl.get(MIN_FRESH)));
+        return currentAge + TimeUnit.SECONDS.toMillis(minFresh) < freshnessLifetime;
+    }
+
+    /**
+     * Current age of cached response.
+     *
+     * @param httpCacheEntry the http cache entry
+     * @param now            the now in epoch milliseconds
+     * @return the current age in milliseconds
+     */
+    static long currentAge(HttpCacheEntry httpCacheEntry, long now) {
+        long apparentAge = Math.max(0, httpCacheEntry.getResponseTime() - date(httpCacheEntry));
+        Header age = httpCacheEntry.getFirstHeader(HttpHeaders.AGE);
+        long ageValue = Objects.nonNull(age) ? TimeUnit.SECONDS.toMillis(Math.max(0, seconds(age.getValue()))) : 0;
+        long correctedAge = ageValue + (httpCacheEntry.getResponseTime() - httpCacheEntry.getRequestTime());
+        return Math.max(apparentAge, correctedAge) + (now - httpCacheEntry.getResponseTime());
+    }
+
+    /**
+     * Freshness lifetime from max-age, Expires or 10% of time since Last-Modified (at most one day).
+     *
+     * @param httpCacheEntry the http cache entry
+     * @return the freshness lifetime in milliseconds
+     */
+    static long freshnessLifetime(HttpCacheEntry httpCacheEntry) {
+        long maxAge = seconds(cacheControl(headers(httpCacheEntry, HttpHeaders.CACHE_CONTROL)).get(MAX_AGE));
+        if (maxAge >= 0) {
+            return TimeUnit.SECONDS.toMillis(maxAge);
+        }
+        Header expires = httpCacheEntry.getFirstHeader(HttpHeaders.EXPIRES);
+        if (Objects.nonNull(expires)) {
+            Date expiresDate = DateUtils.parseDate(expires.getValue());
+            return Objects.nonNull(expiresDate) ? Math.max(0, expiresDate.getTime() - date(httpCacheEntry)) : 0;
+        }
+        Header lastModified = httpCacheEntry.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        if (Objects.nonNull(lastModified) && HEURISTICALLY_CACHEABLE_STATUS.contains(httpCacheEntry.getStatusCode())) {
+            Date lastModifiedDate = DateUtils.parseDate(lastModified.getValue());
+            if (Objects.nonNull(lastModifiedDate)) {
+                return Math.min(MAX_HEURISTIC_FRESHNESS_IN_MILLISECONDS, Math.max(0, date(httpCacheEntry) - lastModifiedDate.getTime()) / 10);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Values of request headers named by Vary of response.
+     *
+     * @param httpRequest  the http request
+     * @param varyHeaders  the Vary headers of response
+     * @return the vary headers with lower case name
+     */
+    static Map<String, String> varyHeaders(HttpRequest httpRequest, Header[] varyHeaders) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Header vary : varyHeaders) {
+            for (HeaderElement headerElement : vary.getElements()) {
+                values.put(headerElement.getName().toLowerCase(Locale.ROOT), requestHeaderValue(httpRequest, headerElement.getName()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Request selects the same representation as request of cached response.
+     *
+     * @param httpRequest    the http request
+     * @param httpCacheEntry the http cache entry
+     * @return the boolean
+     */
+    static boolean matchesVary(HttpRequest httpRequest, HttpCacheEntry httpCacheEntry) {
+        for (Map.Entry<String, String> entry : httpCacheEntry.getVaryHeaders().entrySet()) {
+            if (!entry.getValue().equals(requestHeaderValue(httpRequest, entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Directives of Cache-Control headers, directive without value is mapped to empty string.
+     *
+     * @param headers the Cache-Control headers
+     * @return the directives with lower case name
+     */
+    static Map<String, String> cacheControl(Header[] headers) {
+        Map<String, String> directives = new LinkedHashMap<>();
+        for (Header header : headers) {
+            for (HeaderElement headerElement : header.getElements()) {
+                directives.put(headerElement.getName().toLowerCase(Locale.ROOT), Objects.nonNull(headerElement.getValue()) ? headerElement.getValue() : "");
+            }
+        }
+        return directives;
+    }
+
+    private static String requestHeaderValue(HttpRequest httpRequest, String name) {
+        StringBuilder value = new StringBuilder();
+        for (Header header : httpRequest.getHeaders(name)) {
+            if (value.length() > 0) {
+                value.append(',');
+            }
+            value.append(header.getValue().trim());
+        }
+        return value.toString();
+    }
+
+    private static Header[] headers(HttpCacheEntry httpCacheEntry, String name) {
+        return Arrays.stream(httpCacheEntry.getHeaders()).filter(header -> header.getName().equalsIgnoreCase(name)).toArray(Header[]::new);
+    }
+
+    private static long date(HttpCacheEntry httpCacheEntry) {
+        Header date = httpCacheEntry.getFirstHeader(HttpHeaders.DATE);
+        Date dateValue = Objects.nonNull(date) ? DateUtils.parseDate(date.getValue()) : null;
+        return Objects.nonNull(dateValue) ? dateValue.getTime() : httpCacheEntry.getResponseTime();
+    }
+
+    private static long seconds(String value) {
+        if (Objects.isNull(value)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
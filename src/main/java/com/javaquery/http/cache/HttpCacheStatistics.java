@@ -0,0 +1,55 @@
+package com.javaquery.http.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of cacheable requests of {@link com.javaquery.http.HttpClient}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class HttpCacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    /**
+     * Gets responses served from cache without request to server.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets responses received from server.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets cached responses served after server confirmed them using 304 Not Modified.
+     *
+     * @return the revalidations
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void revalidated() {
+        revalidations.increment();
+    }
+}
@@ -0,0 +1,33 @@
+package com.javaquery.http.cache;
+
+/**
+ * Storage of cached responses. Implementation must be thread-safe and treat its own failure as cache miss.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public interface HttpCacheStorage {
+
+    /**
+     * Gets cached response.
+     *
+     * @param key the cache key
+     * @return the http cache entry or null when not cached
+     */
+    HttpCacheEntry get(String key);
+
+    /**
+     * Put response in cache, replaces existing response of the key.
+     *
+     * @param key            the cache key
+     * @param httpCacheEntry the http cache entry
+     */
+    void put(String key, HttpCacheEntry httpCacheEntry);
+
+    /**
+     * Remove cached response.
+     *
+     * @param key the cache key
+     */
+    void remove(String key);
+}
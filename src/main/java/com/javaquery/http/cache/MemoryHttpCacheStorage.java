@@ -0,0 +1,94 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.util.Objects;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory storage bounded by size of cached responses, least recently used response is evicted first.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class MemoryHttpCacheStorage implements HttpCacheStorage {
+
+    private final long maxSizeInBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    /* access ordered, eldest entry is least recently used */
+    private final LinkedHashMap<String, HttpCacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    /**
+     * Instantiates a new Memory http cache storage.
+     *
+     * @param maxSizeInBytes the max size in bytes
+     */
+    public MemoryHttpCacheStorage(long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    @Override
+    public HttpCacheEntry get(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, HttpCacheEntry httpCacheEntry) {
+        long entrySize = httpCacheEntry.getSizeInBytes();
+        lock.lock();
+        try {
+            removeEntry(key);
+            if (entrySize > maxSizeInBytes) {
+                return;
+            }
+            entries.put(key, httpCacheEntry);
+            sizeInBytes += entrySize;
+            Iterator<Map.Entry<String, HttpCacheEntry>> iterator = entries.entrySet().iterator();
+            while (sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+                sizeInBytes -= iterator.next().getValue().getSizeInBytes();
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        lock.lock();
+        try {
+            removeEntry(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets size of cached responses.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        lock.lock();
+        try {
+            return sizeInBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeEntry(String key) {
+        HttpCacheEntry removed = entries.remove(key);
+        if (Objects.nonNull(removed)) {
+            sizeInBytes -= removed.getSizeInBytes();
+        }
+    }
+}
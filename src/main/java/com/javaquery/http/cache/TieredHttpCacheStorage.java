@@ -0,0 +1,50 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.util.Objects;
+
+/**
+ * Two level storage, response found only in second tier is promoted to first tier.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class TieredHttpCacheStorage implements HttpCacheStorage {
+
+    private final HttpCacheStorage firstTier;
+    private final HttpCacheStorage secondTier;
+
+    /**
+     * Instantiates a new Tiered http cache storage.
+     *
+     * @param firstTier  the first tier, usually memory
+     * @param secondTier the second tier, usually disk
+     */
+    public TieredHttpCacheStorage(HttpCacheStorage firstTier, HttpCacheStorage secondTier) {
+        this.firstTier = firstTier;
+        this.secondTier = secondTier;
+    }
+
+    @Override
+    public HttpCacheEntry get(String key) {
+        HttpCacheEntry httpCacheEntry = firstTier.get(key);
+        if (Objects.isNull(httpCacheEntry)) {
+            httpCacheEntry = secondTier.get(key);
+            if (Objects.nonNull(httpCacheEntry)) {
+                firstTier.put(key, httpCacheEntry);
+            }
+        }
+        return httpCacheEntry;
+    }
+
+    @Override
+    public void put(String key, HttpCacheEntry httpCacheEntry) {
+        firstTier.put(key, httpCacheEntry);
+        secondTier.put(key, httpCacheEntry);
+    }
+
+    @Override
+    public void remove(String key) {
+        firstTier.remove(key);
+        secondTier.remove(key);
+    }
+}
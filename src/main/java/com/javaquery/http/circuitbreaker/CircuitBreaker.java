@@ -0,0 +1,199 @@
+package com.javaquery.http.circuitbreaker;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker of one host. Closed circuit records outcome of requests in time based sliding window and opens
+ * when failure rate reaches threshold. Open circuit rejects requests, after open period it lets limited trial
+ * requests through (half-open) and closes when they succeed.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class CircuitBreaker {
+
+    private static final int BUCKETS = 10;
+
+    private final String host;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final long bucketInMilliseconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] bucketEpochs = new long[BUCKETS];
+    private final int[] bucketCalls = new int[BUCKETS];
+    private final int[] bucketFailures = new int[BUCKETS];
+    private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private long stateChangedAt;
+    private int halfOpenPermits;
+    private int halfOpenCalls;
+    private int halfOpenFailures;
+
+    /**
+     * Instantiates a new Circuit breaker.
+     *
+     * @param host                 the host
+     * @param circuitBreakerConfig the circuit breaker config
+     */
+    public CircuitBreaker(String host, CircuitBreakerConfig circuitBreakerConfig) {
+        this.host = host;
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.bucketInMilliseconds = Math.max(1, circuitBreakerConfig.getSlidingWindowInMilliseconds() / BUCKETS);
+        Arrays.fill(bucketEpochs, -1);
+    }
+
+    /**
+     * Gets host.
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Gets state.
+     *
+     * @return the state
+     */
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * Acquire permission to send request, every permitted request must report {@link #onSuccess()}, {@link #onFailure()}
+     * or {@link #releasePermission()} when it is cancelled.
+     * Trial requests of half-open circuit which never report are given up after open period.
+     *
+     * @return true when request can be sent
+     */
+    public boolean tryAcquirePermission() {
+        if (state == CircuitBreakerState.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (state == CircuitBreakerState.OPEN) {
+                if (now - stateChangedAt < circuitBreakerConfig.getOpenStateInMilliseconds()) {
+                    return false;
+                }
+                transitionTo(CircuitBreakerState.HALF_OPEN, now);
+            } else if (state == CircuitBreakerState.HALF_OPEN
+                    && halfOpenPermits >= circuitBreakerConfig.getPermittedCallsInHalfOpenState()
+                    && now - stateChangedAt >= circuitBreakerConfig.getOpenStateInMilliseconds()) {
+                transitionTo(CircuitBreakerState.HALF_OPEN, now);
+            }
+            if (state == CircuitBreakerState.CLOSED) {
+                return true;
+            }
+            if (halfOpenPermits < circuitBreakerConfig.getPermittedCallsInHalfOpenState()) {
+                halfOpenPermits++;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record successful request.
+     */
+    public void onSuccess() {
+        record(false);
+    }
+
+    /**
+     * Record failed request.
+     */
+    public void onFailure() {
+        record(true);
+    }
+
+    /**
+     * Release permission of request cancelled by caller, trial permit of half-open circuit is given back
+     * and request is recorded neither as success nor as failure.
+     */
+    public void releasePermission() {
+        if (state != CircuitBreakerState.HALF_OPEN) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (state == CircuitBreakerState.HALF_OPEN && halfOpenPermits > halfOpenCalls) {
+                halfOpenPermits--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (state == CircuitBreakerState.CLOSED) {
+                recordInWindow(failure, now);
+            } else if (state == CircuitBreakerState.HALF_OPEN) {
+                recordTrial(failure, now);
+            }
+            /* outcome of request sent before circuit opened is ignored */
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordInWindow(boolean failure, long now) {
+        long epoch = now / bucketInMilliseconds;
+        int bucket = (int) (epoch % BUCKETS);
+        if (bucketEpochs[bucket] != epoch) {
+            bucketEpochs[bucket] = epoch;
+            bucketCalls[bucket] = 0;
+            bucketFailures[bucket] = 0;
+        }
+        bucketCalls[bucket]++;
+        if (failure) {
+            bucketFailures[bucket]++;
+        }
+        int calls = 0;
+        int failures = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketEpochs[i] > epoch - BUCKETS) {
+                calls += bucketCalls[i];
+                failures += bucketFailures[i];
+            }
+        }
+        if (calls >= circuitBreakerConfig.getMinimumNumberOfCalls() && isFailureRateReached(failures, calls)) {
+            transitionTo(CircuitBreakerState.OPEN, now);
+        }
+    }
+
+    private void recordTrial(boolean failure, long now) {
+        halfOpenCalls++;
+        if (failure) {
+            halfOpenFailures++;
+        }
+        int permittedCalls = circuitBreakerConfig.getPermittedCallsInHalfOpenState();
+        if (isFailureRateReached(halfOpenFailures, permittedCalls)) {
+            transitionTo(CircuitBreakerState.OPEN, now);
+        } else if (halfOpenCalls >= permittedCalls) {
+            transitionTo(CircuitBreakerState.CLOSED, now);
+        }
+    }
+
+    private boolean isFailureRateReached(int failures, int calls) {
+        return failures > 0 && failures * 100L >= (long) circuitBreakerConfig.getFailureRateThreshold() * calls;
+    }
+
+    private void transitionTo(CircuitBreakerState circuitBreakerState, long now) {
+        state = circuitBreakerState;
+        stateChangedAt = now;
+        halfOpenPermits = 0;
+        halfOpenCalls = 0;
+        halfOpenFailures = 0;
+        if (circuitBreakerState == CircuitBreakerState.CLOSED) {
+            Arrays.fill(bucketEpochs, -1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.javaquery.http.circuitbreaker;
+
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of per host circuit breaker of {@link com.javaquery.http.HttpClient}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+@Builder
+public class CircuitBreakerConfig {
+
+    /**
+     * Circuit opens when percentage of failed requests in sliding window reaches this value.
+     */
+    @Builder.Default
+    private int failureRateThreshold = 50;
+
+    /**
+     * Failure rate is not calculated till sliding window has this many requests.
+     */
+    @Builder.Default
+    private int minimumNumberOfCalls = 20;
+
+    /**
+     * Length of sliding window, it moves in steps of one tenth of its length.
+     */
+    @Builder.Default
+    private long slidingWindowInMilliseconds = 10 * 1000;
+
+    /**
+     * Open circuit rejects requests for this period before it lets trial requests through (half-open).
+     */
+    @Builder.Default
+    private long openStateInMilliseconds = 30 * 1000;
+
+    /**
+     * Trial requests of half-open circuit, circuit closes when they succeed and opens again otherwise.
+     */
+    @Builder.Default
+    private int permittedCallsInHalfOpenState = 5;
+
+    /**
+     * Response is failure when condition asks to retry it, request without response (I/O error) is always failure.
+     * Same {@link RetryPolicy.RetryCondition} of request can be used so retries and circuit agree on failure.
+     */
+    @Builder.Default
+    private RetryPolicy.RetryCondition failureCondition = new DefaultRetryCondition();
+
+    /**
+     * Default circuit breaker config.
+     *
+     * @return the circuit breaker config
+     */
+    public static CircuitBreakerConfig defaultConfig() {
+        return CircuitBreakerConfig.builder().build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.javaquery.http.circuitbreaker;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breakers of {@link com.javaquery.http.HttpClient}, one per scheme, host and port.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class CircuitBreakerRegistry {
+
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Circuit breaker registry.
+     *
+     * @param circuitBreakerConfig the circuit breaker config
+     */
+    public CircuitBreakerRegistry(CircuitBreakerConfig circuitBreakerConfig) {
+        this.circuitBreakerConfig = circuitBreakerConfig;
+    }
+
+    /**
+     * Gets circuit breaker of host of URI.
+     *
+     * @param uri the uri
+     * @return the circuit breaker
+     */
+    public CircuitBreaker get(URI uri) {
+        return circuitBreakers.computeIfAbsent(uri.getScheme() + "://" + uri.getRawAuthority(), host -> new CircuitBreaker(host, circuitBreakerConfig));
+    }
+
+    /**
+     * Gets circuit breakers by host.
+     *
+     * @return the circuit breakers
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return java.util.Collections.unmodifiableMap(circuitBreakers);
+    }
+}
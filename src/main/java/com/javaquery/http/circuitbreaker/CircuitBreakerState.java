@@ -0,0 +1,22 @@
+package com.javaquery.http.circuitbreaker;
+
+/**
+ * State of circuit breaker.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public enum CircuitBreakerState {
+    /**
+     * Requests are sent and their outcome is recorded.
+     */
+    CLOSED,
+    /**
+     * Requests are rejected without being sent.
+     */
+    OPEN,
+    /**
+     * Limited trial requests are sent to find out whether host recovered.
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,39 @@
+package com.javaquery.http.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+/**
+ * Implement interface to decode http response body directly from stream into typed object.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public interface HttpBodyCodec {
+
+    /**
+     * Decode the whole body into object of given type.
+     *
+     * @param <T>         the type parameter
+     * @param inputStream the body stream
+     * @param charset     the charset of body
+     * @param type        the type of object
+     * @return the decoded object
+     * @throws IOException the io exception
+     */
+    <T> T decode(InputStream inputStream, Charset charset, Class<T> type) throws IOException;
+
+    /**
+     * Decode the array body element by element while iterating, so whole array is never held in memory.
+     *
+     * @param <T>         the type parameter
+     * @param inputStream the body stream
+     * @param charset     the charset of body
+     * @param elementType the type of array element
+     * @return the iterator of decoded elements
+     * @throws IOException the io exception
+     */
+    <T> Iterator<T> decodeArray(InputStream inputStream, Charset charset, Class<T> elementType) throws IOException;
+}
@@ -0,0 +1,74 @@
+package com.javaquery.http.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javaquery.util.Objects;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Jackson based {@link HttpBodyCodec}, json is parsed straight from the stream without building intermediate String.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class JacksonHttpBodyCodec implements HttpBodyCodec {
+
+    private static final JacksonHttpBodyCodec DEFAULT = new JacksonHttpBodyCodec(new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Instantiates a new Jackson http body codec.
+     *
+     * @param objectMapper the object mapper
+     */
+    public JacksonHttpBodyCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Codec with object mapper which ignores unknown properties.
+     *
+     * @return the jackson http body codec
+     */
+    public static JacksonHttpBodyCodec getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public <T> T decode(InputStream inputStream, Charset charset, Class<T> type) throws IOException {
+        if (isAutoDetected(charset)) {
+            return objectMapper.readValue(inputStream, type);
+        }
+        return objectMapper.readValue(new InputStreamReader(inputStream, charset), type);
+    }
+
+    @Override
+    public <T> Iterator<T> decodeArray(InputStream inputStream, Charset charset, Class<T> elementType) throws IOException {
+        if (isAutoDetected(charset)) {
+            return objectMapper.readerFor(elementType).readValues(inputStream);
+        }
+        return objectMapper.readerFor(elementType).readValues(new InputStreamReader(inputStream, charset));
+    }
+
+    /**
+     * Jackson detects UTF encoding from bytes itself, which is faster than decoding using reader.
+     *
+     * @param charset the charset
+     * @return true when bytes can be passed to jackson as it is
+     */
+    private boolean isAutoDetected(Charset charset) {
+        return Objects.isNull(charset)
+                || StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.UTF_16.equals(charset)
+                || StandardCharsets.UTF_16BE.equals(charset)
+                || StandardCharsets.UTF_16LE.equals(charset);
+    }
+}
@@ -0,0 +1,70 @@
+package com.javaquery.http.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes of compressed request and response bodies as they went over the wire and before compression / after decompression.
+ * Counters are updated by all threads of {@link com.javaquery.http.HttpClient} without contention.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class CompressionStatistics {
+
+    private final LongAdder compressedBytesReceived = new LongAdder();
+    private final LongAdder decompressedBytesReceived = new LongAdder();
+    private final LongAdder uncompressedBytesSent = new LongAdder();
+    private final LongAdder compressedBytesSent = new LongAdder();
+
+    /**
+     * Gets encoded bytes of response bodies read from the connection.
+     *
+     * @return the compressed bytes received
+     */
+    public long getCompressedBytesReceived() {
+        return compressedBytesReceived.sum();
+    }
+
+    /**
+     * Gets decoded bytes of the same response bodies read by handlers.
+     *
+     * @return the decompressed bytes received
+     */
+    public long getDecompressedBytesReceived() {
+        return decompressedBytesReceived.sum();
+    }
+
+    /**
+     * Gets bytes of request bodies before gzip compression.
+     *
+     * @return the uncompressed bytes sent
+     */
+    public long getUncompressedBytesSent() {
+        return uncompressedBytesSent.sum();
+    }
+
+    /**
+     * Gets gzip compressed bytes of request bodies written to the connection.
+     *
+     * @return the compressed bytes sent
+     */
+    public long getCompressedBytesSent() {
+        return compressedBytesSent.sum();
+    }
+
+    LongAdder compressedBytesReceived() {
+        return compressedBytesReceived;
+    }
+
+    LongAdder decompressedBytesReceived() {
+        return decompressedBytesReceived;
+    }
+
+    LongAdder uncompressedBytesSent() {
+        return uncompressedBytesSent;
+    }
+
+    LongAdder compressedBytesSent() {
+        return compressedBytesSent;
+    }
+}
@@ -0,0 +1,308 @@
+package com.javaquery.http.compression;
+
+import com.javaquery.util.Objects;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.message.BasicHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiate content coding of response, decode response body while it is read and gzip request body while it is written.
+ * Same for every transport, so bytes of compressed bodies are counted in one place.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class ContentCompression {
+
+    private static final String GZIP = "gzip";
+    private static final String IDENTITY = "identity";
+    private static final int BUFFER_SIZE = 8 * 1024;
+    /* magic, deflate, no flags, no mtime, no extra flags, unknown OS */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private ContentCompression() {
+    }
+
+    /**
+     * Add Accept-Encoding of registered codings unless request has one already.
+     *
+     * @param httpRequest            the apache http request
+     * @param contentDecoderRegistry the content decoder registry
+     */
+    public static void acceptEncoding(HttpRequest httpRequest, ContentDecoderRegistry contentDecoderRegistry) {
+        if (!httpRequest.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            httpRequest.setHeader(HttpHeaders.ACCEPT_ENCODING, contentDecoderRegistry.getAcceptEncoding());
+        }
+    }
+
+    /**
+     * Replace encoded body of response with body decoded on read.
+     * Content-Encoding, Content-Length and Content-MD5 describe encoded body, so they are removed once decoder is applied.
+     * Body of unregistered coding is left as it is.
+     *
+     * @param httpResponse           the apache http response
+     * @param contentDecoderRegistry the content decoder registry
+     * @param compressionStatistics  the compression statistics
+     */
+    public static void decode(HttpResponse httpResponse, ContentDecoderRegistry contentDecoderRegistry, CompressionStatistics compressionStatistics) {
+        HttpEntity httpEntity = httpResponse.getEntity();
+        if (Objects.isNull(httpEntity) || httpEntity.getContentLength() == 0) {
+            return;
+        }
+        Header contentEncoding = httpEntity.getContentEncoding();
+        if (Objects.isNull(contentEncoding)) {
+            contentEncoding = httpResponse.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        }
+        if (Objects.isNull(contentEncoding) || IDENTITY.equalsIgnoreCase(contentEncoding.getValue().trim())) {
+            return;
+        }
+        ContentDecoder contentDecoder = contentDecoderRegistry.get(contentEncoding.getValue());
+        if (Objects.nonNull(contentDecoder)) {
+            httpResponse.setEntity(new DecodingEntity(httpEntity, contentDecoder, compressionStatistics));
+            httpResponse.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+            httpResponse.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            httpResponse.removeHeaders(HttpHeaders.CONTENT_MD5);
+        }
+    }
+
+    /**
+     * Wrap request body into gzip compressed body, it is compressed while written so body is sent chunked.
+     *
+     * @param httpEntity            the http entity
+     * @param compressionStatistics the compression statistics
+     * @return the http entity
+     */
+    public static HttpEntity gzip(HttpEntity httpEntity, CompressionStatistics compressionStatistics) {
+        return new GzipCompressingEntity(httpEntity, compressionStatistics);
+    }
+
+    /**
+     * Response body decoded on read, stream of streaming body is opened once.
+     */
+    static class DecodingEntity extends HttpEntityWrapper {
+        private final ContentDecoder contentDecoder;
+        private final CompressionStatistics compressionStatistics;
+        private InputStream content;
+
+        DecodingEntity(HttpEntity httpEntity, ContentDecoder contentDecoder, CompressionStatistics compressionStatistics) {
+            super(httpEntity);
+            this.contentDecoder = contentDecoder;
+            this.compressionStatistics = compressionStatistics;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (wrappedEntity.isStreaming()) {
+                if (Objects.isNull(content)) {
+                    content = decodedContent();
+                }
+                return content;
+            }
+            return decodedContent();
+        }
+
+        private InputStream decodedContent() throws IOException {
+            InputStream encoded = new CountingInputStream(wrappedEntity.getContent(), compressionStatistics.compressedBytesReceived());
+            return new CountingInputStream(contentDecoder.decode(encoded), compressionStatistics.decompressedBytesReceived());
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream inputStream = getContent()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+    }
+
+    /**
+     * Request body gzip compressed while written to the connection.
+     */
+    static class GzipCompressingEntity extends HttpEntityWrapper {
+        private final CompressionStatistics compressionStatistics;
+
+        GzipCompressingEntity(HttpEntity httpEntity, CompressionStatistics compressionStatistics) {
+            super(httpEntity);
+            this.compressionStatistics = compressionStatistics;
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return new BasicHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public boolean isChunked() {
+            return true;
+        }
+
+        /**
+         * Compressed body pulled by non-blocking transports, deflated from wrapped body as it is read.
+         */
+        @Override
+        public InputStream getContent() throws IOException {
+            CRC32 crc32 = new CRC32();
+            CountingInputStream uncompressed = new CountingInputStream(wrappedEntity.getContent(), compressionStatistics.uncompressedBytesSent());
+            CheckedInputStream checkedInputStream = new CheckedInputStream(uncompressed, crc32);
+            InputStream deflated = new DeflaterInputStream(checkedInputStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true), BUFFER_SIZE);
+            InputStream trailer = new LazyInputStream(() -> {
+                long size = uncompressed.count;
+                return new byte[]{
+                        (byte) crc32.getValue(), (byte) (crc32.getValue() >> 8), (byte) (crc32.getValue() >> 16), (byte) (crc32.getValue() >> 24),
+                        (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)};
+            });
+            InputStream gzip = new SequenceInputStream(java.util.Collections.enumeration(Arrays.asList(new ByteArrayInputStream(GZIP_HEADER), deflated, trailer)));
+            return new CountingInputStream(gzip, compressionStatistics.compressedBytesSent());
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(new CountingOutputStream(outputStream, compressionStatistics.compressedBytesSent()), BUFFER_SIZE);
+            wrappedEntity.writeTo(new CountingOutputStream(gzipOutputStream, compressionStatistics.uncompressedBytesSent()));
+            gzipOutputStream.finish();
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * Stream of bytes created on first read, once the streams before it in sequence are exhausted.
+     */
+    static class LazyInputStream extends InputStream {
+        private final Supplier<byte[]> bytesSupplier;
+        private ByteArrayInputStream inputStream;
+
+        LazyInputStream(Supplier<byte[]> bytesSupplier) {
+            this.bytesSupplier = bytesSupplier;
+        }
+
+        @Override
+        public int read() {
+            return inputStream().read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            return inputStream().read(bytes, offset, length);
+        }
+
+        private ByteArrayInputStream inputStream() {
+            if (Objects.isNull(inputStream)) {
+                inputStream = new ByteArrayInputStream(bytesSupplier.get());
+            }
+            return inputStream;
+        }
+    }
+
+    /**
+     * Count bytes read from the stream.
+     */
+    static class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+        private long count;
+
+        CountingInputStream(InputStream inputStream, LongAdder counter) {
+            super(inputStream);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                count++;
+                counter.increment();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+                counter.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            counter.add(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Count bytes written to the stream, stream underneath is not closed.
+     */
+    static class CountingOutputStream extends FilterOutputStream {
+        private final LongAdder counter;
+
+        CountingOutputStream(OutputStream outputStream, LongAdder counter) {
+            super(outputStream);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.increment();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            counter.add(length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.javaquery.http.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decode response body of one content coding, decoded stream is read on demand so body is never inflated in memory at once.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@FunctionalInterface
+public interface ContentDecoder {
+    /**
+     * Wrap encoded stream of response body into decoded stream.
+     *
+     * @param inputStream the encoded input stream
+     * @return the decoded input stream
+     * @throws IOException the io exception
+     */
+    InputStream decode(InputStream inputStream) throws IOException;
+}
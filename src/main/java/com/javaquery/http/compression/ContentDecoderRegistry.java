@@ -0,0 +1,91 @@
+package com.javaquery.http.compression;
+
+import org.apache.http.client.entity.DeflateInputStream;
+import org.brotli.dec.BrotliInputStream;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Content codings accepted by {@link com.javaquery.http.HttpClient}, their names are sent as Accept-Encoding
+ * and response body of matching Content-Encoding is decoded while it is read.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class ContentDecoderRegistry {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final ContentDecoderRegistry DEFAULT = new ContentDecoderRegistryBuilder()
+            .register("gzip", inputStream -> new GZIPInputStream(inputStream, BUFFER_SIZE))
+            .register("x-gzip", inputStream -> new GZIPInputStream(inputStream, BUFFER_SIZE))
+            .register("deflate", DeflateInputStream::new)
+            .register("br", BrotliInputStream::new)
+            .build();
+
+    private final Map<String, ContentDecoder> contentDecoders;
+    private final String acceptEncoding;
+
+    private ContentDecoderRegistry(Map<String, ContentDecoder> contentDecoders) {
+        this.contentDecoders = java.util.Collections.unmodifiableMap(new LinkedHashMap<>(contentDecoders));
+        this.acceptEncoding = String.join(",", contentDecoders.keySet());
+    }
+
+    /**
+     * Registry of gzip, deflate and brotli decoders.
+     *
+     * @return the content decoder registry
+     */
+    public static ContentDecoderRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets decoder of content coding.
+     *
+     * @param contentCoding the content coding, case insensitive
+     * @return the content decoder or null when coding is not registered
+     */
+    public ContentDecoder get(String contentCoding) {
+        return contentDecoders.get(contentCoding.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets value of Accept-Encoding header, registered codings in order of preference.
+     *
+     * @return the accept encoding
+     */
+    public String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    /**
+     * The type Content decoder registry builder, codings are preferred in order of registration.
+     */
+    public static final class ContentDecoderRegistryBuilder {
+        private final Map<String, ContentDecoder> contentDecoders = new LinkedHashMap<>();
+
+        /**
+         * Register decoder of content coding.
+         *
+         * @param contentCoding  the content coding
+         * @param contentDecoder the content decoder
+         * @return the content decoder registry builder
+         */
+        public ContentDecoderRegistryBuilder register(String contentCoding, ContentDecoder contentDecoder) {
+            contentDecoders.put(contentCoding.trim().toLowerCase(Locale.ROOT), contentDecoder);
+            return this;
+        }
+
+        /**
+         * Build content decoder registry.
+         *
+         * @return the content decoder registry
+         */
+        public ContentDecoderRegistry build() {
+            return new ContentDecoderRegistry(contentDecoders);
+        }
+    }
+}
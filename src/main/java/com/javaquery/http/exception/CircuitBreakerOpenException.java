@@ -0,0 +1,21 @@
+package com.javaquery.http.exception;
+
+import com.javaquery.http.StringPool;
+
+/**
+ * Request is rejected without being sent because circuit breaker of its host is open.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class CircuitBreakerOpenException extends Exception {
+
+    /**
+     * Instantiates a new Circuit breaker open exception.
+     *
+     * @param host the host
+     */
+    public CircuitBreakerOpenException(String host) {
+        super(StringPool.ERROR_CIRCUIT_BREAKER_OPEN + host);
+    }
+}
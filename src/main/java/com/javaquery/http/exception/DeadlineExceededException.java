@@ -0,0 +1,22 @@
+package com.javaquery.http.exception;
+
+import com.javaquery.http.StringPool;
+
+/**
+ * Request is aborted or not retried because its total timeout expired.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class DeadlineExceededException extends Exception {
+
+    /**
+     * Instantiates a new Deadline exceeded exception.
+     *
+     * @param totalTimeoutInMilliseconds the total timeout in milliseconds
+     * @param cause                      the failure of aborted request, nullable
+     */
+    public DeadlineExceededException(long totalTimeoutInMilliseconds, Throwable cause) {
+        super(StringPool.ERROR_DEADLINE_EXCEEDED + totalTimeoutInMilliseconds, cause);
+    }
+}
@@ -0,0 +1,23 @@
+package com.javaquery.http.handler;
+
+import com.javaquery.http.HttpRequest;
+
+/**
+ * Implement interface to process results of batch as they complete.
+ *
+ * @param <R> the type parameter
+ * @author javaquery
+ * @since 1.0.7
+ */
+@FunctionalInterface
+public interface HttpBatchListener<R> {
+    /**
+     * Method will be called on I/O thread when request of batch is completed.
+     *
+     * @param index       the index of request in batch
+     * @param httpRequest the http request
+     * @param result      the result of {@link HttpResponseHandler#onResponse}, null when failed
+     * @param throwable   the failure, null when succeeded
+     */
+    void onComplete(int index, HttpRequest httpRequest, R result, Throwable throwable);
+}
@@ -11,7 +11,9 @@ import com.javaquery.http.HttpResponse;
  */
 public interface HttpResponseHandler<R> {
     /**
-     * Method will be called when http response received for http request
+     * Method will be called when http response received for http request.
+     * Response is closed once this method returns, read the body here. When the response itself is returned, its body is read into memory
+     * before the connection is released, body taken using {@link HttpResponse#getBodyInputStream()} can not be read after return.
      *
      * @param httpResponse the http response
      * @return the r
@@ -0,0 +1,71 @@
+package com.javaquery.http.hedge;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+/**
+ * Policy of hedged GET request. When response does not arrive within hedge delay, duplicate request is sent
+ * and the first response wins, other requests are cancelled. Hedge delay is fixed or percentile of latency observed
+ * by this policy, so share one policy between requests of the same kind (e.g. via {@link com.javaquery.http.HttpRequestTemplate}).
+ * Hedges are limited by hedge budget of {@link com.javaquery.http.HttpClientConfig#getHedgeBudgetConfig()}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+public final class HedgePolicy {
+
+    private static final long LATENCY_WINDOW_IN_MILLISECONDS = 60 * 1000;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final long delayInMilliseconds;
+    private final double latencyPercentile;
+    private final int maxHedgedRequests;
+
+    @JsonIgnore
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram(LATENCY_WINDOW_IN_MILLISECONDS);
+
+    /**
+     * Instantiates a new Hedge policy with fixed delay.
+     *
+     * @param delayInMilliseconds the delay before each hedged request
+     * @param maxHedgedRequests   the max hedged requests in addition to original request
+     */
+    public HedgePolicy(long delayInMilliseconds, int maxHedgedRequests) {
+        this(delayInMilliseconds, 0, maxHedgedRequests);
+    }
+
+    /**
+     * Instantiates a new Hedge policy with delay at percentile of observed latency.
+     *
+     * @param delayInMilliseconds the delay used till enough latency is observed
+     * @param latencyPercentile   the latency percentile, e.g. 95 sends hedge when request is slower than 95% of requests
+     * @param maxHedgedRequests   the max hedged requests in addition to original request
+     */
+    public HedgePolicy(long delayInMilliseconds, double latencyPercentile, int maxHedgedRequests) {
+        this.delayInMilliseconds = delayInMilliseconds;
+        this.latencyPercentile = latencyPercentile;
+        this.maxHedgedRequests = maxHedgedRequests;
+    }
+
+    /**
+     * Delay before next hedged request.
+     *
+     * @return the delay in milliseconds
+     */
+    public long hedgeDelay() {
+        if (latencyPercentile > 0 && latencyHistogram.getCount() >= MIN_LATENCY_SAMPLES) {
+            return latencyHistogram.percentile(latencyPercentile);
+        }
+        return delayInMilliseconds;
+    }
+
+    /**
+     * Record latency of exchange from the send of original request till the first response.
+     *
+     * @param latencyInMilliseconds the latency in milliseconds
+     */
+    public void recordLatency(long latencyInMilliseconds) {
+        latencyHistogram.record(latencyInMilliseconds);
+    }
+}
@@ -0,0 +1,166 @@
+package com.javaquery.http.hedge;
+
+import com.javaquery.http.retry.RetryBudget;
+import com.javaquery.http.retry.RetryScheduler;
+import com.javaquery.http.transport.HttpTransport;
+import com.javaquery.util.Objects;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One hedged exchange on async transport. Original request is sent at once and hedged request after every
+ * {@link HedgePolicy#hedgeDelay()} while budget permits, the first response completes the exchange and other
+ * requests are cancelled so their connections are released. Exchange fails when every sent request failed.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class HedgedExecution {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HedgedExecution.class);
+
+    private final HttpTransport httpTransport;
+    private final RetryScheduler retryScheduler;
+    private final Executor executor;
+    private final RetryBudget hedgeBudget;
+    private final HedgePolicy hedgePolicy;
+    private final Supplier<HttpUriRequest> httpUriRequestSupplier;
+    private final Supplier<HttpClientContext> httpClientContextSupplier;
+
+    private final CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+    private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /* latency of exchange is measured from original request, so winning hedge does not report less than caller waited */
+    private final long startTime = System.nanoTime();
+    private volatile CompletableFuture<Void> hedgeDelay;
+    private int hedgedRequests;
+
+    private HedgedExecution(HttpTransport httpTransport, RetryScheduler retryScheduler, Executor executor, RetryBudget hedgeBudget, HedgePolicy hedgePolicy,
+                            Supplier<HttpUriRequest> httpUriRequestSupplier, Supplier<HttpClientContext> httpClientContextSupplier) {
+        this.httpTransport = httpTransport;
+        this.retryScheduler = retryScheduler;
+        this.executor = executor;
+        this.hedgeBudget = hedgeBudget;
+        this.hedgePolicy = hedgePolicy;
+        this.httpUriRequestSupplier = httpUriRequestSupplier;
+        this.httpClientContextSupplier = httpClientContextSupplier;
+    }
+
+    /**
+     * Execute hedged exchange, cancel returned future to cancel all requests of exchange.
+     *
+     * @param httpTransport             the http transport
+     * @param retryScheduler            the scheduler of hedge delay
+     * @param executor                  sends hedged request once delay elapsed, so timer thread is not blocked
+     * @param hedgeBudget               the hedge budget, every exchange deposits to it and every hedged request withdraws from it
+     * @param hedgePolicy               the hedge policy
+     * @param httpUriRequestSupplier    builds new apache request for every request of exchange
+     * @param httpClientContextSupplier builds new context for every request of exchange
+     * @return the future of first response
+     */
+    public static CompletableFuture<HttpResponse> execute(HttpTransport httpTransport, RetryScheduler retryScheduler, Executor executor, RetryBudget hedgeBudget,
+                                                          HedgePolicy hedgePolicy, Supplier<HttpUriRequest> httpUriRequestSupplier,
+                                                          Supplier<HttpClientContext> httpClientContextSupplier) {
+        HedgedExecution hedgedExecution = new HedgedExecution(httpTransport, retryScheduler, executor, hedgeBudget, hedgePolicy, httpUriRequestSupplier, httpClientContextSupplier);
+        hedgeBudget.onSuccess();
+        hedgedExecution.result.whenComplete((httpResponse, throwable) -> hedgedExecution.cancelAll());
+        hedgedExecution.inFlight.incrementAndGet();
+        hedgedExecution.send();
+        hedgedExecution.scheduleHedge();
+        return hedgedExecution.result;
+    }
+
+    private void scheduleHedge() {
+        if (result.isDone() || hedgedRequests >= hedgePolicy.getMaxHedgedRequests()) {
+            return;
+        }
+        hedgeDelay = retryScheduler.delay(Math.max(1, hedgePolicy.hedgeDelay()));
+        hedgeDelay.thenRunAsync(() -> {
+            /* count request in flight before checking result, so failure of other request cannot complete exchange meanwhile */
+            inFlight.incrementAndGet();
+            if (result.isDone() || !hedgeBudget.tryAcquireRetry()) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            hedgedRequests++;
+            send();
+            scheduleHedge();
+        }, executor);
+    }
+
+    private void send() {
+        try {
+            futures.add(httpTransport.execute(httpUriRequestSupplier.get(), httpClientContextSupplier.get(), new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse httpResponse) {
+                    if (result.complete(httpResponse)) {
+                        hedgePolicy.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                    } else {
+                        close(httpResponse);
+                    }
+                }
+
+                @Override
+                public void failed(Exception exception) {
+                    onFailure(exception);
+                }
+
+                @Override
+                public void cancelled() {
+                    if (inFlight.decrementAndGet() == 0) {
+                        result.cancel(false);
+                    }
+                }
+            }));
+        } catch (Exception exception) {
+            onFailure(exception);
+        }
+        if (result.isDone()) {
+            cancelAll();
+        }
+    }
+
+    private void onFailure(Exception exception) {
+        if (inFlight.decrementAndGet() == 0) {
+            result.completeExceptionally(exception);
+        }
+    }
+
+    private void cancelAll() {
+        CompletableFuture<Void> delay = hedgeDelay;
+        if (Objects.nonNull(delay)) {
+            delay.cancel(false);
+        }
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static void close(HttpResponse httpResponse) {
+        try {
+            if (httpResponse instanceof Closeable) {
+                ((Closeable) httpResponse).close();
+            } else {
+                EntityUtils.consume(httpResponse.getEntity());
+            }
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+}
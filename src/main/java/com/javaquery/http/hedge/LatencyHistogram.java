@@ -0,0 +1,134 @@
+package com.javaquery.http.hedge;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free histogram of latencies in milliseconds with precision of 1/8 of value (12.5%).
+ * Samples are kept in two windows, so percentile reflects recent latency and old samples are dropped
+ * after two window periods.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = (64 - 3) * SUB_BUCKETS;
+
+    private final long windowInMilliseconds;
+    private final AtomicReference<Window> current;
+    private volatile Window previous;
+
+    /**
+     * Instantiates a new Latency histogram.
+     *
+     * @param windowInMilliseconds the window in milliseconds
+     */
+    public LatencyHistogram(long windowInMilliseconds) {
+        this.windowInMilliseconds = windowInMilliseconds;
+        this.current = new AtomicReference<>(new Window(System.currentTimeMillis()));
+        this.previous = new Window(0);
+    }
+
+    /**
+     * Record latency.
+     *
+     * @param latencyInMilliseconds the latency in milliseconds
+     */
+    public void record(long latencyInMilliseconds) {
+        window(System.currentTimeMillis()).record(Math.max(0, latencyInMilliseconds));
+    }
+
+    /**
+     * Gets number of samples in recent windows.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        Window window = window(System.currentTimeMillis());
+        return window.count() + previous.count();
+    }
+
+    /**
+     * Latency of given percentile of recent samples, upper bound of its bucket.
+     *
+     * @param percentile the percentile, 0 to 100
+     * @return latency in milliseconds, -1 when there is no sample
+     */
+    public long percentile(double percentile) {
+        Window window = window(System.currentTimeMillis());
+        Window previousWindow = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = window.counts.get(i) + previousWindow.counts.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private Window window(long now) {
+        Window window = current.get();
+        if (now - window.startTime >= windowInMilliseconds) {
+            Window next = new Window(now);
+            if (current.compareAndSet(window, next)) {
+                /* previous window older than two periods holds no recent sample */
+                previous = now - window.startTime >= 2 * windowInMilliseconds ? new Window(0) : window;
+                return next;
+            }
+            return current.get();
+        }
+        return window;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return (exponent - 2) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 2;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 3);
+        return lowerBound + (1L << (exponent - 3)) - 1;
+    }
+
+    private static final class Window {
+        private final long startTime;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        private Window(long startTime) {
+            this.startTime = startTime;
+        }
+
+        private void record(long value) {
+            counts.incrementAndGet(bucket(value));
+        }
+
+        private long count() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.javaquery.http.metrics;
+
+import lombok.Getter;
+
+/**
+ * Snapshot of connections of transport pool, across all routes.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+public final class ConnectionPoolStatistics {
+
+    /**
+     * Connections leased by requests in flight.
+     */
+    private final int leased;
+
+    /**
+     * Idle connections kept alive in pool.
+     */
+    private final int idle;
+
+    /**
+     * Requests waiting for connection from pool.
+     */
+    private final int pending;
+
+    /**
+     * Maximum connections of pool.
+     */
+    private final int max;
+
+    /**
+     * Instantiates a new Connection pool statistics.
+     *
+     * @param leased  the leased connections
+     * @param idle    the idle connections
+     * @param pending the pending requests
+     * @param max     the maximum connections
+     */
+    public ConnectionPoolStatistics(int leased, int idle, int pending, int max) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+    }
+
+    /**
+     * Statistics of this and other pool together.
+     *
+     * @param connectionPoolStatistics the statistics of other pool
+     * @return the connection pool statistics
+     */
+    public ConnectionPoolStatistics plus(ConnectionPoolStatistics connectionPoolStatistics) {
+        return new ConnectionPoolStatistics(leased + connectionPoolStatistics.leased, idle + connectionPoolStatistics.idle,
+                pending + connectionPoolStatistics.pending, max + connectionPoolStatistics.max);
+    }
+}
@@ -0,0 +1,95 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.util.Objects;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In memory metrics of requests by request name, latency percentiles, responses by status code, failures, retries and bytes,
+ * plus connections of pool. Recording is lock-free, read metrics using {@link #get(String)} or {@link #getRequestMetrics()}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class DefaultHttpClientMetrics implements HttpClientMetrics {
+
+    private final long windowInMilliseconds;
+    private final ConcurrentHashMap<String, RequestMetrics> requestMetrics = new ConcurrentHashMap<>();
+    private volatile Supplier<ConnectionPoolStatistics> connectionPoolStatistics;
+
+    /**
+     * Instantiates a new Default http client metrics, latency percentiles reflect requests of last one to two minutes.
+     */
+    public DefaultHttpClientMetrics() {
+        this(60 * 1000);
+    }
+
+    /**
+     * Instantiates a new Default http client metrics.
+     *
+     * @param windowInMilliseconds the window of latency percentiles, percentiles reflect requests of last one to two windows
+     */
+    public DefaultHttpClientMetrics(long windowInMilliseconds) {
+        this.windowInMilliseconds = windowInMilliseconds;
+    }
+
+    @Override
+    public void recordRequest(HttpRequestResponse httpRequestResponse) {
+        int statusCode = Objects.nonNull(httpRequestResponse.getHttpResponse()) ? httpRequestResponse.getHttpResponse().getStatusCode() : 0;
+        get(httpRequestResponse.getHttpRequest().getHttpRequestName()).recordRequest(statusCode, httpRequestResponse.getExecutionTimeInNanos());
+    }
+
+    @Override
+    public void recordRetry(String httpRequestName) {
+        get(httpRequestName).retries().increment();
+    }
+
+    @Override
+    public void recordBytesSent(String httpRequestName, long bytes) {
+        get(httpRequestName).bytesSent().add(bytes);
+    }
+
+    @Override
+    public void recordBytesReceived(String httpRequestName, long bytes) {
+        get(httpRequestName).bytesReceived().add(bytes);
+    }
+
+    @Override
+    public void bindConnectionPool(Supplier<ConnectionPoolStatistics> connectionPoolStatistics) {
+        this.connectionPoolStatistics = connectionPoolStatistics;
+    }
+
+    /**
+     * Gets metrics of requests of given name, created on first use.
+     *
+     * @param httpRequestName the http request name, nullable
+     * @return the request metrics
+     */
+    public RequestMetrics get(String httpRequestName) {
+        String name = HttpClientMetrics.name(httpRequestName);
+        RequestMetrics metrics = requestMetrics.get(name);
+        return Objects.nonNull(metrics) ? metrics : requestMetrics.computeIfAbsent(name, key -> new RequestMetrics(key, windowInMilliseconds));
+    }
+
+    /**
+     * Gets metrics of all requests by request name.
+     *
+     * @return the request metrics
+     */
+    public Map<String, RequestMetrics> getRequestMetrics() {
+        return java.util.Collections.unmodifiableMap(requestMetrics);
+    }
+
+    /**
+     * Gets connections of pool, null when client is not bound or transport has no pool.
+     *
+     * @return the connection pool statistics
+     */
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        Supplier<ConnectionPoolStatistics> supplier = connectionPoolStatistics;
+        return Objects.nonNull(supplier) ? supplier.get() : null;
+    }
+}
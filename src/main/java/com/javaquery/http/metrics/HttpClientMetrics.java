@@ -0,0 +1,71 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.util.Objects;
+
+import java.util.function.Supplier;
+
+/**
+ * Recorder of request metrics, set it using {@link com.javaquery.http.HttpClientConfig#getHttpClientMetrics()}.
+ * Methods are called on request threads and I/O threads, so implementation must be thread-safe and must not block.
+ * <p>
+ * {@link DefaultHttpClientMetrics} keeps metrics in memory, {@link MicrometerHttpClientMetrics} publishes them to Micrometer.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public interface HttpClientMetrics {
+
+    /**
+     * Name used for request without name.
+     */
+    String UNNAMED_REQUEST = "unnamed";
+
+    /**
+     * Record completed attempt of request, attempt without response has exception.
+     *
+     * @param httpRequestResponse the http request response of attempt
+     */
+    void recordRequest(HttpRequestResponse httpRequestResponse);
+
+    /**
+     * Record retry of request.
+     *
+     * @param httpRequestName the http request name, nullable
+     */
+    void recordRetry(String httpRequestName);
+
+    /**
+     * Record bytes of request body written to the connection.
+     *
+     * @param httpRequestName the http request name, nullable
+     * @param bytes           the bytes
+     */
+    void recordBytesSent(String httpRequestName, long bytes);
+
+    /**
+     * Record bytes of response body read from the connection, before it is decoded.
+     *
+     * @param httpRequestName the http request name, nullable
+     * @param bytes           the bytes
+     */
+    void recordBytesReceived(String httpRequestName, long bytes);
+
+    /**
+     * Bind connection pool of client, called once when {@link com.javaquery.http.HttpClient} is created.
+     *
+     * @param connectionPoolStatistics the supplier of pool statistics, supplies null when transport has no pool
+     */
+    default void bindConnectionPool(Supplier<ConnectionPoolStatistics> connectionPoolStatistics) {
+    }
+
+    /**
+     * Name of request as it is recorded.
+     *
+     * @param httpRequestName the http request name, nullable
+     * @return the name
+     */
+    static String name(String httpRequestName) {
+        return Objects.nonNull(httpRequestName) ? httpRequestName : UNNAMED_REQUEST;
+    }
+}
@@ -0,0 +1,207 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.util.Objects;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Phases of one attempt measured using monotonic {@link System#nanoTime()}, transport marks phases as request goes over the wire.
+ * Phase which is not measured is -1, connection reused from pool has no DNS, connect and TLS handshake phase.
+ * <p>
+ * Apache HttpClient 4 blocking transport measures every phase. Non-blocking transports do not report DNS, connect and TLS handshake,
+ * their pool wait includes opening new connection.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class HttpPhaseTimings {
+
+    /**
+     * Attribute of {@link HttpContext} holding timings of attempt.
+     */
+    public static final String CONTEXT_ATTRIBUTE = "com.javaquery.http.phase-timings";
+
+    private final long startTime = System.nanoTime();
+    private volatile long connectStartTime;
+    private volatile long dnsEndTime;
+    private volatile long connectEndTime;
+    private volatile long tlsHandshakeStartTime;
+    private volatile long tlsHandshakeEndTime;
+    private volatile long requestStartTime;
+    private volatile long requestEndTime;
+    private volatile long responseStartTime;
+    private volatile long responseEndTime;
+
+    /**
+     * Gets timings of attempt from context.
+     *
+     * @param httpContext the http context, nullable
+     * @return the http phase timings, null when context has none
+     */
+    public static HttpPhaseTimings get(HttpContext httpContext) {
+        if (Objects.isNull(httpContext)) {
+            return null;
+        }
+        Object httpPhaseTimings = httpContext.getAttribute(CONTEXT_ATTRIBUTE);
+        return httpPhaseTimings instanceof HttpPhaseTimings ? (HttpPhaseTimings) httpPhaseTimings : null;
+    }
+
+    /**
+     * Mark start of opening new connection, host name is resolved first.
+     */
+    public void markConnectStart() {
+        connectStartTime = System.nanoTime();
+    }
+
+    /**
+     * Mark end of DNS resolution, first connect to resolved address starts.
+     */
+    public void markDnsEnd() {
+        if (dnsEndTime == 0) {
+            dnsEndTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Mark end of TCP connect.
+     */
+    public void markConnectEnd() {
+        connectEndTime = System.nanoTime();
+    }
+
+    /**
+     * Mark start of TLS handshake.
+     */
+    public void markTlsHandshakeStart() {
+        tlsHandshakeStartTime = System.nanoTime();
+    }
+
+    /**
+     * Mark end of TLS handshake.
+     */
+    public void markTlsHandshakeEnd() {
+        tlsHandshakeEndTime = System.nanoTime();
+    }
+
+    /**
+     * Mark start of writing request on connection.
+     */
+    public void markRequestStart() {
+        requestStartTime = System.nanoTime();
+    }
+
+    /**
+     * Mark end of writing request, body included.
+     */
+    public void markRequestEnd() {
+        requestEndTime = System.nanoTime();
+    }
+
+    /**
+     * Mark arrival of response head.
+     */
+    public void markResponseStart() {
+        responseStartTime = System.nanoTime();
+    }
+
+    /**
+     * Mark end of reading response body, first mark wins.
+     */
+    public void markResponseEnd() {
+        if (responseEndTime == 0) {
+            responseEndTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Gets time waiting for connection from pool, from start of attempt till connection is opened or request is written.
+     *
+     * @return the pool wait in nanos, -1 when not measured
+     */
+    public long getPoolWaitInNanos() {
+        return duration(startTime, connectStartTime != 0 ? connectStartTime : requestStartTime);
+    }
+
+    /**
+     * Gets time resolving host name.
+     *
+     * @return the dns in nanos, -1 when not measured
+     */
+    public long getDnsInNanos() {
+        return duration(connectStartTime, dnsEndTime);
+    }
+
+    /**
+     * Gets time of TCP connect.
+     *
+     * @return the connect in nanos, -1 when not measured
+     */
+    public long getConnectInNanos() {
+        return duration(dnsEndTime, connectEndTime);
+    }
+
+    /**
+     * Gets time of TLS handshake.
+     *
+     * @return the tls handshake in nanos, -1 when not measured
+     */
+    public long getTlsHandshakeInNanos() {
+        return duration(tlsHandshakeStartTime, tlsHandshakeEndTime);
+    }
+
+    /**
+     * Gets time writing request head and body.
+     *
+     * @return the request write in nanos, -1 when not measured
+     */
+    public long getRequestWriteInNanos() {
+        return duration(requestStartTime, requestEndTime);
+    }
+
+    /**
+     * Gets time waiting for response head after request is written.
+     *
+     * @return the time to first byte in nanos, -1 when not measured
+     */
+    public long getTimeToFirstByteInNanos() {
+        return duration(requestEndTime, responseStartTime);
+    }
+
+    /**
+     * Gets time reading response body after response head.
+     *
+     * @return the body read in nanos, -1 when not measured
+     */
+    public long getBodyReadInNanos() {
+        return duration(responseStartTime, responseEndTime);
+    }
+
+    /**
+     * Measured phases in nanoseconds by phase name, in order of phases.
+     *
+     * @return the map
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        put(phases, "poolWaitNs", getPoolWaitInNanos());
+        put(phases, "dnsNs", getDnsInNanos());
+        put(phases, "connectNs", getConnectInNanos());
+        put(phases, "tlsHandshakeNs", getTlsHandshakeInNanos());
+        put(phases, "requestWriteNs", getRequestWriteInNanos());
+        put(phases, "timeToFirstByteNs", getTimeToFirstByteInNanos());
+        put(phases, "bodyReadNs", getBodyReadInNanos());
+        return phases;
+    }
+
+    private static void put(Map<String, Long> phases, String phase, long nanos) {
+        if (nanos >= 0) {
+            phases.put(phase, nanos);
+        }
+    }
+
+    private static long duration(long start, long end) {
+        return start != 0 && end != 0 && end >= start ? end - start : -1;
+    }
+}
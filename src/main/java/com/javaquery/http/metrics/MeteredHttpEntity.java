@@ -0,0 +1,135 @@
+package com.javaquery.http.metrics;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Count bytes of body as it is written or read, count is reported once when body is written, read to the end or closed.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class MeteredHttpEntity extends HttpEntityWrapper {
+
+    private final LongConsumer bytesConsumer;
+
+    /**
+     * Instantiates a new Metered http entity.
+     *
+     * @param httpEntity    the http entity
+     * @param bytesConsumer receives bytes of body
+     */
+    public MeteredHttpEntity(HttpEntity httpEntity, LongConsumer bytesConsumer) {
+        super(httpEntity);
+        this.bytesConsumer = bytesConsumer;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new CountingInputStream(wrappedEntity.getContent());
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        wrappedEntity.writeTo(countingOutputStream);
+        bytesConsumer.accept(countingOutputStream.count);
+    }
+
+    /**
+     * Count bytes read from the stream and report them at the end of stream or on close.
+     */
+    private class CountingInputStream extends FilterInputStream {
+        private long count;
+        private boolean reported;
+
+        CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                count++;
+            } else {
+                report();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            } else if (read == -1) {
+                report();
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                report();
+            }
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                bytesConsumer.accept(count);
+            }
+        }
+    }
+
+    /**
+     * Count bytes written to the stream, stream underneath is not closed.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.util.Objects;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Publish request metrics to Micrometer {@link MeterRegistry}. Micrometer is optional dependency of http client,
+ * add io.micrometer:micrometer-core to use this class.
+ * <ul>
+ *     <li>{@code httpclient.requests} timer of attempts tagged by name, method, status and outcome</li>
+ *     <li>{@code httpclient.retries} counter tagged by name</li>
+ *     <li>{@code httpclient.bytes.sent} and {@code httpclient.bytes.received} counters tagged by name</li>
+ *     <li>{@code httpclient.connections.leased}, {@code .idle}, {@code .pending} and {@code .max} gauges of pool</li>
+ * </ul>
+ * Percentile histogram of timer is enabled using {@code MeterFilter} of registry.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class MicrometerHttpClientMetrics implements HttpClientMetrics {
+
+    private static final String IO_ERROR = "IO_ERROR";
+    private static final String[] OUTCOMES = {"UNKNOWN", "INFORMATIONAL", "SUCCESS", "REDIRECTION", "CLIENT_ERROR", "SERVER_ERROR"};
+
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+
+    /**
+     * Instantiates a new Micrometer http client metrics.
+     *
+     * @param meterRegistry the meter registry
+     */
+    public MicrometerHttpClientMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, Tags.empty());
+    }
+
+    /**
+     * Instantiates a new Micrometer http client metrics.
+     *
+     * @param meterRegistry the meter registry
+     * @param tags          the tags added to every meter, for example name of client
+     */
+    public MicrometerHttpClientMetrics(MeterRegistry meterRegistry, Iterable<Tag> tags) {
+        this.meterRegistry = meterRegistry;
+        this.tags = Tags.of(tags);
+    }
+
+    @Override
+    public void recordRequest(HttpRequestResponse httpRequestResponse) {
+        int statusCode = Objects.nonNull(httpRequestResponse.getHttpResponse()) ? httpRequestResponse.getHttpResponse().getStatusCode() : 0;
+        Timer.builder("httpclient.requests")
+                .tags(tags)
+                .tag("name", HttpClientMetrics.name(httpRequestResponse.getHttpRequest().getHttpRequestName()))
+                .tag("method", httpRequestResponse.getHttpRequest().getHttpMethod().name())
+                .tag("status", statusCode > 0 ? String.valueOf(statusCode) : IO_ERROR)
+                .tag("outcome", statusCode >= 100 && statusCode < 600 ? OUTCOMES[statusCode / 100] : OUTCOMES[0])
+                .register(meterRegistry)
+                .record(Math.max(0, httpRequestResponse.getExecutionTimeInNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRetry(String httpRequestName) {
+        counter("httpclient.retries", null, httpRequestName).increment();
+    }
+
+    @Override
+    public void recordBytesSent(String httpRequestName, long bytes) {
+        counter("httpclient.bytes.sent", "bytes", httpRequestName).increment(bytes);
+    }
+
+    @Override
+    public void recordBytesReceived(String httpRequestName, long bytes) {
+        counter("httpclient.bytes.received", "bytes", httpRequestName).increment(bytes);
+    }
+
+    @Override
+    public void bindConnectionPool(Supplier<ConnectionPoolStatistics> connectionPoolStatistics) {
+        gauge("httpclient.connections.leased", connectionPoolStatistics, ConnectionPoolStatistics::getLeased);
+        gauge("httpclient.connections.idle", connectionPoolStatistics, ConnectionPoolStatistics::getIdle);
+        gauge("httpclient.connections.pending", connectionPoolStatistics, ConnectionPoolStatistics::getPending);
+        gauge("httpclient.connections.max", connectionPoolStatistics, ConnectionPoolStatistics::getMax);
+    }
+
+    private Counter counter(String name, String baseUnit, String httpRequestName) {
+        return Counter.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .tag("name", HttpClientMetrics.name(httpRequestName))
+                .register(meterRegistry);
+    }
+
+    private void gauge(String name, Supplier<ConnectionPoolStatistics> connectionPoolStatistics, ToIntFunction<ConnectionPoolStatistics> value) {
+        Gauge.builder(name, connectionPoolStatistics, supplier -> {
+                    ConnectionPoolStatistics statistics = supplier.get();
+                    return Objects.nonNull(statistics) ? value.applyAsInt(statistics) : Double.NaN;
+                })
+                .tags(tags)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,142 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.hedge.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of requests of one name, recorded by {@link DefaultHttpClientMetrics}.
+ * Counters are updated by all threads without contention, latency percentiles reflect recent requests.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class RequestMetrics {
+
+    private final String httpRequestName;
+    private final LatencyHistogram latencyHistogram;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder totalTimeInNanos = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    RequestMetrics(String httpRequestName, long windowInMilliseconds) {
+        this.httpRequestName = httpRequestName;
+        this.latencyHistogram = new LatencyHistogram(windowInMilliseconds);
+    }
+
+    /**
+     * Gets http request name.
+     *
+     * @return the http request name
+     */
+    public String getHttpRequestName() {
+        return httpRequestName;
+    }
+
+    /**
+     * Gets attempts of requests, retries included.
+     *
+     * @return the requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets attempts which failed without response.
+     *
+     * @return the failures
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets retries.
+     *
+     * @return the retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets bytes of request bodies written to the connection.
+     *
+     * @return the bytes sent
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Gets bytes of response bodies read from the connection.
+     *
+     * @return the bytes received
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Gets total time of attempts in nanoseconds.
+     *
+     * @return the total time in nanos
+     */
+    public long getTotalTimeInNanos() {
+        return totalTimeInNanos.sum();
+    }
+
+    /**
+     * Gets number of responses by status code.
+     *
+     * @return the status codes
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        Map<Integer, Long> result = new TreeMap<>();
+        statusCodes.forEach((statusCode, count) -> result.put(statusCode, count.sum()));
+        return result;
+    }
+
+    /**
+     * Latency of given percentile of recent attempts.
+     *
+     * @param percentile the percentile, 0 to 100
+     * @return latency in milliseconds, -1 when there is no recent attempt
+     */
+    public long getLatencyPercentile(double percentile) {
+        return latencyHistogram.percentile(percentile);
+    }
+
+    void recordRequest(int statusCode, long latencyInNanos) {
+        requests.increment();
+        if (statusCode > 0) {
+            statusCodes.computeIfAbsent(statusCode, key -> new LongAdder()).increment();
+        } else {
+            failures.increment();
+        }
+        if (latencyInNanos >= 0) {
+            totalTimeInNanos.add(latencyInNanos);
+            latencyHistogram.record(latencyInNanos / 1_000_000);
+        }
+    }
+
+    LongAdder retries() {
+        return retries;
+    }
+
+    LongAdder bytesSent() {
+        return bytesSent;
+    }
+
+    LongAdder bytesReceived() {
+        return bytesReceived;
+    }
+}
@@ -0,0 +1,102 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+
+/**
+ * Base of backoff strategies with maximum delay and deadline. Delay is capped at maximum delay and
+ * {@link RetryPolicy.BackoffStrategy#STOP_RETRY} is returned when retry would start after deadline,
+ * which is measured from the first attempt of request.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public abstract class AbstractBackoffStrategy implements RetryPolicy.BackoffStrategy {
+
+    private final long baseDelayInMilliseconds;
+    private final long maxDelayInMilliseconds;
+    private final long maxElapsedTimeInMilliseconds;
+
+    /**
+     * Instantiates a new backoff strategy.
+     *
+     * @param baseDelayInMilliseconds      the base delay in milliseconds
+     * @param maxDelayInMilliseconds       the max delay in milliseconds
+     * @param maxElapsedTimeInMilliseconds the max elapsed time since first attempt in milliseconds, non-positive value means no deadline
+     */
+    protected AbstractBackoffStrategy(long baseDelayInMilliseconds, long maxDelayInMilliseconds, long maxElapsedTimeInMilliseconds) {
+        this.baseDelayInMilliseconds = baseDelayInMilliseconds;
+        this.maxDelayInMilliseconds = maxDelayInMilliseconds;
+        this.maxElapsedTimeInMilliseconds = maxElapsedTimeInMilliseconds;
+    }
+
+    /**
+     * Gets base delay in milliseconds.
+     *
+     * @return the base delay in milliseconds
+     */
+    public long getBaseDelayInMilliseconds() {
+        return baseDelayInMilliseconds;
+    }
+
+    /**
+     * Gets max delay in milliseconds.
+     *
+     * @return the max delay in milliseconds
+     */
+    public long getMaxDelayInMilliseconds() {
+        return maxDelayInMilliseconds;
+    }
+
+    /**
+     * Gets max elapsed time since first attempt in milliseconds.
+     *
+     * @return the max elapsed time in milliseconds
+     */
+    public long getMaxElapsedTimeInMilliseconds() {
+        return maxElapsedTimeInMilliseconds;
+    }
+
+    @Override
+    public long delayBeforeNextRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        return withinDeadline(httpRequestResponse, Math.min(delay(httpRequestResponse, retriesAttempted), maxDelayInMilliseconds));
+    }
+
+    /**
+     * Delay before next retry, before it is capped at max delay.
+     *
+     * @param httpRequestResponse the http request response
+     * @param retriesAttempted    the retries attempted
+     * @return the delay in milliseconds
+     */
+    protected abstract long delay(HttpRequestResponse httpRequestResponse, int retriesAttempted);
+
+    /**
+     * Exponential delay base * 2^retriesAttempted capped at max delay, without overflow.
+     *
+     * @param retriesAttempted the retries attempted
+     * @return the delay in milliseconds
+     */
+    protected long exponentialDelay(int retriesAttempted) {
+        if (retriesAttempted >= 62 || baseDelayInMilliseconds > (maxDelayInMilliseconds >> retriesAttempted)) {
+            return maxDelayInMilliseconds;
+        }
+        return baseDelayInMilliseconds << retriesAttempted;
+    }
+
+    /**
+     * Delay when retry starts before deadline, otherwise {@link RetryPolicy.BackoffStrategy#STOP_RETRY}.
+     *
+     * @param httpRequestResponse the http request response
+     * @param delay               the delay in milliseconds
+     * @return the delay in milliseconds or stop retry
+     */
+    protected long withinDeadline(HttpRequestResponse httpRequestResponse, long delay) {
+        if (maxElapsedTimeInMilliseconds > 0) {
+            long elapsed = System.currentTimeMillis() - httpRequestResponse.getFirstExecutionStartTime();
+            if (elapsed + delay > maxElapsedTimeInMilliseconds) {
+                return STOP_RETRY;
+            }
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,36 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decorrelated jitter backoff, delay is random between base and three times the previous delay of request,
+ * capped at max delay. Delay grows like exponential backoff but retries of different requests do not line up.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class DecorrelatedJitterBackoffStrategy extends AbstractBackoffStrategy {
+
+    /**
+     * Instantiates a new Decorrelated jitter backoff strategy.
+     *
+     * @param baseDelayInMilliseconds      the base delay in milliseconds
+     * @param maxDelayInMilliseconds       the max delay in milliseconds
+     * @param maxElapsedTimeInMilliseconds the max elapsed time since first attempt in milliseconds, non-positive value means no deadline
+     */
+    public DecorrelatedJitterBackoffStrategy(long baseDelayInMilliseconds, long maxDelayInMilliseconds, long maxElapsedTimeInMilliseconds) {
+        super(baseDelayInMilliseconds, maxDelayInMilliseconds, maxElapsedTimeInMilliseconds);
+    }
+
+    @Override
+    protected long delay(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        long previousDelay = Math.max(httpRequestResponse.getPreviousRetryDelay(), getBaseDelayInMilliseconds());
+        long upperBound = Math.min(previousDelay * 3, getMaxDelayInMilliseconds());
+        if (upperBound <= getBaseDelayInMilliseconds()) {
+            return getBaseDelayInMilliseconds();
+        }
+        return ThreadLocalRandom.current().nextLong(getBaseDelayInMilliseconds(), upperBound + 1);
+    }
+}
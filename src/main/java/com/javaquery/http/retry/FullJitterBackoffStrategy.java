@@ -0,0 +1,31 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter, delay is random between 0 and min(max delay, base * 2^retriesAttempted).
+ * Retries of many clients are spread over the whole window instead of arriving together.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class FullJitterBackoffStrategy extends AbstractBackoffStrategy {
+
+    /**
+     * Instantiates a new Full jitter backoff strategy.
+     *
+     * @param baseDelayInMilliseconds      the base delay in milliseconds
+     * @param maxDelayInMilliseconds       the max delay in milliseconds
+     * @param maxElapsedTimeInMilliseconds the max elapsed time since first attempt in milliseconds, non-positive value means no deadline
+     */
+    public FullJitterBackoffStrategy(long baseDelayInMilliseconds, long maxDelayInMilliseconds, long maxElapsedTimeInMilliseconds) {
+        super(baseDelayInMilliseconds, maxDelayInMilliseconds, maxElapsedTimeInMilliseconds);
+    }
+
+    @Override
+    protected long delay(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        return ThreadLocalRandom.current().nextLong(exponentialDelay(retriesAttempted) + 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.util.Objects;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Backoff which honors Retry-After header (delay in seconds or HTTP-date) of response, usually sent with 429 and 503,
+ * delay of response without it is decided by fallback strategy. Request is not retried when server asks to wait
+ * longer than max delay or retry would start after deadline.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class RetryAfterBackoffStrategy extends AbstractBackoffStrategy {
+
+    private final RetryPolicy.BackoffStrategy fallbackBackoffStrategy;
+
+    /**
+     * Instantiates a new Retry after backoff strategy.
+     *
+     * @param fallbackBackoffStrategy      the backoff strategy used when response has no Retry-After header
+     * @param maxDelayInMilliseconds       the max delay in milliseconds
+     * @param maxElapsedTimeInMilliseconds the max elapsed time since first attempt in milliseconds, non-positive value means no deadline
+     */
+    public RetryAfterBackoffStrategy(RetryPolicy.BackoffStrategy fallbackBackoffStrategy, long maxDelayInMilliseconds, long maxElapsedTimeInMilliseconds) {
+        super(0, maxDelayInMilliseconds, maxElapsedTimeInMilliseconds);
+        this.fallbackBackoffStrategy = fallbackBackoffStrategy;
+    }
+
+    @Override
+    public long delayBeforeNextRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        long delay = delay(httpRequestResponse, retriesAttempted);
+        if (delay < 0) {
+            delay = fallbackBackoffStrategy.delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
+            if (delay < 0) {
+                return STOP_RETRY;
+            }
+        } else if (delay > getMaxDelayInMilliseconds()) {
+            return STOP_RETRY;
+        }
+        return withinDeadline(httpRequestResponse, delay);
+    }
+
+    /**
+     * Delay asked by Retry-After header of response.
+     *
+     * @param httpRequestResponse the http request response
+     * @param retriesAttempted    the retries attempted
+     * @return the delay in milliseconds, negative when response has no valid Retry-After header
+     */
+    @Override
+    protected long delay(HttpRequestResponse httpRequestResponse, int retriesAttempted) {
+        String retryAfter = retryAfter(httpRequestResponse);
+        if (Objects.isNull(retryAfter)) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(retryAfter.trim());
+            return seconds > Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : Math.max(0, seconds * 1000);
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(retryAfter.trim());
+            return Objects.isNull(date) ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+
+    private String retryAfter(HttpRequestResponse httpRequestResponse) {
+        if (Objects.isNull(httpRequestResponse.getHttpResponse()) || Objects.isNull(httpRequestResponse.getHttpResponse().getHeaders())) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : httpRequestResponse.getHttpResponse().getHeaders().entrySet()) {
+            if (HttpHeaders.RETRY_AFTER.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package com.javaquery.http.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket which caps retries at percentage of successful requests.
+ * Every successful attempt deposits {@link RetryBudgetConfig#getRetryPercentage()} of one retry and every retry withdraws one.
+ * Attempt is successful when it has response and neither retry condition of request nor failure condition of circuit breaker matches it,
+ * failed attempts which are not retried deposit nothing. Retry is denied when budget is empty so retries cannot multiply load on failing server.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class RetryBudget {
+
+    /* one retry in units of balance, deposit of one percent is one unit */
+    private static final long RETRY_COST = 100;
+
+    private final String host;
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final LongAdder permittedRetries = new LongAdder();
+    private final LongAdder deniedRetries = new LongAdder();
+
+    /**
+     * Instantiates a new Retry budget.
+     *
+     * @param host              the host, null when budget is shared by all hosts
+     * @param retryBudgetConfig the retry budget config
+     */
+    public RetryBudget(String host, RetryBudgetConfig retryBudgetConfig) {
+        this.host = host;
+        this.deposit = retryBudgetConfig.getRetryPercentage();
+        this.maxBalance = retryBudgetConfig.getMaxRetries() * RETRY_COST;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Gets host, null when budget is shared by all hosts.
+     *
+     * @return the host
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Deposit share of successful request.
+     */
+    public void onSuccess() {
+        if (balance.get() < maxBalance) {
+            balance.accumulateAndGet(deposit, (current, amount) -> Math.min(current + amount, maxBalance));
+        }
+    }
+
+    /**
+     * Withdraw one retry from budget.
+     *
+     * @return true when retry is permitted
+     */
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < RETRY_COST) {
+                deniedRetries.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - RETRY_COST));
+        permittedRetries.increment();
+        return true;
+    }
+
+    /**
+     * Gets retries available in budget.
+     *
+     * @return the available retries
+     */
+    public long getAvailableRetries() {
+        return balance.get() / RETRY_COST;
+    }
+
+    /**
+     * Gets retries permitted by budget.
+     *
+     * @return the permitted retries
+     */
+    public long getPermittedRetries() {
+        return permittedRetries.sum();
+    }
+
+    /**
+     * Gets retries denied because budget was empty.
+     *
+     * @return the denied retries
+     */
+    public long getDeniedRetries() {
+        return deniedRetries.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package com.javaquery.http.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of retry budget shared by requests of {@link com.javaquery.http.HttpClient}, see {@link RetryBudget}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+@Getter
+@Builder
+public class RetryBudgetConfig {
+
+    /**
+     * Retries permitted as percentage of successful attempts, 10 allows one retry per ten successful attempts.
+     * Failed attempts deposit nothing even when they are not retried.
+     */
+    @Builder.Default
+    private int retryPercentage = 10;
+
+    /**
+     * Capacity of budget in retries, budget starts full so burst of retries is permitted before traffic deposits to it.
+     */
+    @Builder.Default
+    private int maxRetries = 100;
+
+    /**
+     * One budget per scheme, host and port when true, otherwise one budget for all hosts.
+     */
+    private boolean perHost;
+
+    /**
+     * Default retry budget config.
+     *
+     * @return the retry budget config
+     */
+    public static RetryBudgetConfig defaultConfig() {
+        return RetryBudgetConfig.builder().build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.util.Objects;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retry budgets of {@link com.javaquery.http.HttpClient}, one for all hosts or one per scheme, host and port.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class RetryBudgetRegistry {
+
+    private final RetryBudgetConfig retryBudgetConfig;
+    private final RetryBudget sharedRetryBudget;
+    private final ConcurrentHashMap<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Retry budget registry.
+     *
+     * @param retryBudgetConfig the retry budget config
+     */
+    public RetryBudgetRegistry(RetryBudgetConfig retryBudgetConfig) {
+        this.retryBudgetConfig = retryBudgetConfig;
+        this.sharedRetryBudget = retryBudgetConfig.isPerHost() ? null : new RetryBudget(null, retryBudgetConfig);
+    }
+
+    /**
+     * Gets retry budget of host of URI.
+     *
+     * @param uri the uri
+     * @return the retry budget
+     */
+    public RetryBudget get(URI uri) {
+        if (Objects.nonNull(sharedRetryBudget)) {
+            return sharedRetryBudget;
+        }
+        return retryBudgets.computeIfAbsent(uri.getScheme() + "://" + uri.getRawAuthority(), host -> new RetryBudget(host, retryBudgetConfig));
+    }
+
+    /**
+     * Gets retry budgets.
+     *
+     * @return the retry budgets
+     */
+    public Collection<RetryBudget> getRetryBudgets() {
+        return Objects.nonNull(sharedRetryBudget) ? java.util.Collections.singletonList(sharedRetryBudget) : java.util.Collections.unmodifiableCollection(retryBudgets.values());
+    }
+
+    /**
+     * Gets retries denied by all budgets.
+     *
+     * @return the denied retries
+     */
+    public long getDeniedRetries() {
+        long deniedRetries = 0;
+        for (RetryBudget retryBudget : getRetryBudgets()) {
+            deniedRetries += retryBudget.getDeniedRetries();
+        }
+        return deniedRetries;
+    }
+}
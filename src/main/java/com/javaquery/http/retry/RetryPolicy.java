@@ -74,12 +74,17 @@ public final class RetryPolicy {
      * Implement interface to define back off strategy for sub-sequent delayed retries.
      */
     public interface BackoffStrategy {
+        /**
+         * Delay returned when request must not be retried anymore, e.g. retry would start after deadline.
+         */
+        long STOP_RETRY = -1;
+
         /**
          * Delay before next retry long.
          *
          * @param httpRequestResponse the http request response
          * @param retriesAttempted    the retries attempted
-         * @return the long
+         * @return delay in milliseconds or {@link #STOP_RETRY}
          */
         long delayBeforeNextRetry(HttpRequestResponse httpRequestResponse, int retriesAttempted);
     }
@@ -0,0 +1,92 @@
+package com.javaquery.http.retry;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timer to wait for {@link RetryPolicy.BackoffStrategy} delay without parking a thread per request.
+ * Request in backoff only holds a scheduled task, so thousands of requests waiting for retry cost no threads.
+ * All {@link com.javaquery.http.HttpClient} share {@link #shared()} scheduler unless other scheduler is configured.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class RetryScheduler implements Closeable {
+
+    private static final RetryScheduler SHARED = new RetryScheduler(1);
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor;
+
+    /**
+     * Instantiates a new Retry scheduler.
+     *
+     * @param threads the number of timer threads
+     */
+    public RetryScheduler(int threads) {
+        scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "javaquery-http-retry-scheduler-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        /* cancelled backoff must not stay in queue till its delay elapsed */
+        scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Scheduler shared by all http clients.
+     *
+     * @return the retry scheduler
+     */
+    public static RetryScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Future completes on timer thread once delay is elapsed, timer thread is shared by every request,
+     * so continue on executor using {@code thenRunAsync} instead of running the work on it.
+     * Cancelling the future removes the scheduled task.
+     *
+     * @param delayInMilliseconds the delay in milliseconds
+     * @return the future
+     */
+    public CompletableFuture<Void> delay(long delayInMilliseconds) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (delayInMilliseconds <= 0) {
+            future.complete(null);
+            return future;
+        }
+        ScheduledFuture<?> scheduledFuture = scheduledThreadPoolExecutor.schedule(() -> future.complete(null), delayInMilliseconds, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                scheduledFuture.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Schedule periodic housekeeping task like connection eviction.
+     *
+     * @param runnable                   the runnable
+     * @param periodInMilliseconds       the period in milliseconds
+     * @return the scheduled future, cancel it to stop the task
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable runnable, long periodInMilliseconds) {
+        return scheduledThreadPoolExecutor.scheduleWithFixedDelay(runnable, periodInMilliseconds, periodInMilliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the timer threads, {@link #shared()} scheduler lives as long as the JVM and is not stopped.
+     */
+    @Override
+    public void close() {
+        if (this != SHARED) {
+            scheduledThreadPoolExecutor.shutdownNow();
+        }
+    }
+}
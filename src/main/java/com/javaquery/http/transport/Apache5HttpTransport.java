@@ -0,0 +1,695 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutors;
+import com.javaquery.http.StringPool;
+import com.javaquery.http.metrics.ConnectionPoolStatistics;
+import com.javaquery.http.metrics.HttpPhaseTimings;
+import com.javaquery.util.Objects;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.RequestChannel;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Transport on Apache HttpClient 5 async with pooled connections, HTTP/2 is used when server selects it using ALPN, HTTP/1.1 otherwise.
+ * <p>
+ * Request and response body are streamed, request body is written by entity on executor of transport
+ * and response is returned once its head arrives, body is read while it is received.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class Apache5HttpTransport implements HttpTransport {
+
+    /**
+     * Name of transport in {@link HttpTransportProvider} registry.
+     */
+    public static final String NAME = "apache5";
+    /* connection specific headers are not allowed in HTTP/2, host and content length are set by the client */
+    private static final Set<String> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "host", "content-length", "content-type"));
+    /* bytes of body buffered between I/O thread and writer or reader of body */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CloseableHttpAsyncClient closeableHttpAsyncClient;
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    /* entity writes request body with blocking writeTo, so it runs off the I/O thread */
+    private final ExecutorService entityExecutorService = HttpExecutors.newCachedThreadPool();
+
+    /**
+     * Instantiates a new Apache 5 http transport.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public Apache5HttpTransport(HttpClientConfig httpClientConfig) {
+        this(httpClientConfig, PoolingAsyncClientConnectionManagerBuilder.create()
+                .setTlsStrategy(ClientTlsStrategyBuilder.create().useSystemProperties().build())
+                .setMaxConnTotal(httpClientConfig.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(httpClientConfig.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setTimeToLive(TimeValue.ofMilliseconds(httpClientConfig.getConnectionTimeToLiveInMilliseconds()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(httpClientConfig.getValidateAfterInactivityInMilliseconds()))
+                        .build())
+                .build());
+    }
+
+    /**
+     * Instantiates a new Apache 5 http transport on given pool, pool is kept to report its statistics.
+     *
+     * @param httpClientConfig  the http client config
+     * @param connectionManager the connection manager
+     */
+    private Apache5HttpTransport(HttpClientConfig httpClientConfig, PoolingAsyncClientConnectionManager connectionManager) {
+        this(HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(httpClientConfig.getMaxIdleTimeInMilliseconds()))
+                .disableCookieManagement()
+                .build(), connectionManager);
+    }
+
+    /**
+     * Instantiates a new Apache 5 http transport on given client, client is started by transport.
+     *
+     * @param closeableHttpAsyncClient the closeable http async client
+     */
+    protected Apache5HttpTransport(CloseableHttpAsyncClient closeableHttpAsyncClient) {
+        this(closeableHttpAsyncClient, null);
+    }
+
+    /**
+     * Instantiates a new Apache 5 http transport on given client and its connection manager, client is started by transport.
+     *
+     * @param closeableHttpAsyncClient the closeable http async client
+     * @param connectionManager        the connection manager of client, nullable
+     */
+    protected Apache5HttpTransport(CloseableHttpAsyncClient closeableHttpAsyncClient, PoolingAsyncClientConnectionManager connectionManager) {
+        this.closeableHttpAsyncClient = closeableHttpAsyncClient;
+        this.connectionManager = connectionManager;
+        this.closeableHttpAsyncClient.start();
+    }
+
+    /**
+     * Connections of pool, null when transport is created on client without connection manager.
+     *
+     * @return the connection pool statistics
+     */
+    @Override
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        if (Objects.isNull(connectionManager)) {
+            return null;
+        }
+        PoolStats poolStats = connectionManager.getTotalStats();
+        return new ConnectionPoolStatistics(poolStats.getLeased(), poolStats.getAvailable(), poolStats.getPending(), poolStats.getMax());
+    }
+
+    @Override
+    public org.apache.http.HttpResponse execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws IOException {
+        Future<org.apache.http.HttpResponse> future = execute(httpUriRequest, httpClientContext, null);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public Future<org.apache.http.HttpResponse> execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, FutureCallback<org.apache.http.HttpResponse> futureCallback) {
+        BasicFuture<org.apache.http.HttpResponse> result = new BasicFuture<>(futureCallback);
+        HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(httpClientContext);
+        /* response is returned off the I/O thread, so reading the body in callback does not block the I/O thread which fills it */
+        StreamingResponseConsumer streamingResponseConsumer = new StreamingResponseConsumer(
+                httpResponse -> entityExecutorService.execute(() -> result.completed(httpResponse)));
+        AsyncRequestProducer asyncRequestProducer = new BasicRequestProducer(httpRequest(httpUriRequest), entityProducer(httpUriRequest));
+        AsyncResponseConsumer<org.apache.http.HttpResponse> asyncResponseConsumer = streamingResponseConsumer;
+        if (Objects.nonNull(httpPhaseTimings)) {
+            asyncRequestProducer = new TimingRequestProducer(asyncRequestProducer, httpPhaseTimings);
+            asyncResponseConsumer = new TimingResponseConsumer<>(asyncResponseConsumer, httpPhaseTimings);
+        }
+        Future<org.apache.http.HttpResponse> future = closeableHttpAsyncClient.execute(asyncRequestProducer, asyncResponseConsumer,
+                null, httpClientContext(httpClientContext), new org.apache.hc.core5.concurrent.FutureCallback<org.apache.http.HttpResponse>() {
+                    @Override
+                    public void completed(org.apache.http.HttpResponse httpResponse) {
+                        /* exchange completes at the end of body, response is already returned by consumer */
+                    }
+
+                    @Override
+                    public void failed(Exception exception) {
+                        result.failed(exception);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel();
+                    }
+                });
+        streamingResponseConsumer.setExchange(future);
+        if (httpUriRequest instanceof HttpRequestBase) {
+            /* abort() of apache 4 request cancels the exchange, body which is read is failed too */
+            ((HttpRequestBase) httpUriRequest).setCancellable(() -> {
+                streamingResponseConsumer.abort();
+                return true;
+            });
+        }
+        return new Future<org.apache.http.HttpResponse>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return future.cancel(mayInterruptIfRunning);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return result.isCancelled();
+            }
+
+            @Override
+            public boolean isDone() {
+                return result.isDone();
+            }
+
+            @Override
+            public org.apache.http.HttpResponse get() throws InterruptedException, ExecutionException {
+                return result.get();
+            }
+
+            @Override
+            public org.apache.http.HttpResponse get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+                return result.get(timeout, unit);
+            }
+        };
+    }
+
+    /**
+     * Copy method, URI and end-to-end headers of apache 4 request.
+     *
+     * @param httpUriRequest the http uri request
+     * @return the http request
+     */
+    private static BasicHttpRequest httpRequest(HttpUriRequest httpUriRequest) {
+        BasicHttpRequest httpRequest = new BasicHttpRequest(httpUriRequest.getMethod(), httpUriRequest.getURI());
+        for (Header header : httpUriRequest.getAllHeaders()) {
+            if (!EXCLUDED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                httpRequest.addHeader(header.getName(), header.getValue());
+            }
+        }
+        return httpRequest;
+    }
+
+    /**
+     * Producer which streams body of apache 4 request.
+     *
+     * @param httpUriRequest the http uri request
+     * @return the entity producer, null when request has no body
+     */
+    private AsyncEntityProducer entityProducer(HttpUriRequest httpUriRequest) {
+        if (!(httpUriRequest instanceof HttpEntityEnclosingRequest)) {
+            return null;
+        }
+        HttpEntity httpEntity = ((HttpEntityEnclosingRequest) httpUriRequest).getEntity();
+        if (Objects.isNull(httpEntity)) {
+            return null;
+        }
+        Header contentType = Objects.nonNull(httpEntity.getContentType()) ? httpEntity.getContentType() : httpUriRequest.getFirstHeader(org.apache.http.HttpHeaders.CONTENT_TYPE);
+        return new EntityProducer(httpEntity, Objects.nonNull(contentType) ? ContentType.parse(contentType.getValue()) : null, entityExecutorService);
+    }
+
+    /**
+     * Per request HttpClient 5 context with credentials and timeouts of apache 4 context.
+     *
+     * @param httpClientContext the apache 4 http client context
+     * @return the HttpClient 5 context
+     */
+    private static org.apache.hc.client5.http.protocol.HttpClientContext httpClientContext(HttpClientContext httpClientContext) {
+        org.apache.hc.client5.http.protocol.HttpClientContext context = org.apache.hc.client5.http.protocol.HttpClientContext.create();
+        CredentialsProvider credentialsProvider = httpClientContext.getCredentialsProvider();
+        Credentials credentials = Objects.nonNull(credentialsProvider) ? credentialsProvider.getCredentials(AuthScope.ANY) : null;
+        if (Objects.nonNull(credentials)) {
+            BasicCredentialsProvider basicCredentialsProvider = new BasicCredentialsProvider();
+            String password = credentials.getPassword();
+            basicCredentialsProvider.setCredentials(new org.apache.hc.client5.http.auth.AuthScope(null, -1),
+                    new org.apache.hc.client5.http.auth.UsernamePasswordCredentials(credentials.getUserPrincipal().getName(),
+                            Objects.nonNull(password) ? password.toCharArray() : new char[0]));
+            context.setCredentialsProvider(basicCredentialsProvider);
+        }
+        context.setRequestConfig(requestConfig(httpClientContext.getRequestConfig()));
+        return context;
+    }
+
+    /**
+     * Copy timeouts of apache 4 request config, negative timeout keeps default of the client.
+     *
+     * @param requestConfig the apache 4 request config
+     * @return the apache 5 request config
+     */
+    @SuppressWarnings("deprecation")
+    private static org.apache.hc.client5.http.config.RequestConfig requestConfig(RequestConfig requestConfig) {
+        org.apache.hc.client5.http.config.RequestConfig.Builder builder = org.apache.hc.client5.http.config.RequestConfig.custom();
+        if (requestConfig.getConnectTimeout() >= 0) {
+            /* per request connect timeout, overrides ConnectionConfig of the pool */
+            builder.setConnectTimeout(Timeout.ofMilliseconds(requestConfig.getConnectTimeout()));
+        }
+        if (requestConfig.getSocketTimeout() >= 0) {
+            builder.setResponseTimeout(Timeout.ofMilliseconds(requestConfig.getSocketTimeout()));
+        }
+        if (requestConfig.getConnectionRequestTimeout() >= 0) {
+            builder.setConnectionRequestTimeout(Timeout.ofMilliseconds(requestConfig.getConnectionRequestTimeout()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Request producer which marks writing request, body is produced after head is sent.
+     */
+    private static class TimingRequestProducer implements AsyncRequestProducer {
+        private final AsyncRequestProducer asyncRequestProducer;
+        private final HttpPhaseTimings httpPhaseTimings;
+
+        TimingRequestProducer(AsyncRequestProducer asyncRequestProducer, HttpPhaseTimings httpPhaseTimings) {
+            this.asyncRequestProducer = asyncRequestProducer;
+            this.httpPhaseTimings = httpPhaseTimings;
+        }
+
+        @Override
+        public void sendRequest(RequestChannel requestChannel, HttpContext httpContext) throws org.apache.hc.core5.http.HttpException, IOException {
+            httpPhaseTimings.markRequestStart();
+            asyncRequestProducer.sendRequest(requestChannel, httpContext);
+            httpPhaseTimings.markRequestEnd();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return asyncRequestProducer.isRepeatable();
+        }
+
+        @Override
+        public void failed(Exception exception) {
+            asyncRequestProducer.failed(exception);
+        }
+
+        @Override
+        public int available() {
+            return asyncRequestProducer.available();
+        }
+
+        @Override
+        public void produce(DataStreamChannel dataStreamChannel) throws IOException {
+            asyncRequestProducer.produce(dataStreamChannel);
+            /* last chunk of body marks the end */
+            httpPhaseTimings.markRequestEnd();
+        }
+
+        @Override
+        public void releaseResources() {
+            asyncRequestProducer.releaseResources();
+        }
+    }
+
+    /**
+     * Response consumer which marks arrival of response head, end of body is marked when response is completed.
+     *
+     * @param <T> the type of result
+     */
+    private static class TimingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+        private final AsyncResponseConsumer<T> asyncResponseConsumer;
+        private final HttpPhaseTimings httpPhaseTimings;
+
+        TimingResponseConsumer(AsyncResponseConsumer<T> asyncResponseConsumer, HttpPhaseTimings httpPhaseTimings) {
+            this.asyncResponseConsumer = asyncResponseConsumer;
+            this.httpPhaseTimings = httpPhaseTimings;
+        }
+
+        @Override
+        public void consumeResponse(org.apache.hc.core5.http.HttpResponse httpResponse, EntityDetails entityDetails, HttpContext httpContext,
+                                    org.apache.hc.core5.concurrent.FutureCallback<T> futureCallback) throws org.apache.hc.core5.http.HttpException, IOException {
+            httpPhaseTimings.markResponseStart();
+            asyncResponseConsumer.consumeResponse(httpResponse, entityDetails, httpContext, futureCallback);
+            if (Objects.isNull(entityDetails)) {
+                httpPhaseTimings.markResponseEnd();
+            }
+        }
+
+        @Override
+        public void informationResponse(org.apache.hc.core5.http.HttpResponse httpResponse, HttpContext httpContext) throws org.apache.hc.core5.http.HttpException, IOException {
+            asyncResponseConsumer.informationResponse(httpResponse, httpContext);
+        }
+
+        @Override
+        public void failed(Exception exception) {
+            asyncResponseConsumer.failed(exception);
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            asyncResponseConsumer.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(ByteBuffer byteBuffer) throws IOException {
+            asyncResponseConsumer.consume(byteBuffer);
+        }
+
+        @Override
+        public void streamEnd(List<? extends org.apache.hc.core5.http.Header> trailers) throws org.apache.hc.core5.http.HttpException, IOException {
+            asyncResponseConsumer.streamEnd(trailers);
+            httpPhaseTimings.markResponseEnd();
+        }
+
+        @Override
+        public void releaseResources() {
+            asyncResponseConsumer.releaseResources();
+        }
+    }
+
+    /**
+     * Entity producer which writes apache 4 entity to shared buffer on executor, length of entity is kept
+     * so body with known length is not sent chunked.
+     */
+    private static class EntityProducer implements AsyncEntityProducer {
+        private final HttpEntity httpEntity;
+        private final AsyncEntityProducer asyncEntityProducer;
+
+        EntityProducer(HttpEntity httpEntity, ContentType contentType, ExecutorService executorService) {
+            this.httpEntity = httpEntity;
+            this.asyncEntityProducer = new AbstractClassicEntityProducer(BUFFER_SIZE, contentType, executorService) {
+                @Override
+                protected void produceData(ContentType contentType, OutputStream outputStream) throws IOException {
+                    httpEntity.writeTo(outputStream);
+                }
+            };
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return asyncEntityProducer.isRepeatable();
+        }
+
+        @Override
+        public void failed(Exception exception) {
+            asyncEntityProducer.failed(exception);
+        }
+
+        @Override
+        public long getContentLength() {
+            return httpEntity.getContentLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return asyncEntityProducer.getContentType();
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return Objects.nonNull(httpEntity.getContentEncoding()) ? httpEntity.getContentEncoding().getValue() : null;
+        }
+
+        @Override
+        public boolean isChunked() {
+            return httpEntity.getContentLength() < 0;
+        }
+
+        @Override
+        public Set<String> getTrailerNames() {
+            return null;
+        }
+
+        @Override
+        public int available() {
+            return asyncEntityProducer.available();
+        }
+
+        @Override
+        public void produce(DataStreamChannel dataStreamChannel) throws IOException {
+            asyncEntityProducer.produce(dataStreamChannel);
+        }
+
+        @Override
+        public void releaseResources() {
+            asyncEntityProducer.releaseResources();
+        }
+    }
+
+    /**
+     * Response consumer which returns apache 4 response once head arrives, body is filled into shared buffer by I/O thread
+     * while caller reads it. Exchange completes at the end of body, closing body before its end cancels the exchange.
+     */
+    private static class StreamingResponseConsumer implements AsyncResponseConsumer<org.apache.http.HttpResponse> {
+        private final SharedInputBuffer sharedInputBuffer = new SharedInputBuffer(BUFFER_SIZE);
+        private final Consumer<org.apache.http.HttpResponse> responseConsumer;
+        private volatile Future<?> exchange;
+        private volatile org.apache.http.HttpResponse httpResponse;
+        private volatile org.apache.hc.core5.concurrent.FutureCallback<org.apache.http.HttpResponse> futureCallback;
+        private volatile Exception exception;
+        private volatile boolean closed;
+
+        StreamingResponseConsumer(Consumer<org.apache.http.HttpResponse> responseConsumer) {
+            this.responseConsumer = responseConsumer;
+        }
+
+        @Override
+        public void consumeResponse(org.apache.hc.core5.http.HttpResponse httpResponse, EntityDetails entityDetails, HttpContext httpContext,
+                                    org.apache.hc.core5.concurrent.FutureCallback<org.apache.http.HttpResponse> futureCallback) {
+            this.httpResponse = apacheHttpResponse(httpResponse, entityDetails);
+            this.futureCallback = futureCallback;
+            responseConsumer.accept(this.httpResponse);
+            if (Objects.isNull(entityDetails)) {
+                futureCallback.completed(this.httpResponse);
+            }
+        }
+
+        @Override
+        public void informationResponse(org.apache.hc.core5.http.HttpResponse httpResponse, HttpContext httpContext) {
+        }
+
+        @Override
+        public void failed(Exception exception) {
+            this.exception = exception;
+            sharedInputBuffer.abort();
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            sharedInputBuffer.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(ByteBuffer byteBuffer) {
+            sharedInputBuffer.fill(byteBuffer);
+        }
+
+        @Override
+        public void streamEnd(List<? extends org.apache.hc.core5.http.Header> trailers) {
+            sharedInputBuffer.markEndStream();
+            futureCallback.completed(httpResponse);
+        }
+
+        @Override
+        public void releaseResources() {
+        }
+
+        /**
+         * @param exchange the future of exchange, cancelled when body is closed before its end
+         */
+        void setExchange(Future<?> exchange) {
+            this.exchange = exchange;
+            if (closed) {
+                exchange.cancel(true);
+            }
+        }
+
+        /**
+         * Abort the exchange, reader of body gets exception instead of rest of body.
+         */
+        void abort() {
+            if (sharedInputBuffer.isEndStream()) {
+                return;
+            }
+            if (Objects.isNull(exception)) {
+                exception = new RequestAbortedException(StringPool.ERROR_RESPONSE_BODY_CLOSED);
+            }
+            closed = true;
+            cancelExchange();
+        }
+
+        /**
+         * Stop reading the body, exchange is cancelled so connection is not kept busy by rest of body.
+         */
+        void close() {
+            if (closed || sharedInputBuffer.isEndStream()) {
+                return;
+            }
+            closed = true;
+            cancelExchange();
+        }
+
+        private void cancelExchange() {
+            sharedInputBuffer.abort();
+            Future<?> currentExchange = exchange;
+            if (Objects.nonNull(currentExchange)) {
+                currentExchange.cancel(true);
+            }
+        }
+
+        /**
+         * Wrap response head as apache 4 response, so {@link com.javaquery.http.HttpResponse} works the same for every transport.
+         *
+         * @param httpResponse  the http response
+         * @param entityDetails the entity details, null when response has no body
+         * @return the http response
+         */
+        private org.apache.http.HttpResponse apacheHttpResponse(org.apache.hc.core5.http.HttpResponse httpResponse, EntityDetails entityDetails) {
+            org.apache.hc.core5.http.ProtocolVersion version = httpResponse.getVersion();
+            ProtocolVersion protocolVersion = Objects.nonNull(version)
+                    ? new ProtocolVersion(version.getProtocol(), version.getMajor(), version.getMinor())
+                    : HttpVersion.HTTP_1_1;
+            StreamingHttpResponse streamingHttpResponse = new StreamingHttpResponse(new BasicStatusLine(protocolVersion, httpResponse.getCode(), httpResponse.getReasonPhrase()), this);
+            for (org.apache.hc.core5.http.Header header : httpResponse.getHeaders()) {
+                streamingHttpResponse.addHeader(header.getName(), header.getValue());
+            }
+            if (Objects.nonNull(entityDetails)) {
+                InputStreamEntity inputStreamEntity = new InputStreamEntity(new BodyInputStream(), entityDetails.getContentLength());
+                inputStreamEntity.setContentType(entityDetails.getContentType());
+                inputStreamEntity.setContentEncoding(entityDetails.getContentEncoding());
+                streamingHttpResponse.setEntity(inputStreamEntity);
+            } else {
+                sharedInputBuffer.markEndStream();
+            }
+            return streamingHttpResponse;
+        }
+
+        /**
+         * Body read from shared buffer, failure of exchange is thrown instead of end of stream.
+         */
+        private class BodyInputStream extends InputStream {
+
+            @Override
+            public int read() throws IOException {
+                int b = sharedInputBuffer.read();
+                return b == -1 ? endOfStream() : b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                int read = sharedInputBuffer.read(bytes, offset, length);
+                return read == -1 ? endOfStream() : read;
+            }
+
+            @Override
+            public int available() {
+                return sharedInputBuffer.length();
+            }
+
+            @Override
+            public void close() {
+                StreamingResponseConsumer.this.close();
+            }
+
+            private int endOfStream() throws IOException {
+                Exception failure = exception;
+                if (Objects.nonNull(failure) && !sharedInputBuffer.isEndStream()) {
+                    throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+                }
+                if (closed) {
+                    throw new RequestAbortedException(StringPool.ERROR_RESPONSE_BODY_CLOSED);
+                }
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Response which closes its body, so connection is released when {@link com.javaquery.http.HttpResponse} is closed.
+     */
+    private static class StreamingHttpResponse extends BasicHttpResponse implements Closeable {
+        private final StreamingResponseConsumer streamingResponseConsumer;
+
+        StreamingHttpResponse(BasicStatusLine statusLine, StreamingResponseConsumer streamingResponseConsumer) {
+            super(statusLine);
+            this.streamingResponseConsumer = streamingResponseConsumer;
+        }
+
+        @Override
+        public void close() {
+            streamingResponseConsumer.close();
+        }
+    }
+
+    /**
+     * Close the connections, I/O reactor and executor of request bodies.
+     */
+    @Override
+    public void close() {
+        closeableHttpAsyncClient.close(CloseMode.GRACEFUL);
+        entityExecutorService.shutdownNow();
+    }
+}
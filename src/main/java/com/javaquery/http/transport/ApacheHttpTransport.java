@@ -0,0 +1,174 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.metrics.ConnectionPoolStatistics;
+import com.javaquery.http.metrics.HttpPhaseTimings;
+import com.javaquery.util.Objects;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * HTTP/1.1 transport, pooled apache http client for blocking requests and apache http async client for non-blocking requests.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    /**
+     * Name of transport in {@link HttpTransportProvider} registry.
+     */
+    public static final String NAME = "apache4";
+
+    private final HttpClientConfig httpClientConfig;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient closeableHttpClient;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile CloseableHttpAsyncClient closeableHttpAsyncClient;
+    private volatile PoolingNHttpClientConnectionManager asyncConnectionManager;
+    private volatile ScheduledFuture<?> asyncConnectionEvictor;
+
+    /**
+     * Instantiates a new Apache http transport.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public ApacheHttpTransport(HttpClientConfig httpClientConfig) {
+        this.httpClientConfig = httpClientConfig;
+        this.connectionManager = new ApachePhaseTimings.TimingConnectionManager(httpClientConfig.getConnectionTimeToLiveInMilliseconds(), TimeUnit.MILLISECONDS);
+        this.connectionManager.setMaxTotal(httpClientConfig.getMaxConnectionsTotal());
+        this.connectionManager.setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+        this.connectionManager.setValidateAfterInactivity(httpClientConfig.getValidateAfterInactivityInMilliseconds());
+        this.closeableHttpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setRequestExecutor(new ApachePhaseTimings.TimingHttpRequestExecutor())
+                .evictExpiredConnections()
+                .evictIdleConnections(httpClientConfig.getMaxIdleTimeInMilliseconds(), TimeUnit.MILLISECONDS)
+                .disableContentCompression()
+                .build();
+    }
+
+    @Override
+    public org.apache.http.HttpResponse execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws IOException {
+        return closeableHttpClient.execute(httpUriRequest, httpClientContext);
+    }
+
+    @Override
+    public Future<?> execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, FutureCallback<org.apache.http.HttpResponse> futureCallback) {
+        HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(httpClientContext);
+        if (Objects.isNull(httpPhaseTimings)) {
+            return closeableHttpAsyncClient().execute(httpUriRequest, httpClientContext, futureCallback);
+        }
+        return closeableHttpAsyncClient().execute(new ApachePhaseTimings.TimingRequestProducer(HttpAsyncMethods.create(httpUriRequest), httpPhaseTimings),
+                new ApachePhaseTimings.TimingResponseConsumer(HttpAsyncMethods.createConsumer(), httpPhaseTimings), httpClientContext, futureCallback);
+    }
+
+    /**
+     * Connections of blocking and async pools together.
+     * @return the connection pool statistics
+     */
+    @Override
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        ConnectionPoolStatistics connectionPoolStatistics = connectionPoolStatistics(connectionManager.getTotalStats());
+        PoolingNHttpClientConnectionManager nHttpClientConnectionManager = asyncConnectionManager;
+        return Objects.nonNull(nHttpClientConnectionManager)
+                ? connectionPoolStatistics.plus(connectionPoolStatistics(nHttpClientConnectionManager.getTotalStats()))
+                : connectionPoolStatistics;
+    }
+
+    /**
+     * Convert apache pool stats.
+     * @param poolStats the pool stats
+     * @return the connection pool statistics
+     */
+    private static ConnectionPoolStatistics connectionPoolStatistics(PoolStats poolStats) {
+        return new ConnectionPoolStatistics(poolStats.getLeased(), poolStats.getAvailable(), poolStats.getPending(), poolStats.getMax());
+    }
+
+    /**
+     * Lazily start the pooled async http client, so blocking only usage does not start I/O reactor threads.
+     * @return the closeable http async client
+     */
+    private CloseableHttpAsyncClient closeableHttpAsyncClient() {
+        if (Objects.isNull(closeableHttpAsyncClient)) {
+            lock.lock();
+            try {
+                if (Objects.isNull(closeableHttpAsyncClient)) {
+                    try {
+                        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(),
+                                null, ioSessionStrategyRegistry(), null, null, httpClientConfig.getConnectionTimeToLiveInMilliseconds(), TimeUnit.MILLISECONDS);
+                        connectionManager.setMaxTotal(httpClientConfig.getMaxConnectionsTotal());
+                        connectionManager.setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+                        CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.custom()
+                                .setConnectionManager(connectionManager)
+                                .build();
+                        httpAsyncClient.start();
+                        asyncConnectionEvictor = httpClientConfig.getRetryScheduler().scheduleWithFixedDelay(() -> {
+                            connectionManager.closeExpiredConnections();
+                            connectionManager.closeIdleConnections(httpClientConfig.getMaxIdleTimeInMilliseconds(), TimeUnit.MILLISECONDS);
+                        }, httpClientConfig.getMaxIdleTimeInMilliseconds());
+                        asyncConnectionManager = connectionManager;
+                        closeableHttpAsyncClient = httpAsyncClient;
+                    } catch (IOReactorException e) {
+                        throw new HttpException(e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return closeableHttpAsyncClient;
+    }
+
+    /**
+     * I/O session strategies of async client for http and https scheme.
+     * @return the registry
+     */
+    private Registry<SchemeIOSessionStrategy> ioSessionStrategyRegistry() {
+        return RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                .build();
+    }
+
+    /**
+     * Close the pooled connections and background connection evictor.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeableHttpClient.close();
+            if (Objects.nonNull(closeableHttpAsyncClient)) {
+                closeableHttpAsyncClient.close();
+            }
+        } finally {
+            if (Objects.nonNull(asyncConnectionEvictor)) {
+                asyncConnectionEvictor.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.metrics.HttpPhaseTimings;
+import com.javaquery.util.Objects;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.ssl.SSLContexts;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mark {@link HttpPhaseTimings} of attempt kept in context while Apache HttpClient 4 sends request.
+ * Blocking client opens connection on request thread with context at hand, so every phase is measured.
+ * Async client reports when request is written and response is received.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+final class ApachePhaseTimings {
+
+    private ApachePhaseTimings() {
+    }
+
+    /**
+     * Socket factories of http and https which mark connect and TLS handshake.
+     *
+     * @return the registry
+     */
+    static Registry<ConnectionSocketFactory> connectionSocketFactoryRegistry() {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new TimingPlainConnectionSocketFactory())
+                .register("https", new TimingSSLConnectionSocketFactory())
+                .build();
+    }
+
+    /**
+     * Pool which marks start of opening new connection, DNS resolution is the first step of it.
+     */
+    static class TimingConnectionManager extends PoolingHttpClientConnectionManager {
+
+        TimingConnectionManager(long timeToLive, TimeUnit timeUnit) {
+            super(connectionSocketFactoryRegistry(), null, null, null, timeToLive, timeUnit);
+        }
+
+        @Override
+        public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+            HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markConnectStart();
+            }
+            super.connect(managedConn, route, connectTimeout, context);
+        }
+    }
+
+    /**
+     * Plain socket factory which marks TCP connect.
+     */
+    static class TimingPlainConnectionSocketFactory extends PlainConnectionSocketFactory {
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markDnsEnd();
+            }
+            Socket connectedSocket = super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markConnectEnd();
+            }
+            return connectedSocket;
+        }
+    }
+
+    /**
+     * TLS socket factory (same as {@link SSLConnectionSocketFactory#getSocketFactory()}) which marks TCP connect and TLS handshake.
+     */
+    static class TimingSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
+
+        TimingSSLConnectionSocketFactory() {
+            super(SSLContexts.createDefault(), getDefaultHostnameVerifier());
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markDnsEnd();
+            }
+            return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markConnectEnd();
+                httpPhaseTimings.markTlsHandshakeStart();
+            }
+            Socket layeredSocket = super.createLayeredSocket(socket, target, port, context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markTlsHandshakeEnd();
+            }
+            return layeredSocket;
+        }
+    }
+
+    /**
+     * Request executor which marks writing request and arrival of response head.
+     */
+    static class TimingHttpRequestExecutor extends HttpRequestExecutor {
+
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context) throws IOException, HttpException {
+            HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markRequestStart();
+            }
+            HttpResponse httpResponse = super.doSendRequest(request, conn, context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markRequestEnd();
+            }
+            return httpResponse;
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context) throws HttpException, IOException {
+            HttpResponse httpResponse = super.doReceiveResponse(request, conn, context);
+            HttpPhaseTimings httpPhaseTimings = HttpPhaseTimings.get(context);
+            if (Objects.nonNull(httpPhaseTimings)) {
+                httpPhaseTimings.markResponseStart();
+            }
+            return httpResponse;
+        }
+    }
+
+    /**
+     * Async request producer which marks writing request, request is generated once connection is ready.
+     */
+    static class TimingRequestProducer implements HttpAsyncRequestProducer {
+        private final HttpAsyncRequestProducer httpAsyncRequestProducer;
+        private final HttpPhaseTimings httpPhaseTimings;
+
+        TimingRequestProducer(HttpAsyncRequestProducer httpAsyncRequestProducer, HttpPhaseTimings httpPhaseTimings) {
+            this.httpAsyncRequestProducer = httpAsyncRequestProducer;
+            this.httpPhaseTimings = httpPhaseTimings;
+        }
+
+        @Override
+        public HttpHost getTarget() {
+            return httpAsyncRequestProducer.getTarget();
+        }
+
+        @Override
+        public HttpRequest generateRequest() throws IOException, HttpException {
+            httpPhaseTimings.markRequestStart();
+            return httpAsyncRequestProducer.generateRequest();
+        }
+
+        @Override
+        public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+            httpAsyncRequestProducer.produceContent(encoder, ioControl);
+        }
+
+        @Override
+        public void requestCompleted(HttpContext context) {
+            httpPhaseTimings.markRequestEnd();
+            httpAsyncRequestProducer.requestCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            httpAsyncRequestProducer.failed(ex);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return httpAsyncRequestProducer.isRepeatable();
+        }
+
+        @Override
+        public void resetRequest() throws IOException {
+            httpAsyncRequestProducer.resetRequest();
+        }
+
+        @Override
+        public void close() throws IOException {
+            httpAsyncRequestProducer.close();
+        }
+    }
+
+    /**
+     * Async response consumer which marks arrival of response head and end of body.
+     */
+    static class TimingResponseConsumer implements HttpAsyncResponseConsumer<HttpResponse> {
+        private final HttpAsyncResponseConsumer<HttpResponse> httpAsyncResponseConsumer;
+        private final HttpPhaseTimings httpPhaseTimings;
+
+        TimingResponseConsumer(HttpAsyncResponseConsumer<HttpResponse> httpAsyncResponseConsumer, HttpPhaseTimings httpPhaseTimings) {
+            this.httpAsyncResponseConsumer = httpAsyncResponseConsumer;
+            this.httpPhaseTimings = httpPhaseTimings;
+        }
+
+        @Override
+        public void responseReceived(HttpResponse response) throws IOException, HttpException {
+            httpPhaseTimings.markResponseStart();
+            httpAsyncResponseConsumer.responseReceived(response);
+        }
+
+        @Override
+        public void consumeContent(ContentDecoder decoder, IOControl ioControl) throws IOException {
+            httpAsyncResponseConsumer.consumeContent(decoder, ioControl);
+        }
+
+        @Override
+        public void responseCompleted(HttpContext context) {
+            httpPhaseTimings.markResponseEnd();
+            httpAsyncResponseConsumer.responseCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            httpAsyncResponseConsumer.failed(ex);
+        }
+
+        @Override
+        public Exception getException() {
+            return httpAsyncResponseConsumer.getException();
+        }
+
+        @Override
+        public HttpResponse getResult() {
+            return httpAsyncResponseConsumer.getResult();
+        }
+
+        @Override
+        public boolean isDone() {
+            return httpAsyncResponseConsumer.isDone();
+        }
+
+        @Override
+        public void close() throws IOException {
+            httpAsyncResponseConsumer.close();
+        }
+
+        @Override
+        public boolean cancel() {
+            return httpAsyncResponseConsumer.cancel();
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.StringPool;
+import com.javaquery.http.exception.HttpException;
+import com.javaquery.http.metrics.ConnectionPoolStatistics;
+import com.javaquery.util.Objects;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.client.methods.AbstractExecutionAwareRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transport which sends one request for concurrent identical GET and HEAD requests (single-flight).
+ * Requests are identical when method, URI, selected headers and credentials are the same.
+ * Body of shared response is buffered once and every waiter receives its own response over the same bytes.
+ * Blocking waiter gives up after socket timeout of its request config or when its request is aborted.
+ * Shared request is not cancelled while any of its waiters is still waiting, asynchronous shared request is cancelled
+ * once all of its waiters are cancelled or gave up. Blocking shared request runs on thread of its first caller and ends with it.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class CoalescingHttpTransport implements HttpTransport {
+
+    private static final String GET = "GET";
+    private static final String HEAD = "HEAD";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final HttpTransport httpTransport;
+    private final List<String> keyHeaders;
+    private final ConcurrentHashMap<String, SharedRequest> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Coalescing http transport.
+     *
+     * @param httpTransport the http transport underneath
+     * @param keyHeaders    the request headers which make requests different, other headers are ignored
+     */
+    public CoalescingHttpTransport(HttpTransport httpTransport, List<String> keyHeaders) {
+        this.httpTransport = httpTransport;
+        this.keyHeaders = keyHeaders;
+    }
+
+    @Override
+    public HttpResponse execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws IOException {
+        if (!isCoalescable(httpUriRequest)) {
+            return httpTransport.execute(httpUriRequest, httpClientContext);
+        }
+        String key = key(httpUriRequest, httpClientContext);
+        SharedRequest newSharedRequest = new SharedRequest();
+        SharedRequest sharedRequest = join(key, newSharedRequest);
+        if (sharedRequest == newSharedRequest) {
+            /* first caller waits for its own call, so blocking shared request always has a waiter till it completes */
+            try {
+                complete(key, sharedRequest, SharedResponse.of(httpTransport.execute(httpUriRequest, httpClientContext)), null);
+            } catch (IOException | RuntimeException e) {
+                complete(key, sharedRequest, null, e);
+                throw e;
+            }
+            return sharedRequest.response.join().newHttpResponse();
+        }
+        CompletableFuture<HttpResponse> waiter = waiter(key, sharedRequest);
+        if (httpUriRequest instanceof AbstractExecutionAwareRequest) {
+            /* abort of request, e.g. on deadline, stops waiting, shared request goes on for its other waiters */
+            ((AbstractExecutionAwareRequest) httpUriRequest).setCancellable(() -> waiter.cancel(false));
+            if (httpUriRequest.isAborted()) {
+                waiter.cancel(false);
+            }
+        }
+        int socketTimeout = httpClientContext.getRequestConfig().getSocketTimeout();
+        try {
+            return socketTimeout > 0 ? waiter.get(socketTimeout, TimeUnit.MILLISECONDS) : waiter.get();
+        } catch (CancellationException e) {
+            throw new RequestAbortedException(StringPool.ERROR_COALESCED_REQUEST_ABORTED);
+        } catch (TimeoutException e) {
+            waiter.cancel(false);
+            throw new SocketTimeoutException(StringPool.ERROR_COALESCED_REQUEST_TIMEOUT + socketTimeout);
+        } catch (InterruptedException e) {
+            waiter.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new HttpException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new HttpException(e);
+        }
+    }
+
+    @Override
+    public Future<?> execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, FutureCallback<HttpResponse> futureCallback) {
+        if (!isCoalescable(httpUriRequest)) {
+            return httpTransport.execute(httpUriRequest, httpClientContext, futureCallback);
+        }
+        String key = key(httpUriRequest, httpClientContext);
+        SharedRequest newSharedRequest = new SharedRequest();
+        SharedRequest sharedRequest = join(key, newSharedRequest);
+        if (sharedRequest == newSharedRequest) {
+            try {
+                sharedRequest.setCall(httpTransport.execute(httpUriRequest, httpClientContext, new FutureCallback<HttpResponse>() {
+                    @Override
+                    public void completed(HttpResponse httpResponse) {
+                        try {
+                            complete(key, sharedRequest, SharedResponse.of(httpResponse), null);
+                        } catch (IOException | RuntimeException e) {
+                            complete(key, sharedRequest, null, e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception exception) {
+                        complete(key, sharedRequest, null, exception);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        complete(key, sharedRequest, null, new CancellationException());
+                    }
+                }));
+            } catch (RuntimeException e) {
+                complete(key, sharedRequest, null, e);
+            }
+        }
+        CompletableFuture<HttpResponse> waiter = waiter(key, sharedRequest);
+        waiter.whenComplete((httpResponse, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                futureCallback.completed(httpResponse);
+            } else if (waiter.isCancelled()) {
+                futureCallback.cancelled();
+            } else {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                if (cause instanceof CancellationException) {
+                    futureCallback.cancelled();
+                } else {
+                    futureCallback.failed(cause instanceof Exception ? (Exception) cause : new HttpException(new ExecutionException(cause)));
+                }
+            }
+        });
+        return waiter;
+    }
+
+    @Override
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return httpTransport.getConnectionPoolStatistics();
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpTransport.close();
+    }
+
+    /**
+     * Join in-flight shared request of key or start new one, shared request which lost all its waiters is not joined.
+     */
+    private SharedRequest join(String key, SharedRequest sharedRequest) {
+        while (true) {
+            SharedRequest existing = inFlight.putIfAbsent(key, sharedRequest);
+            if (Objects.isNull(existing)) {
+                return sharedRequest;
+            }
+            if (existing.join()) {
+                return existing;
+            }
+            inFlight.remove(key, existing);
+        }
+    }
+
+    /**
+     * Response of waiter, waiter leaves shared request once it completes, is cancelled or gives up.
+     */
+    private CompletableFuture<HttpResponse> waiter(String key, SharedRequest sharedRequest) {
+        CompletableFuture<HttpResponse> waiter = sharedRequest.response.thenApply(SharedResponse::newHttpResponse);
+        waiter.whenComplete((httpResponse, throwable) -> {
+            if (sharedRequest.leave()) {
+                complete(key, sharedRequest, null, new CancellationException());
+                sharedRequest.cancel();
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Remove shared request from in-flight requests before waiters are notified, so later request starts new call.
+     */
+    private void complete(String key, SharedRequest sharedRequest, SharedResponse sharedResponse, Exception exception) {
+        inFlight.remove(key, sharedRequest);
+        if (Objects.isNull(exception)) {
+            sharedRequest.response.complete(sharedResponse);
+        } else {
+            sharedRequest.response.completeExceptionally(exception);
+        }
+    }
+
+    private static boolean isCoalescable(HttpUriRequest httpUriRequest) {
+        String method = httpUriRequest.getMethod();
+        return (GET.equals(method) || HEAD.equals(method))
+                && !(httpUriRequest instanceof org.apache.http.HttpEntityEnclosingRequest && Objects.nonNull(((org.apache.http.HttpEntityEnclosingRequest) httpUriRequest).getEntity()));
+    }
+
+    private String key(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) {
+        StringBuilder key = new StringBuilder(httpUriRequest.getMethod()).append(' ').append(httpUriRequest.getURI());
+        for (String keyHeader : keyHeaders) {
+            key.append('\n').append(keyHeader.toLowerCase(Locale.ROOT)).append(':');
+            for (Header header : httpUriRequest.getHeaders(keyHeader)) {
+                key.append(header.getValue()).append(',');
+            }
+        }
+        if (Objects.nonNull(httpClientContext.getCredentialsProvider())) {
+            Credentials credentials = httpClientContext.getCredentialsProvider().getCredentials(AuthScope.ANY);
+            if (Objects.nonNull(credentials)) {
+                /* key lives in memory as long as request is in flight, so it holds digest of credentials instead of password */
+                key.append('\n').append(sha256(credentials.getUserPrincipal().getName() + ':' + credentials.getPassword()));
+            }
+        }
+        return key.toString();
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * Call shared by concurrent identical requests and count of its waiters.
+     */
+    private static final class SharedRequest {
+        private final CompletableFuture<SharedResponse> response = new CompletableFuture<>();
+        /* first caller is counted as it creates the request, request with no waiter left can not be joined */
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile Future<?> call;
+
+        boolean join() {
+            for (int count = waiters.get(); count > 0; count = waiters.get()) {
+                if (waiters.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Leave request.
+         *
+         * @return true when last waiter left before response completed
+         */
+        boolean leave() {
+            return waiters.decrementAndGet() == 0 && !response.isDone();
+        }
+
+        void setCall(Future<?> call) {
+            this.call = call;
+            if (waiters.get() == 0) {
+                call.cancel(true);
+            }
+        }
+
+        void cancel() {
+            Future<?> call = this.call;
+            if (Objects.nonNull(call)) {
+                call.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Status, headers and buffered body of shared response.
+     */
+    private static final class SharedResponse {
+        private final StatusLine statusLine;
+        private final Header[] headers;
+        private final byte[] body;
+        private final Header contentType;
+        private final Header contentEncoding;
+
+        private SharedResponse(StatusLine statusLine, Header[] headers, byte[] body, Header contentType, Header contentEncoding) {
+            this.statusLine = statusLine;
+            this.headers = headers;
+            this.body = body;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+        }
+
+        /**
+         * Buffer body and release connection of response.
+         */
+        static SharedResponse of(HttpResponse httpResponse) throws IOException {
+            try {
+                HttpEntity httpEntity = httpResponse.getEntity();
+                byte[] body = Objects.nonNull(httpEntity) ? EntityUtils.toByteArray(httpEntity) : null;
+                return new SharedResponse(httpResponse.getStatusLine(), httpResponse.getAllHeaders(), body,
+                        Objects.nonNull(httpEntity) ? httpEntity.getContentType() : null,
+                        Objects.nonNull(httpEntity) ? httpEntity.getContentEncoding() : null);
+            } finally {
+                if (httpResponse instanceof Closeable) {
+                    ((Closeable) httpResponse).close();
+                }
+            }
+        }
+
+        HttpResponse newHttpResponse() {
+            BasicHttpResponse httpResponse = new BasicHttpResponse(statusLine);
+            httpResponse.setHeaders(headers);
+            if (Objects.nonNull(body)) {
+                ByteArrayEntity byteArrayEntity = new ByteArrayEntity(body);
+                byteArrayEntity.setContentType(contentType);
+                byteArrayEntity.setContentEncoding(contentEncoding);
+                httpResponse.setEntity(byteArrayEntity);
+            }
+            return httpResponse;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClientConfig;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * HTTP/2 transport on Apache HttpClient 5. Protocol is negotiated using ALPN for https (h2c with prior knowledge for http)
+ * and all requests to the same host are multiplexed as streams over one connection.
+ * Server must support HTTP/2, use {@link Apache5HttpTransport} to fall back to HTTP/1.1.
+ * <p>
+ * Concurrent streams of connection are limited by SETTINGS_MAX_CONCURRENT_STREAMS of the server, pool settings of {@link HttpClientConfig}
+ * (connections per route and total, connection time to live, validate after inactivity) do not apply.
+ * Transport has no connection manager, so {@link #getConnectionPoolStatistics()} returns null.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class Http2Transport extends Apache5HttpTransport {
+
+    /**
+     * Name of transport in {@link HttpTransportProvider} registry.
+     */
+    public static final String NAME = "apache5-h2";
+
+    /**
+     * Instantiates a new Http/2 transport.
+     *
+     * @param httpClientConfig the http client config
+     */
+    public Http2Transport(HttpClientConfig httpClientConfig) {
+        super(HttpAsyncClients.customHttp2()
+                .setTlsStrategy(ClientTlsStrategyBuilder.create().useSystemProperties().build())
+                .setH2Config(H2Config.custom()
+                        .setPushEnabled(false)
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(httpClientConfig.getMaxIdleTimeInMilliseconds()))
+                .disableCookieManagement()
+                .build());
+    }
+}
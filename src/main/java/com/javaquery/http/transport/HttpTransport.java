@@ -0,0 +1,49 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.metrics.ConnectionPoolStatistics;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Future;
+
+/**
+ * Transport sends request built by {@link com.javaquery.http.ApacheHttpRequestBuilder} over the wire.
+ * {@link com.javaquery.http.HttpClient} runs request handlers, response handlers and retries the same way for every transport.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public interface HttpTransport extends Closeable {
+
+    /**
+     * Send request and wait for response.
+     *
+     * @param httpUriRequest    the http uri request
+     * @param httpClientContext the per request context with credentials and cookie store
+     * @return the http response, caller closes it to release the connection
+     * @throws IOException the io exception
+     */
+    org.apache.http.HttpResponse execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws IOException;
+
+    /**
+     * Send request without blocking, callback is called on I/O thread.
+     *
+     * @param httpUriRequest    the http uri request
+     * @param httpClientContext the per request context with credentials and cookie store
+     * @param futureCallback    the future callback
+     * @return the future, cancel it to abort the request
+     */
+    Future<?> execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, FutureCallback<org.apache.http.HttpResponse> futureCallback);
+
+    /**
+     * Gets connections of transport pool.
+     *
+     * @return the connection pool statistics, null when transport has no pool
+     */
+    default ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClientConfig;
+
+/**
+ * Service provider of {@link HttpTransport}, register implementation in
+ * <code>META-INF/services/com.javaquery.http.transport.HttpTransportProvider</code>
+ * and select it using {@link HttpClientConfig#getHttpTransportName()}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public interface HttpTransportProvider {
+
+    /**
+     * Gets name of transport.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Create transport for http client.
+     *
+     * @param httpClientConfig the http client config
+     * @return the http transport
+     */
+    HttpTransport create(HttpClientConfig httpClientConfig);
+}
@@ -0,0 +1,50 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpProtocol;
+import com.javaquery.http.StringPool;
+import com.javaquery.util.Objects;
+
+import java.util.ServiceLoader;
+
+/**
+ * Resolve {@link HttpTransport} of {@link HttpClientConfig}.
+ * Built-in transports are {@link ApacheHttpTransport#NAME}, {@link Apache5HttpTransport#NAME} and {@link Http2Transport#NAME},
+ * other transports are discovered using {@link ServiceLoader}.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public final class HttpTransports {
+
+    private HttpTransports() {
+    }
+
+    /**
+     * Create transport by {@link HttpClientConfig#getHttpTransportName()}, or by {@link HttpClientConfig#getHttpProtocol()} when name is not set.
+     *
+     * @param httpClientConfig the http client config
+     * @return the http transport
+     */
+    public static HttpTransport create(HttpClientConfig httpClientConfig) {
+        String name = httpClientConfig.getHttpTransportName();
+        if (Objects.isNull(name)) {
+            name = httpClientConfig.getHttpProtocol() == HttpProtocol.HTTP_2 ? Http2Transport.NAME : ApacheHttpTransport.NAME;
+        }
+        switch (name) {
+            case ApacheHttpTransport.NAME:
+                return new ApacheHttpTransport(httpClientConfig);
+            case Apache5HttpTransport.NAME:
+                return new Apache5HttpTransport(httpClientConfig);
+            case Http2Transport.NAME:
+                return new Http2Transport(httpClientConfig);
+            default:
+                for (HttpTransportProvider httpTransportProvider : ServiceLoader.load(HttpTransportProvider.class)) {
+                    if (name.equals(httpTransportProvider.getName())) {
+                        return httpTransportProvider.create(httpClientConfig);
+                    }
+                }
+                throw new IllegalArgumentException(StringPool.ERROR_UNKNOWN_TRANSPORT + name);
+        }
+    }
+}
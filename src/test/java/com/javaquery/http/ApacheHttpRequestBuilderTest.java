@@ -0,0 +1,81 @@
+package com.javaquery.http;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class ApacheHttpRequestBuilderTest {
+
+    @Test
+    public void streamBinaryFormValues() throws IOException {
+        Map<String, Object> form = new HashMap<>();
+        form.put("name", new StringBuilder("report"));
+        form.put("buffer", ByteBuffer.wrap("buffer-bytes".getBytes(StandardCharsets.UTF_8)));
+        form.put("stream", new ByteArrayInputStream("stream-bytes".getBytes(StandardCharsets.UTF_8)));
+
+        String body = multipartBody(form);
+        Assertions.assertTrue(body.contains("report"));
+        Assertions.assertTrue(body.contains("buffer-bytes"));
+        Assertions.assertTrue(body.contains("stream-bytes"));
+        Assertions.assertFalse(body.contains("java.nio"));
+        Assertions.assertFalse(body.contains("java.io"));
+    }
+
+    @Test
+    public void rejectUnsupportedFormValue() {
+        Map<String, Object> form = new HashMap<>();
+        form.put("count", 42);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> multipartBody(form));
+    }
+
+    @Test
+    public void pullDirectByteBufferPayload() throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(16);
+        byteBuffer.put("direct-bytes".getBytes(StandardCharsets.UTF_8)).flip();
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("UploadReport", HttpMethod.POST)
+                .withHost("http://localhost")
+                .withEndPoint("/reports")
+                .withHttpPayload(new HttpRequest.HttpPayload("application/octet-stream", byteBuffer))
+                .build();
+        HttpEntity httpEntity = ((HttpPost) new ApacheHttpRequestBuilder(httpRequest).build()).getEntity();
+
+        for (int i = 0; i < 2; i++) {
+            try (InputStream inputStream = httpEntity.getContent()) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                byte[] bytes = new byte[5];
+                int read;
+                while ((read = inputStream.read(bytes)) != -1) {
+                    outputStream.write(bytes, 0, read);
+                }
+                Assertions.assertEquals("direct-bytes", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+        Assertions.assertEquals(12, byteBuffer.remaining());
+    }
+
+    private static String multipartBody(Map<String, Object> form) throws IOException {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("UploadReport", HttpMethod.POST)
+                .withHost("http://localhost")
+                .withEndPoint("/reports")
+                .withHttpPayload(new HttpRequest.HttpPayload(StandardCharsets.UTF_8.name(), StringPool.MULTIPART_FORM_DATA, form))
+                .build();
+        HttpEntity httpEntity = ((HttpPost) new ApacheHttpRequestBuilder(httpRequest).build()).getEntity();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        httpEntity.writeTo(outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
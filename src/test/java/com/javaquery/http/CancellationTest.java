@@ -0,0 +1,45 @@
+package com.javaquery.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class CancellationTest {
+
+    @Test
+    public void abortCurrentAttemptOnly() {
+        List<String> aborted = new CopyOnWriteArrayList<>();
+        Cancellation cancellation = new Cancellation();
+        for (int i = 0; i < 1000; i++) {
+            String attempt = "attempt-" + i;
+            Runnable abort = () -> aborted.add(attempt);
+            cancellation.setAbort(abort);
+            cancellation.clearAbort(abort);
+        }
+        Runnable abort = () -> aborted.add("last");
+        cancellation.setAbort(abort);
+        /* finished attempt does not release abort of newer attempt */
+        cancellation.clearAbort(() -> aborted.add("finished"));
+
+        cancellation.cancel();
+        cancellation.cancel();
+        Assertions.assertTrue(cancellation.isCancelled());
+        Assertions.assertEquals(1, aborted.size());
+        Assertions.assertEquals("last", aborted.get(0));
+    }
+
+    @Test
+    public void abortAtOnceWhenAlreadyCancelled() {
+        List<String> aborted = new CopyOnWriteArrayList<>();
+        Cancellation cancellation = new Cancellation();
+        cancellation.cancel();
+        cancellation.setAbort(() -> aborted.add("attempt"));
+        Assertions.assertEquals(1, aborted.size());
+    }
+}
@@ -0,0 +1,347 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.metrics.DefaultHttpClientMetrics;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.http.transport.StubHttpTransport;
+import com.javaquery.http.transport.StubHttpTransportProvider;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.AbstractExecutionAwareRequest;
+import org.apache.http.entity.InputStreamEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpClientTest {
+
+    @Test
+    public void reusePooledConnection() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/orders", httpExchange -> {
+            clientPorts.add(httpExchange.getRemoteAddress().getPort());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            httpExchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        httpServer.start();
+        try {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetOrders", HttpMethod.GET)
+                    .withHost("http://localhost:" + httpServer.getAddress().getPort())
+                    .withEndPoint("/orders")
+                    .build();
+            HttpClient httpClient = new HttpClient();
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals("{}", httpClient.execute(new HttpExecutionContext(), httpRequest, bodyHttpResponseHandler()));
+            }
+            Assertions.assertEquals(1, clientPorts.size());
+
+            httpClient.close();
+            AtomicReference<Exception> error = new AtomicReference<>();
+            Assertions.assertNull(httpClient.execute(httpExecutionContext(new ArrayList<>(), error), httpRequest, null));
+            Assertions.assertNotNull(error.get());
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    public void closeTransportWithClient() {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(200, "{}"));
+        HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("{}", httpClient.execute(new HttpExecutionContext(), getOrders().build(), bodyHttpResponseHandler()));
+        }
+        Assertions.assertEquals(3, stubHttpTransport.getExecutions());
+        Assertions.assertFalse(stubHttpTransport.isClosed());
+        httpClient.close();
+        Assertions.assertTrue(stubHttpTransport.isClosed());
+    }
+
+    @Test
+    public void readReturnedResponseAfterConnectionReleased() throws Exception {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            StubHttpTransport.StubHttpResponse httpResponse = StubHttpTransport.response(200, null);
+            /* like body of pooled connection, body can not be read once response is closed */
+            httpResponse.setEntity(new InputStreamEntity(new FilterInputStream(new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8))) {
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    if (httpResponse.isClosed()) {
+                        throw new IOException("response closed");
+                    }
+                    return super.read(bytes, offset, length);
+                }
+            }));
+            return httpResponse;
+        });
+        HttpResponseHandler<HttpResponse> httpResponseHandler = new HttpResponseHandler<HttpResponse>() {
+            @Override
+            public HttpResponse onResponse(HttpResponse httpResponse) {
+                return httpResponse;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+            }
+        };
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            Assertions.assertEquals("{}", httpClient.execute(new HttpExecutionContext(), getOrders().build(), httpResponseHandler).getBody());
+            Assertions.assertEquals("{}", httpClient.executeAsync(new HttpExecutionContext(), getOrders().build(), httpResponseHandler)
+                    .get(5, TimeUnit.SECONDS).getBody());
+        }
+    }
+
+    @Test
+    public void executeAsyncWithoutBlockingCaller() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "{\"id\":42}");
+        });
+        List<String> events = new CopyOnWriteArrayList<>();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            CompletableFuture<String> future = httpClient.executeAsync(httpExecutionContext(events, new AtomicReference<>()), getOrders().build(), bodyHttpResponseHandler());
+            Assertions.assertFalse(future.isDone());
+            Assertions.assertEquals(Collections.singletonList("beforeRequest"), events);
+
+            respond.countDown();
+            Assertions.assertEquals("{\"id\":42}", future.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(Arrays.asList("beforeRequest", "afterResponse"), events);
+        }
+    }
+
+    @Test
+    public void retryAsyncRequestOnTimer() throws Exception {
+        AtomicInteger statusCode = new AtomicInteger(503);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(statusCode.getAndSet(200), "{}"));
+        HttpRequest httpRequest = getOrders()
+                .withRetryPolicy(new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retriesAttempted) -> 50, 2))
+                .build();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            long start = System.currentTimeMillis();
+            CompletableFuture<String> future = httpClient.executeAsync(new HttpExecutionContext(), httpRequest, bodyHttpResponseHandler());
+            Assertions.assertEquals("{}", future.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(System.currentTimeMillis() - start >= 50);
+            Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        }
+    }
+
+    @Test
+    public void retryAsyncRequestOffTimerThread() throws Exception {
+        List<String> threadNames = new CopyOnWriteArrayList<>();
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(503, "{}"));
+        HttpRequest httpRequest = getOrders()
+                .withRetryPolicy(new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retriesAttempted) -> 10, 2))
+                .build();
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+        httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+            @Override
+            public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+                threadNames.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void afterResponse(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+            }
+
+            @Override
+            public void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+            }
+        });
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            httpClient.executeAsync(httpExecutionContext, httpRequest, bodyHttpResponseHandler()).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(3, threadNames.size());
+            /* handlers of retries must not run on timer thread shared by every client */
+            threadNames.forEach(threadName -> Assertions.assertFalse(threadName.startsWith("javaquery-http-retry-scheduler"), threadName));
+        }
+    }
+
+    @Test
+    public void cancelAsyncRequestInFlightAndInBackoff() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        StubHttpTransport blockingHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return StubHttpTransport.response(200, "{}");
+        });
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(blockingHttpTransport, HttpClientConfig.builder())) {
+            CompletableFuture<String> future = httpClient.executeAsync(new HttpExecutionContext(), getOrders().build(), bodyHttpResponseHandler());
+            while (blockingHttpTransport.getExecutions() == 0) {
+                Thread.sleep(10);
+            }
+            future.cancel(false);
+            Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+
+        StubHttpTransport failingHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(503, "{}"));
+        HttpRequest httpRequest = getOrders()
+                .withRetryPolicy(new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retriesAttempted) -> 200, 5))
+                .build();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(failingHttpTransport, HttpClientConfig.builder())) {
+            CompletableFuture<String> future = httpClient.executeAsync(new HttpExecutionContext(), httpRequest, bodyHttpResponseHandler());
+            while (failingHttpTransport.getExecutions() == 0) {
+                Thread.sleep(10);
+            }
+            future.cancel(false);
+            Thread.sleep(400);
+            Assertions.assertEquals(1, failingHttpTransport.getExecutions());
+        }
+    }
+
+    @Test
+    public void recordCancelledAsyncRequest() throws Exception {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            new CountDownLatch(1).await();
+            return StubHttpTransport.response(200, "{}");
+        });
+        DefaultHttpClientMetrics defaultHttpClientMetrics = new DefaultHttpClientMetrics();
+        List<String> events = new CopyOnWriteArrayList<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder().httpClientMetrics(defaultHttpClientMetrics))) {
+            CompletableFuture<String> future = httpClient.executeAsync(httpExecutionContext(events, error), getOrders().build(), bodyHttpResponseHandler());
+            while (stubHttpTransport.getExecutions() == 0) {
+                Thread.sleep(10);
+            }
+            future.cancel(false);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (defaultHttpClientMetrics.get("GetOrders").getRequests() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(1, defaultHttpClientMetrics.get("GetOrders").getRequests());
+            Assertions.assertEquals(1, defaultHttpClientMetrics.get("GetOrders").getFailures());
+            Assertions.assertEquals(Arrays.asList("beforeRequest", "onError"), events);
+            Assertions.assertTrue(error.get() instanceof CancellationException);
+        }
+    }
+
+    @Test
+    public void rejectPayloadWriterOnAsyncExecution() {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(200, "{}"));
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("CreateOrder", HttpMethod.POST)
+                .withHost("http://localhost")
+                .withEndPoint("/orders")
+                .withHttpPayload(new HttpRequest.HttpPayload("application/json", outputStream -> outputStream.write("{}".getBytes(StandardCharsets.UTF_8))))
+                .build();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            CompletableFuture<String> future = httpClient.executeAsync(new HttpExecutionContext(), httpRequest, bodyHttpResponseHandler());
+            ExecutionException executionException = Assertions.assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(executionException.getCause() instanceof IllegalArgumentException);
+            Assertions.assertEquals(0, stubHttpTransport.getExecutions());
+        }
+    }
+
+    @Test
+    public void abortRemainingRequestsWhenResponseHandlerFails() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            if (httpUriRequest.getURI().getPath().endsWith("/slow")) {
+                Thread thread = Thread.currentThread();
+                ((AbstractExecutionAwareRequest) httpUriRequest).setCancellable(() -> {
+                    thread.interrupt();
+                    return true;
+                });
+                slowStarted.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    aborted.countDown();
+                    throw e;
+                }
+            }
+            /* fail only once slow request is in flight */
+            slowStarted.await(5, TimeUnit.SECONDS);
+            return StubHttpTransport.response(200, "failed");
+        });
+        HttpResponseHandler<String> httpResponseHandler = new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                throw new IllegalStateException(httpResponse.getBody());
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+            }
+        };
+        List<HttpRequest> httpRequests = Arrays.asList(getOrders().build(), getOrders().withEndPoint("/orders/slow").build());
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            IllegalStateException illegalStateException = Assertions.assertThrows(IllegalStateException.class,
+                    () -> httpClient.executeAll(new HttpExecutionContext(), httpRequests, httpResponseHandler));
+            Assertions.assertEquals("failed", illegalStateException.getMessage());
+            Assertions.assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static HttpRequest.HttpRequestBuilder getOrders() {
+        return new HttpRequest.HttpRequestBuilder("GetOrders", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/orders");
+    }
+
+    private static HttpExecutionContext httpExecutionContext(List<String> events, AtomicReference<Exception> error) {
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+        httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+            @Override
+            public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+                events.add("beforeRequest");
+            }
+
+            @Override
+            public void afterResponse(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+                events.add("afterResponse");
+            }
+
+            @Override
+            public void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                events.add("onError");
+                error.set(exception);
+            }
+        });
+        return httpExecutionContext;
+    }
+
+    static HttpResponseHandler<String> bodyHttpResponseHandler() {
+        return new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                return httpResponse.getBody();
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+            }
+        };
+    }
+}
@@ -2,12 +2,23 @@ package com.javaquery.http;
 
 import com.javaquery.http.handler.HttpRequestHandler;
 import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.transport.StubHttpTransport;
+import com.javaquery.http.transport.StubHttpTransportProvider;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author javaquery
@@ -147,6 +158,158 @@ public class HttpGetRequestTest {
         });
     }
 
+    @Test
+    public void performHttp2GetRequest(){
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                .withHost("https://httpbin.org")
+                .withEndPoint("/get")
+                .withQueryParameter("utm_source", "javaquery")
+                .build();
+
+        HttpClient httpClient = new HttpClient(HttpClientConfig.builder().httpProtocol(HttpProtocol.HTTP_2).build());
+        httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                Assertions.assertEquals(200, httpResponse.getStatusCode());
+                Assertions.assertEquals("javaquery", httpResponse.getJSONObjectBody().optJSONObject("args").optString("utm_source"));
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        });
+        httpClient.close();
+    }
+
+    @Test
+    public void performCompressedGetRequest(){
+        HttpClient httpClient = new HttpClient();
+        for (String endPoint : Arrays.asList("/gzip", "/deflate", "/brotli")) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                    .withHost("https://httpbin.org")
+                    .withEndPoint(endPoint)
+                    .build();
+
+            httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Object>() {
+                @Override
+                public Object onResponse(HttpResponse httpResponse) {
+                    Assertions.assertEquals(200, httpResponse.getStatusCode());
+                    Assertions.assertNotNull(httpResponse.getJSONObjectBody());
+                    return null;
+                }
+
+                @Override
+                public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+                }
+            });
+        }
+        Assertions.assertTrue(httpClient.getCompressionStatistics().getCompressedBytesReceived() > 0);
+        Assertions.assertTrue(httpClient.getCompressionStatistics().getDecompressedBytesReceived() > httpClient.getCompressionStatistics().getCompressedBytesReceived());
+        httpClient.close();
+    }
+
+    @Test
+    public void performExecuteAll(){
+        List<HttpRequest> httpRequests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            httpRequests.add(new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                    .withHost("https://httpbin.org")
+                    .withEndPoint("/get")
+                    .withQueryParameter("index", String.valueOf(i))
+                    .build());
+        }
+
+        HttpClient httpClient = new HttpClient();
+        List<String> indexes = httpClient.executeAll(new HttpExecutionContext(), httpRequests, new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                Assertions.assertEquals(200, httpResponse.getStatusCode());
+                return httpResponse.getJSONObjectBody().optJSONObject("args").optString("index");
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        });
+        Assertions.assertEquals(Arrays.asList("0", "1", "2", "3", "4"), indexes);
+        httpClient.close();
+    }
+
+    @Test
+    public void performCoalescedGetRequest() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "{\"uuid\":\"" + UUID.randomUUID() + "\"}");
+        });
+        HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder().requestCoalescing(true));
+
+        /* async request joins in-flight request before executeAsync returns, so all requests are waiting before response is released */
+        List<CompletableFuture<String>> uuids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                    .withHost("https://httpbin.org")
+                    .withEndPoint("/uuid")
+                    .build();
+            uuids.add(httpClient.executeAsync(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<String>() {
+                @Override
+                public String onResponse(HttpResponse httpResponse) {
+                    Assertions.assertEquals(200, httpResponse.getStatusCode());
+                    return httpResponse.getJSONObjectBody().optString("uuid");
+                }
+
+                @Override
+                public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+                }
+            }));
+        }
+        respond.countDown();
+
+        Set<String> distinctUuids = new HashSet<>();
+        for (CompletableFuture<String> uuid : uuids) {
+            distinctUuids.add(uuid.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, distinctUuids.size());
+        Assertions.assertEquals(1, stubHttpTransport.getExecutions());
+        httpClient.close();
+    }
+
+    @Test
+    public void performBatchGetRequest(){
+        List<HttpRequest> httpRequests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            httpRequests.add(new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                    .withHost("https://httpbin.org")
+                    .withEndPoint(i == 2 ? "/status/500" : "/get")
+                    .withQueryParameter("index", String.valueOf(i))
+                    .build());
+        }
+
+        HttpClient httpClient = new HttpClient();
+        HttpBatchResult<String> httpBatchResult = httpClient.executeBatch(new HttpExecutionContext(), httpRequests, new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                if (httpResponse.getStatusCode() != 200) {
+                    throw new IllegalStateException("status " + httpResponse.getStatusCode());
+                }
+                return httpResponse.getJSONObjectBody().optJSONObject("args").optString("index");
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        }, 2);
+        Assertions.assertEquals(Arrays.asList("0", "1", null, "3", "4"), httpBatchResult.getResults());
+        Assertions.assertTrue(httpBatchResult.getErrors().containsKey(2));
+        httpClient.close();
+    }
+
     private HttpRequestHandler headerHttpRequestHandler(){
         return new HttpRequestHandler() {
             @Override
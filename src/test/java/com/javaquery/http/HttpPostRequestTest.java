@@ -10,6 +10,8 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -154,6 +156,71 @@ public class HttpPostRequestTest {
         });
     }
 
+    @Test
+    public void performFormPostRequestWithFormParts(){
+        Map<String, Object> form = new HashMap<>();
+        form.put("form-key", "form-value");
+        form.put("bytes", new HttpRequest.HttpFormPart("text/plain", "bytes.txt", "Hello Bytes!".getBytes(StandardCharsets.UTF_8)));
+        form.put("stream", new HttpRequest.HttpFormPart("text/plain", "stream.txt",
+                () -> new ByteArrayInputStream("Hello Stream!".getBytes(StandardCharsets.UTF_8)), 13));
+
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("PostRequest", HttpMethod.POST)
+                .withHost("https://httpbin.org")
+                .withEndPoint("/post")
+                .withHttpPayload(new HttpRequest.HttpPayload(StringPool.UTF8, StringPool.MULTIPART_FORM_DATA, form))
+                .build();
+
+        HttpClient httpClient = new HttpClient();
+        httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                Assertions.assertEquals(200, httpResponse.getStatusCode());
+
+                JSONObject jsonObject = httpResponse.getJSONObjectBody();
+                Assertions.assertNotNull(jsonObject);
+                Assertions.assertTrue(jsonObject.optJSONObject("headers").has("Content-Length"));
+                Assertions.assertEquals("form-value", jsonObject.optJSONObject("form").optString("form-key"));
+
+                JSONObject files = jsonObject.optJSONObject("files");
+                Assertions.assertEquals("Hello Bytes!", files.optString("bytes"));
+                Assertions.assertEquals("Hello Stream!", files.optString("stream"));
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        });
+    }
+
+    @Test
+    public void performStreamingPostRequest(){
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("PostRequest", HttpMethod.POST)
+                .withHost("https://httpbin.org")
+                .withEndPoint("/post")
+                .withHttpPayload(new HttpRequest.HttpPayload("application/json", outputStream -> outputStream.write(SAMPLE_POST_PAYLOAD.getBytes(StandardCharsets.UTF_8))))
+                .build();
+
+        HttpClient httpClient = new HttpClient();
+        httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                Assertions.assertEquals(200, httpResponse.getStatusCode());
+
+                JSONObject jsonObject = httpResponse.getJSONObjectBody();
+                Assertions.assertNotNull(jsonObject);
+                Assertions.assertEquals(SAMPLE_POST_PAYLOAD, jsonObject.optString("data"));
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        });
+    }
+
     @Test
     public void performPostRequestWithoutPayload(){
         HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("PostRequest", HttpMethod.POST)
@@ -0,0 +1,64 @@
+package com.javaquery.http;
+
+import com.javaquery.http.handler.HttpResponseHandler;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpRequestTemplateTest {
+
+    private static final HttpRequestTemplate ANYTHING_TEMPLATE = new HttpRequestTemplate.HttpRequestTemplateBuilder("AnythingRequest", HttpMethod.GET)
+            .withHost("https://httpbin.org")
+            .withEndPoint("/anything/{resource}/{id}")
+            .withHeader("echo", "echo")
+            .withQueryParameter("utm_source", "javaquery")
+            .build();
+
+    @Test
+    public void bindPathVariables() {
+        Map<String, String> pathVariables = new HashMap<>(2);
+        pathVariables.put("resource", "orders");
+        pathVariables.put("id", "a b/c");
+
+        HttpRequest httpRequest = ANYTHING_TEMPLATE.newHttpRequest(pathVariables, Collections.singletonMap("page", "1"), null);
+        Assertions.assertEquals("https://httpbin.org/anything/orders/a%20b%2Fc?utm_source=javaquery&page=1", httpRequest.httpRequestURI().toString());
+
+        httpRequest.withHeader("dummy", "dummy");
+        Assertions.assertEquals(2, httpRequest.getHeaders().size());
+        Assertions.assertEquals(1, ANYTHING_TEMPLATE.getHeaders().size());
+
+        Assertions.assertThrows(IllegalArgumentException.class, ANYTHING_TEMPLATE::newHttpRequest);
+    }
+
+    @Test
+    public void performTemplateRequest() {
+        Map<String, String> pathVariables = new HashMap<>(2);
+        pathVariables.put("resource", "orders");
+        pathVariables.put("id", "42");
+
+        HttpClient httpClient = new HttpClient();
+        httpClient.execute(new HttpExecutionContext(), ANYTHING_TEMPLATE.newHttpRequest(pathVariables), new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                Assertions.assertEquals(200, httpResponse.getStatusCode());
+                JSONObject jsonObject = httpResponse.getJSONObjectBody();
+                Assertions.assertEquals("https://httpbin.org/anything/orders/42?utm_source=javaquery", jsonObject.optString("url"));
+                Assertions.assertEquals("echo", jsonObject.optJSONObject("headers").optString("Echo"));
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.javaquery.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpRequestTest {
+
+    @Test
+    public void rebuildURIAfterQueryParameterChanges() {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetOrders", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withPort(8080)
+                .withEndPoint("/orders")
+                .withQueryParameter("page", "1")
+                .build();
+        URI httpRequestURI = httpRequest.httpRequestURI();
+        Assertions.assertEquals("http://localhost:8080/orders?page=1", httpRequestURI.toString());
+        Assertions.assertSame(httpRequestURI, httpRequest.httpRequestURI());
+
+        HttpRequest copy = httpRequest.copy();
+        Assertions.assertSame(httpRequestURI, copy.httpRequestURI());
+        copy.withQueryParameter("size", "a b");
+        Assertions.assertEquals("http://localhost:8080/orders?page=1&size=a+b", copy.httpRequestURI().toString());
+        Assertions.assertSame(httpRequestURI, httpRequest.httpRequestURI());
+
+        httpRequest.withQueryParameter(Collections.singletonMap("page", "2"));
+        Assertions.assertEquals("http://localhost:8080/orders?page=2", httpRequest.httpRequestURI().toString());
+    }
+
+    @Test
+    public void recompileBaseURIAfterBuilderChanges() {
+        HttpRequest.HttpRequestBuilder httpRequestBuilder = new HttpRequest.HttpRequestBuilder("GetOrders", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/orders");
+        Assertions.assertEquals("http://localhost/orders", httpRequestBuilder.build().httpRequestURI().toString());
+
+        httpRequestBuilder.withEndPoint("/invoices");
+        Assertions.assertEquals("http://localhost/invoices", httpRequestBuilder.build().httpRequestURI().toString());
+        httpRequestBuilder.withPort(8443);
+        Assertions.assertEquals("http://localhost:8443/invoices", httpRequestBuilder.build().httpRequestURI().toString());
+        httpRequestBuilder.withHost("https://example.com");
+        Assertions.assertEquals("https://example.com:8443/invoices", httpRequestBuilder.build().httpRequestURI().toString());
+    }
+
+    @Test
+    public void copyRequestWhileCallerChangesHeaders() throws Exception {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetOrder", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/orders")
+                .withHeader("Accept", "application/json")
+                .build();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+        for (int i = 0; i < futures.length; i++) {
+            String attempt = String.valueOf(i);
+            futures[i] = CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    HttpRequest copy = httpRequest.copy();
+                    Map<String, String> headers = copy.getHeaders();
+                    int size = headers.size();
+                    copy.withHeader("X-Attempt", attempt);
+                    Assertions.assertEquals(size, headers.size());
+                    Assertions.assertEquals("application/json", copy.getHeaders().get("Accept"));
+                    Assertions.assertEquals(attempt, copy.getHeaders().get("X-Attempt"));
+                }
+            }, executorService);
+        }
+        for (int i = 0; i < 500; i++) {
+            httpRequest.withHeader("X-Caller-" + i, String.valueOf(i));
+        }
+        CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        Assertions.assertEquals(501, httpRequest.getHeaders().size());
+        Assertions.assertFalse(httpRequest.getHeaders().containsKey("X-Attempt"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> httpRequest.getHeaders().put("X-Attempt", "0"));
+    }
+}
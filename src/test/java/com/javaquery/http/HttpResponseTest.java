@@ -0,0 +1,128 @@
+package com.javaquery.http;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpResponseTest {
+
+    private static final String BOM = "\uFEFF";
+
+    @Test
+    public void decodeBodyThenReadIt() {
+        HttpResponse httpResponse = httpResponse("{\"id\":42}");
+        Assertions.assertEquals(42, httpResponse.getBody(Map.class).get("id"));
+        Assertions.assertEquals("{\"id\":42}", httpResponse.getBody());
+        Assertions.assertEquals(42, httpResponse.getJSONObjectBody().getInt("id"));
+        Assertions.assertEquals(9, httpResponse.getBodyBytes().length);
+    }
+
+    @Test
+    public void readBodyThenDecodeIt() {
+        HttpResponse httpResponse = httpResponse("[{\"id\":1},{\"id\":2}]");
+        Assertions.assertEquals(2, httpResponse.getJSONArrayBody().length());
+        Iterator<Order> iterator = httpResponse.getBodyIterator(Order.class);
+        Assertions.assertEquals(1, iterator.next().id);
+        Assertions.assertEquals(2, iterator.next().id);
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertEquals(1, httpResponse.getStreamingBodyIterator(Order.class).next().id);
+    }
+
+    @Test
+    public void streamBodyOnlyOnce() {
+        HttpResponse httpResponse = httpResponse("{\"id\":42}");
+        Assertions.assertEquals(42, httpResponse.getStreamingBody(Map.class).get("id"));
+        Assertions.assertThrows(IllegalStateException.class, httpResponse::getBody);
+        Assertions.assertThrows(IllegalStateException.class, httpResponse::getBodyBytes);
+        Assertions.assertThrows(IllegalStateException.class, () -> httpResponse.getBody(Map.class));
+        Assertions.assertThrows(IllegalStateException.class, httpResponse::getBodyInputStream);
+    }
+
+    @Test
+    public void skipByteOrderMarkOfTextOnly() throws IOException {
+        HttpResponse httpResponse = httpResponse(BOM + "{\"id\":42}");
+        Assertions.assertEquals("{\"id\":42}", httpResponse.getBody());
+        Assertions.assertEquals(42, httpResponse.getBody(Map.class).get("id"));
+        Assertions.assertEquals(12, httpResponse.getBodyBytes().length);
+        Assertions.assertEquals(0xEF, httpResponse.getBodyInputStream().read());
+
+        HttpResponse binaryHttpResponse = httpResponse(BOM + "binary");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Assertions.assertEquals(9, binaryHttpResponse.transferTo(outputStream));
+        Assertions.assertArrayEquals((BOM + "binary").getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+
+        Assertions.assertEquals(42, httpResponse(BOM + "{\"id\":42}").getStreamingBody(Map.class).get("id"));
+    }
+
+    @Test
+    public void readBodyFromManyThreads() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 200; i++) {
+                HttpResponse httpResponse = httpResponse("{\"id\":" + i + "}");
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Object>> futures = new ArrayList<>();
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return httpResponse.getBody();
+                }));
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return httpResponse.getBody(Map.class).get("id").toString();
+                }));
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return httpResponse.getBodyBytes();
+                }));
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return httpResponse.getBodyBytes();
+                }));
+                start.countDown();
+
+                Assertions.assertEquals("{\"id\":" + i + "}", futures.get(0).get(5, TimeUnit.SECONDS));
+                Assertions.assertEquals(String.valueOf(i), futures.get(1).get(5, TimeUnit.SECONDS));
+                Assertions.assertSame(futures.get(2).get(5, TimeUnit.SECONDS), futures.get(3).get(5, TimeUnit.SECONDS));
+                Assertions.assertSame(httpResponse.getBodyBytes(), futures.get(2).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static HttpResponse httpResponse(String body) {
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        /* stream can be read once like body of connection */
+        basicHttpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream(bytes), bytes.length, ContentType.APPLICATION_JSON));
+        return new HttpResponse(basicHttpResponse);
+    }
+
+    /**
+     * Element of array body.
+     */
+    public static class Order {
+        public int id;
+    }
+}
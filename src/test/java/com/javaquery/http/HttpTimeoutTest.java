@@ -0,0 +1,137 @@
+package com.javaquery.http;
+
+import com.javaquery.http.exception.DeadlineExceededException;
+import com.javaquery.http.handler.HttpRequestHandler;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.http.transport.StubHttpTransport;
+import com.javaquery.http.transport.StubHttpTransportProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpTimeoutTest {
+
+    @Test
+    public void requestTimeoutWithDefaults() {
+        HttpTimeout httpTimeout = HttpTimeout.builder()
+                .socketTimeoutInMilliseconds(500)
+                .totalTimeoutInMilliseconds(2000L)
+                .build()
+                .withDefaults(HttpTimeout.defaultConfig());
+
+        Assertions.assertEquals(10 * 1000, httpTimeout.getConnectTimeoutInMilliseconds());
+        Assertions.assertEquals(500, httpTimeout.getSocketTimeoutInMilliseconds());
+        Assertions.assertEquals(10 * 1000, httpTimeout.getConnectionRequestTimeoutInMilliseconds());
+        Assertions.assertEquals(2000L, httpTimeout.getTotalTimeoutInMilliseconds());
+        Assertions.assertNull(HttpTimeout.defaultConfig().getTotalTimeoutInMilliseconds());
+    }
+
+    @Test
+    public void performGetRequestPastDeadline() throws Exception {
+        /* server accepts connection but never responds */
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("DeadlineRequest", HttpMethod.GET)
+                    .withHost("http://localhost:" + serverSocket.getLocalPort())
+                    .withEndPoint("/get")
+                    .withHttpTimeout(HttpTimeout.builder().totalTimeoutInMilliseconds(300L).build())
+                    .build();
+
+            List<Exception> errors = new CopyOnWriteArrayList<>();
+            long start = System.currentTimeMillis();
+            try (HttpClient httpClient = new HttpClient()) {
+                Object result = httpClient.execute(httpExecutionContext(errors), httpRequest, null);
+                Assertions.assertNull(result);
+            }
+            Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+            Assertions.assertEquals(1, errors.size());
+            Assertions.assertTrue(errors.get(0) instanceof DeadlineExceededException);
+        }
+    }
+
+    @Test
+    public void stopRetryWhenDeadlineExpiresDuringBackoff() {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(503, "{}"));
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        List<Integer> statusCodes = new CopyOnWriteArrayList<>();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            long start = System.currentTimeMillis();
+            httpClient.execute(httpExecutionContext(errors), retriedHttpRequest(), statusCodeHttpResponseHandler(statusCodes));
+            Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+        }
+        Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertTrue(errors.get(0) instanceof DeadlineExceededException);
+        Assertions.assertEquals(Collections.singletonList(503), statusCodes);
+    }
+
+    @Test
+    public void stopAsyncRetryWhenDeadlineExpiresDuringBackoff() throws Exception {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(503, "{}"));
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        List<Integer> statusCodes = new CopyOnWriteArrayList<>();
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder())) {
+            httpClient.executeAsync(httpExecutionContext(errors), retriedHttpRequest(), statusCodeHttpResponseHandler(statusCodes)).get(5, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertTrue(errors.get(0) instanceof DeadlineExceededException);
+        Assertions.assertEquals(Collections.singletonList(503), statusCodes);
+    }
+
+    /**
+     * First retry starts within total timeout, second retry would start after it.
+     */
+    private static HttpRequest retriedHttpRequest() {
+        return new HttpRequest.HttpRequestBuilder("DeadlineRequest", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/get")
+                .withRetryPolicy(new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retriesAttempted) -> retriesAttempted == 0 ? 50 : 10_000, 3))
+                .withHttpTimeout(HttpTimeout.builder().totalTimeoutInMilliseconds(500L).build())
+                .build();
+    }
+
+    private static HttpExecutionContext httpExecutionContext(List<Exception> errors) {
+        HttpExecutionContext httpExecutionContext = new HttpExecutionContext();
+        httpExecutionContext.addHttpRequestHandler(new HttpRequestHandler() {
+            @Override
+            public void beforeRequest(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest) {
+            }
+
+            @Override
+            public void afterResponse(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, HttpResponse httpResponse) {
+            }
+
+            @Override
+            public void onError(HttpExecutionContext httpExecutionContext, HttpRequest httpRequest, Exception exception) {
+                errors.add(exception);
+            }
+        });
+        return httpExecutionContext;
+    }
+
+    private static HttpResponseHandler<Object> statusCodeHttpResponseHandler(List<Integer> statusCodes) {
+        return new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                statusCodes.add(httpResponse.getStatusCode());
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+            }
+        };
+    }
+}
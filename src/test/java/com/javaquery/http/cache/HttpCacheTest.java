@@ -0,0 +1,130 @@
+package com.javaquery.http.cache;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.transport.StubHttpTransport;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpCacheTest {
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        MemoryHttpCacheStorage memoryHttpCacheStorage = new MemoryHttpCacheStorage(3 * 1024);
+        memoryHttpCacheStorage.put("a", entry(1000));
+        memoryHttpCacheStorage.put("b", entry(1000));
+        memoryHttpCacheStorage.get("a");
+        memoryHttpCacheStorage.put("c", entry(1000));
+
+        Assertions.assertNotNull(memoryHttpCacheStorage.get("a"));
+        Assertions.assertNull(memoryHttpCacheStorage.get("b"));
+        Assertions.assertNotNull(memoryHttpCacheStorage.get("c"));
+        Assertions.assertTrue(memoryHttpCacheStorage.getSizeInBytes() <= 3 * 1024);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedFile(@TempDir Path directory) {
+        FileHttpCacheStorage fileHttpCacheStorage = new FileHttpCacheStorage(directory, 2500);
+        fileHttpCacheStorage.put("a", entry(1000));
+        fileHttpCacheStorage.put("b", entry(1000));
+        fileHttpCacheStorage.get("a");
+        fileHttpCacheStorage.put("c", entry(1000));
+
+        Assertions.assertNotNull(fileHttpCacheStorage.get("a"));
+        Assertions.assertNull(fileHttpCacheStorage.get("b"));
+        Assertions.assertNotNull(fileHttpCacheStorage.get("c"));
+        Assertions.assertTrue(fileHttpCacheStorage.getSizeInBytes() <= 2500);
+
+        fileHttpCacheStorage.put("d", entry(3000));
+        Assertions.assertNull(fileHttpCacheStorage.get("d"));
+        Assertions.assertEquals(fileHttpCacheStorage.getSizeInBytes(), new FileHttpCacheStorage(directory, 2500).getSizeInBytes());
+    }
+
+    @Test
+    public void doNotServeCachedResponseToOtherCaller() throws IOException {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            Header authorization = httpUriRequest.getFirstHeader(HttpHeaders.AUTHORIZATION);
+            Credentials credentials = httpClientContext.getCredentialsProvider().getCredentials(AuthScope.ANY);
+            String caller = authorization != null ? authorization.getValue() : credentials.getUserPrincipal().getName();
+            return StubHttpTransport.response(200, caller, HttpHeaders.CACHE_CONTROL, "max-age=60");
+        });
+        CachingHttpTransport cachingHttpTransport = new CachingHttpTransport(stubHttpTransport, HttpCacheConfig.defaultConfig(), new HttpCacheStatistics());
+
+        Assertions.assertEquals("Bearer a", body(cachingHttpTransport, "Bearer a", null));
+        Assertions.assertEquals("Bearer a", body(cachingHttpTransport, "Bearer a", null));
+        Assertions.assertEquals(1, stubHttpTransport.getExecutions());
+        Assertions.assertEquals("Bearer b", body(cachingHttpTransport, "Bearer b", null));
+        Assertions.assertEquals("alice", body(cachingHttpTransport, null, "alice"));
+        Assertions.assertEquals("bob", body(cachingHttpTransport, null, "bob"));
+        Assertions.assertEquals(4, stubHttpTransport.getExecutions());
+    }
+
+    @Test
+    public void performCachedGetRequest() {
+        HttpClient httpClient = new HttpClient(HttpClientConfig.builder().httpCacheConfig(HttpCacheConfig.defaultConfig()).build());
+        for (String endPoint : new String[]{"/cache/60", "/cache/60", "/etag/javaquery", "/etag/javaquery"}) {
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                    .withHost("https://httpbin.org")
+                    .withEndPoint(endPoint)
+                    .build();
+            httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Object>() {
+                @Override
+                public Object onResponse(HttpResponse httpResponse) {
+                    Assertions.assertEquals(200, httpResponse.getStatusCode());
+                    Assertions.assertNotNull(httpResponse.getJSONObjectBody());
+                    return null;
+                }
+
+                @Override
+                public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+                }
+            });
+        }
+        Assertions.assertEquals(1, httpClient.getHttpCacheStatistics().getHits());
+        Assertions.assertEquals(1, httpClient.getHttpCacheStatistics().getRevalidations());
+        httpClient.close();
+    }
+
+    private static String body(CachingHttpTransport cachingHttpTransport, String authorization, String username) throws IOException {
+        HttpGet httpGet = new HttpGet("https://httpbin.org/get");
+        if (authorization != null) {
+            httpGet.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        if (username != null) {
+            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, "secret"));
+        }
+        HttpClientContext httpClientContext = HttpClientContext.create();
+        httpClientContext.setCredentialsProvider(credentialsProvider);
+        return EntityUtils.toString(cachingHttpTransport.execute(httpGet, httpClientContext).getEntity());
+    }
+
+    private static HttpCacheEntry entry(int bodySize) {
+        long now = System.currentTimeMillis();
+        return new HttpCacheEntry(200, "OK", new Header[0], Collections.emptyMap(), new byte[bodySize], now, now);
+    }
+}
@@ -0,0 +1,103 @@
+package com.javaquery.http.circuitbreaker;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.retry.DefaultRetryCondition;
+import com.javaquery.http.retry.RetryPolicy;
+import com.javaquery.http.transport.StubHttpTransport;
+import com.javaquery.http.transport.StubHttpTransportProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void openAndCloseCircuit() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("https://httpbin.org", CircuitBreakerConfig.builder()
+                .minimumNumberOfCalls(4)
+                .openStateInMilliseconds(100)
+                .permittedCallsInHalfOpenState(2)
+                .build());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+            if (i % 2 == 0) {
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure();
+            }
+        }
+        Assertions.assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+
+        Thread.sleep(150);
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        Assertions.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void releasePermitOfCancelledTrial() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("https://httpbin.org", CircuitBreakerConfig.builder()
+                .minimumNumberOfCalls(2)
+                .openStateInMilliseconds(100)
+                .permittedCallsInHalfOpenState(1)
+                .build());
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+        }
+        Thread.sleep(150);
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+
+        /* cancelled trial gives its permit back to next request */
+        circuitBreaker.releasePermission();
+        Assertions.assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        Assertions.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void performGetRequestOnOpenCircuit() {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(503, "{}"));
+        HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, HttpClientConfig.builder()
+                .circuitBreakerConfig(CircuitBreakerConfig.builder().minimumNumberOfCalls(3).build()));
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                .withHost("http://localhost")
+                .withEndPoint("/status/503")
+                .withRetryPolicy(new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retriesAttempted) -> 10L, 5))
+                .build();
+        httpClient.execute(new HttpExecutionContext(), httpRequest, new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                /* circuit opened after third attempt, remaining retries fail fast without response */
+                Assertions.assertNull(httpResponse);
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+
+            }
+        });
+        Assertions.assertEquals(3, stubHttpTransport.getExecutions());
+        Assertions.assertEquals(CircuitBreakerState.OPEN, httpClient.getCircuitBreakerRegistry().get(URI.create("http://localhost/get")).getState());
+        httpClient.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.javaquery.http.hedge;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HedgePolicyTest {
+
+    @Test
+    public void percentileOfLatency() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram(60 * 1000);
+        Assertions.assertEquals(-1, latencyHistogram.percentile(50));
+        for (int latency = 1; latency <= 1000; latency++) {
+            latencyHistogram.record(latency);
+        }
+        Assertions.assertEquals(1000, latencyHistogram.getCount());
+        long p50 = latencyHistogram.percentile(50);
+        long p99 = latencyHistogram.percentile(99);
+        Assertions.assertTrue(p50 >= 500 && p50 <= 500 * 1.125, String.valueOf(p50));
+        Assertions.assertTrue(p99 >= 990 && p99 <= 990 * 1.125, String.valueOf(p99));
+    }
+
+    @Test
+    public void hedgeDelayAtPercentileOfObservedLatency() {
+        HedgePolicy hedgePolicy = new HedgePolicy(50, 90, 1);
+        Assertions.assertEquals(50, hedgePolicy.hedgeDelay());
+        for (int i = 0; i < 100; i++) {
+            hedgePolicy.recordLatency(i < 90 ? 200 : 5000);
+        }
+        long hedgeDelay = hedgePolicy.hedgeDelay();
+        Assertions.assertTrue(hedgeDelay >= 200 && hedgeDelay < 5000, String.valueOf(hedgeDelay));
+    }
+}
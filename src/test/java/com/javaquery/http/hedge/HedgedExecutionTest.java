@@ -0,0 +1,137 @@
+package com.javaquery.http.hedge;
+
+import com.javaquery.http.HttpExecutors;
+import com.javaquery.http.retry.RetryBudget;
+import com.javaquery.http.retry.RetryBudgetConfig;
+import com.javaquery.http.retry.RetryScheduler;
+import com.javaquery.http.transport.StubHttpTransport;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HedgedExecutionTest {
+
+    private final RetryScheduler retryScheduler = new RetryScheduler(1);
+    private final ExecutorService executorService = HttpExecutors.newCachedThreadPool();
+
+    @AfterEach
+    public void close() {
+        retryScheduler.close();
+        executorService.shutdown();
+    }
+
+    @Test
+    public void firstResponseWinsAndLoserIsClosed() throws Exception {
+        CountDownLatch hedgeCompleted = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        AtomicReference<StubHttpTransport.StubHttpResponse> loser = new AtomicReference<>();
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            if (requests.incrementAndGet() == 1) {
+                /* slow original ignores cancellation and completes after the hedge */
+                awaitUninterruptibly(hedgeCompleted);
+                loser.set(StubHttpTransport.response(200, "original"));
+                return loser.get();
+            }
+            return StubHttpTransport.response(200, "hedge");
+        });
+
+        CompletableFuture<HttpResponse> result = execute(stubHttpTransport, new RetryBudget(null, RetryBudgetConfig.defaultConfig()));
+        HttpResponse httpResponse = result.get(5, TimeUnit.SECONDS);
+        hedgeCompleted.countDown();
+
+        Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        Assertions.assertEquals("hedge", EntityUtils.toString(httpResponse.getEntity()));
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((loser.get() == null || !loser.get().isClosed()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(loser.get().isClosed());
+        stubHttpTransport.close();
+    }
+
+    @Test
+    public void recordLatencyOfExchangeWhenHedgeWins() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            if (requests.incrementAndGet() % 2 == 1) {
+                /* original is cancelled once hedge wins */
+                Thread.sleep(1000);
+            }
+            return StubHttpTransport.response(200, "hedge");
+        });
+        HedgePolicy hedgePolicy = new HedgePolicy(20, 50, 1);
+        RetryBudget hedgeBudget = new RetryBudget(null, RetryBudgetConfig.builder().maxRetries(100).retryPercentage(100).build());
+        for (int i = 0; i < 20; i++) {
+            HedgedExecution.execute(stubHttpTransport, retryScheduler, executorService, hedgeBudget, hedgePolicy,
+                    () -> new HttpGet("http://localhost/orders/42"), HttpClientContext::create).get(5, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(40, stubHttpTransport.getExecutions());
+        Assertions.assertTrue(hedgePolicy.hedgeDelay() >= 20, String.valueOf(hedgePolicy.hedgeDelay()));
+        stubHttpTransport.close();
+    }
+
+    @Test
+    public void doNotHedgeWhenBudgetIsEmpty() throws Exception {
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            Thread.sleep(200);
+            return StubHttpTransport.response(200, "original");
+        });
+        RetryBudget hedgeBudget = new RetryBudget(null, RetryBudgetConfig.builder().maxRetries(0).retryPercentage(0).build());
+
+        Assertions.assertNotNull(execute(stubHttpTransport, hedgeBudget).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, stubHttpTransport.getExecutions());
+        Assertions.assertEquals(1, hedgeBudget.getDeniedRetries());
+        stubHttpTransport.close();
+    }
+
+    @Test
+    public void failWhenEveryRequestFails() {
+        AtomicInteger requests = new AtomicInteger();
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            if (requests.incrementAndGet() == 1) {
+                Thread.sleep(200);
+            }
+            throw new IOException("request " + requests.get());
+        });
+
+        CompletableFuture<HttpResponse> result = execute(stubHttpTransport, new RetryBudget(null, RetryBudgetConfig.defaultConfig()));
+        ExecutionException executionException = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(executionException.getCause() instanceof IOException);
+        Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        stubHttpTransport.close();
+    }
+
+    private CompletableFuture<HttpResponse> execute(StubHttpTransport stubHttpTransport, RetryBudget hedgeBudget) {
+        return HedgedExecution.execute(stubHttpTransport, retryScheduler, executorService, hedgeBudget, new HedgePolicy(20, 1),
+                () -> new HttpGet("http://localhost/orders/42"), HttpClientContext::create);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch countDownLatch) {
+        while (true) {
+            try {
+                countDownLatch.await();
+                return;
+            } catch (InterruptedException e) {
+                /* keep waiting like request which ignores cancellation */
+            }
+        }
+    }
+}
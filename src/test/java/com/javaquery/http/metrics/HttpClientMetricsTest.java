@@ -0,0 +1,90 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpClientMetricsTest {
+
+    @Test
+    public void recordRequestMetrics() {
+        DefaultHttpClientMetrics httpClientMetrics = new DefaultHttpClientMetrics();
+        httpClientMetrics.bindConnectionPool(() -> new ConnectionPoolStatistics(2, 3, 1, 20));
+
+        httpClientMetrics.recordRequest(httpRequestResponse(200));
+        httpClientMetrics.recordRequest(httpRequestResponse(200));
+        httpClientMetrics.recordRequest(httpRequestResponse(503));
+        httpClientMetrics.recordRequest(httpRequestResponse(0));
+        httpClientMetrics.recordRetry("GetOrder");
+        httpClientMetrics.recordBytesSent("GetOrder", 10);
+        httpClientMetrics.recordBytesReceived("GetOrder", 100);
+        httpClientMetrics.recordBytesReceived(null, 5);
+
+        RequestMetrics requestMetrics = httpClientMetrics.get("GetOrder");
+        Assertions.assertEquals(4, requestMetrics.getRequests());
+        Assertions.assertEquals(1, requestMetrics.getFailures());
+        Assertions.assertEquals(2L, requestMetrics.getStatusCodes().get(200));
+        Assertions.assertEquals(1L, requestMetrics.getStatusCodes().get(503));
+        Assertions.assertEquals(1, requestMetrics.getRetries());
+        Assertions.assertEquals(10, requestMetrics.getBytesSent());
+        Assertions.assertEquals(100, requestMetrics.getBytesReceived());
+        Assertions.assertTrue(requestMetrics.getLatencyPercentile(99) >= 0);
+        Assertions.assertEquals(5, httpClientMetrics.get(HttpClientMetrics.UNNAMED_REQUEST).getBytesReceived());
+        Assertions.assertEquals(2, httpClientMetrics.getConnectionPoolStatistics().getLeased());
+    }
+
+    @Test
+    public void countBytesOfBody() throws IOException {
+        AtomicLong bytes = new AtomicLong();
+        MeteredHttpEntity meteredHttpEntity = new MeteredHttpEntity(new ByteArrayEntity(new byte[1000]), bytes::addAndGet);
+        Assertions.assertEquals(1000, EntityUtils.toByteArray(meteredHttpEntity).length);
+        Assertions.assertEquals(1000, bytes.get());
+
+        meteredHttpEntity.writeTo(new ByteArrayOutputStream());
+        Assertions.assertEquals(2000, bytes.get());
+    }
+
+    @Test
+    public void publishToMicrometer() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MicrometerHttpClientMetrics httpClientMetrics = new MicrometerHttpClientMetrics(meterRegistry);
+        httpClientMetrics.bindConnectionPool(() -> new ConnectionPoolStatistics(2, 3, 1, 20));
+
+        httpClientMetrics.recordRequest(httpRequestResponse(200));
+        httpClientMetrics.recordRequest(httpRequestResponse(0));
+        httpClientMetrics.recordBytesReceived("GetOrder", 100);
+
+        Assertions.assertEquals(1, meterRegistry.get("httpclient.requests").tag("status", "200").tag("outcome", "SUCCESS").timer().count());
+        Assertions.assertEquals(1, meterRegistry.get("httpclient.requests").tag("status", "IO_ERROR").timer().count());
+        Assertions.assertEquals(100, meterRegistry.get("httpclient.bytes.received").tag("name", "GetOrder").counter().count());
+        Assertions.assertEquals(2, meterRegistry.get("httpclient.connections.leased").gauge().value());
+    }
+
+    private HttpRequestResponse httpRequestResponse(int statusCode) {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(new HttpRequest.HttpRequestBuilder("GetOrder", HttpMethod.GET)
+                .withHost("https://httpbin.org")
+                .withEndPoint("/get")
+                .build());
+        if (statusCode > 0) {
+            httpRequestResponse.setHttpResponse(new HttpResponse(new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null)));
+        }
+        httpRequestResponse.setExecutionEndTime();
+        return httpRequestResponse;
+    }
+}
@@ -0,0 +1,74 @@
+package com.javaquery.http.metrics;
+
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.StringPool;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpPhaseTimingsTest {
+
+    @Test
+    public void measurePhasesOfNewConnection() {
+        HttpPhaseTimings httpPhaseTimings = new HttpPhaseTimings();
+        httpPhaseTimings.markConnectStart();
+        httpPhaseTimings.markDnsEnd();
+        httpPhaseTimings.markConnectEnd();
+        httpPhaseTimings.markTlsHandshakeStart();
+        httpPhaseTimings.markTlsHandshakeEnd();
+        httpPhaseTimings.markRequestStart();
+        httpPhaseTimings.markRequestEnd();
+        httpPhaseTimings.markResponseStart();
+        httpPhaseTimings.markResponseEnd();
+
+        Assertions.assertTrue(httpPhaseTimings.getPoolWaitInNanos() >= 0);
+        Assertions.assertTrue(httpPhaseTimings.getDnsInNanos() >= 0);
+        Assertions.assertTrue(httpPhaseTimings.getConnectInNanos() >= 0);
+        Assertions.assertTrue(httpPhaseTimings.getTlsHandshakeInNanos() >= 0);
+        Assertions.assertTrue(httpPhaseTimings.getRequestWriteInNanos() >= 0);
+        Assertions.assertTrue(httpPhaseTimings.getTimeToFirstByteInNanos() >= 0);
+        Assertions.assertTrue(httpPhaseTimings.getBodyReadInNanos() >= 0);
+        Assertions.assertEquals(7, httpPhaseTimings.toMap().size());
+    }
+
+    @Test
+    public void skipPhasesOfReusedConnection() {
+        HttpPhaseTimings httpPhaseTimings = new HttpPhaseTimings();
+        httpPhaseTimings.markRequestStart();
+        httpPhaseTimings.markRequestEnd();
+        httpPhaseTimings.markResponseStart();
+
+        Assertions.assertEquals(-1, httpPhaseTimings.getDnsInNanos());
+        Assertions.assertEquals(-1, httpPhaseTimings.getConnectInNanos());
+        Assertions.assertEquals(-1, httpPhaseTimings.getTlsHandshakeInNanos());
+        Assertions.assertEquals(-1, httpPhaseTimings.getBodyReadInNanos());
+        Assertions.assertArrayEquals(new String[]{"poolWaitNs", "requestWriteNs", "timeToFirstByteNs"}, httpPhaseTimings.toMap().keySet().toArray());
+    }
+
+    @Test
+    public void addPhaseTimingsToAttributes() {
+        HttpClientContext httpClientContext = HttpClientContext.create();
+        Assertions.assertNull(HttpPhaseTimings.get(httpClientContext));
+        httpClientContext.setAttribute(HttpPhaseTimings.CONTEXT_ATTRIBUTE, new HttpPhaseTimings());
+
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(new HttpRequest.HttpRequestBuilder("GetOrder", HttpMethod.GET)
+                .withHost("https://httpbin.org")
+                .withEndPoint("/get")
+                .build());
+        httpRequestResponse.setHttpPhaseTimings(HttpPhaseTimings.get(httpClientContext));
+        Assertions.assertFalse(httpRequestResponse.getAttributes().containsKey(StringPool.PHASE_TIMINGS));
+
+        httpRequestResponse.getHttpPhaseTimings().markRequestStart();
+        httpRequestResponse.getHttpPhaseTimings().markRequestEnd();
+        Map<?, ?> phaseTimings = (Map<?, ?>) httpRequestResponse.getAttributes().get(StringPool.PHASE_TIMINGS);
+        Assertions.assertTrue(phaseTimings.containsKey("requestWriteNs"));
+    }
+}
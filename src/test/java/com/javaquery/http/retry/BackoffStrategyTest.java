@@ -0,0 +1,66 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpRequestResponse;
+import com.javaquery.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class BackoffStrategyTest {
+
+    @Test
+    public void jitterWithinCap() {
+        FullJitterBackoffStrategy fullJitterBackoffStrategy = new FullJitterBackoffStrategy(100, 1000, 0);
+        DecorrelatedJitterBackoffStrategy decorrelatedJitterBackoffStrategy = new DecorrelatedJitterBackoffStrategy(100, 1000, 0);
+        HttpRequestResponse httpRequestResponse = httpRequestResponse(null);
+        for (int retriesAttempted = 0; retriesAttempted < 100; retriesAttempted++) {
+            long fullJitter = fullJitterBackoffStrategy.delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
+            Assertions.assertTrue(fullJitter >= 0 && fullJitter <= Math.min(1000, 100L << Math.min(retriesAttempted, 10)));
+
+            long decorrelatedJitter = decorrelatedJitterBackoffStrategy.delayBeforeNextRetry(httpRequestResponse, retriesAttempted);
+            Assertions.assertTrue(decorrelatedJitter >= 100 && decorrelatedJitter <= Math.min(1000, Math.max(100, httpRequestResponse.getPreviousRetryDelay()) * 3));
+            httpRequestResponse.setRetryDelay(decorrelatedJitter);
+            httpRequestResponse = httpRequestResponse.newRetryAttempt(httpRequestResponse.getHttpRequest());
+        }
+    }
+
+    @Test
+    public void stopRetryAfterDeadline() {
+        HttpRequestResponse httpRequestResponse = httpRequestResponse(null);
+        httpRequestResponse.setFirstExecutionStartTime(System.currentTimeMillis() - 5000);
+        Assertions.assertEquals(RetryPolicy.BackoffStrategy.STOP_RETRY,
+                new FullJitterBackoffStrategy(100, 1000, 5000).delayBeforeNextRetry(httpRequestResponse, 0));
+    }
+
+    @Test
+    public void honorRetryAfter() {
+        RetryAfterBackoffStrategy retryAfterBackoffStrategy = new RetryAfterBackoffStrategy((httpRequestResponse, retriesAttempted) -> 10L, 60 * 1000, 0);
+        Assertions.assertEquals(10, retryAfterBackoffStrategy.delayBeforeNextRetry(httpRequestResponse(null), 0));
+        Assertions.assertEquals(2000, retryAfterBackoffStrategy.delayBeforeNextRetry(httpRequestResponse("2"), 0));
+        Assertions.assertEquals(RetryPolicy.BackoffStrategy.STOP_RETRY, retryAfterBackoffStrategy.delayBeforeNextRetry(httpRequestResponse("3600"), 0));
+
+        long delay = retryAfterBackoffStrategy.delayBeforeNextRetry(httpRequestResponse(org.apache.http.client.utils.DateUtils.formatDate(
+                new java.util.Date(System.currentTimeMillis() + 30 * 1000))), 0);
+        Assertions.assertTrue(delay > 28 * 1000 && delay <= 30 * 1000);
+    }
+
+    private HttpRequestResponse httpRequestResponse(String retryAfter) {
+        HttpRequestResponse httpRequestResponse = new HttpRequestResponse(new HttpRequest.HttpRequestBuilder("GetRequest", HttpMethod.GET)
+                .withHost("https://httpbin.org")
+                .withEndPoint("/status/503")
+                .build());
+        BasicHttpResponse basicHttpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 503, "Service Unavailable");
+        if (retryAfter != null) {
+            basicHttpResponse.addHeader("Retry-After", retryAfter);
+        }
+        httpRequestResponse.setHttpResponse(new HttpResponse(basicHttpResponse));
+        return httpRequestResponse;
+    }
+}
@@ -0,0 +1,104 @@
+package com.javaquery.http.retry;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.javaquery.http.transport.StubHttpTransport;
+import com.javaquery.http.transport.StubHttpTransportProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class RetryBudgetTest {
+
+    @Test
+    public void denyRetriesOverBudget() {
+        RetryBudget retryBudget = new RetryBudget(null, RetryBudgetConfig.builder().maxRetries(2).retryPercentage(50).build());
+        Assertions.assertTrue(retryBudget.tryAcquireRetry());
+        Assertions.assertTrue(retryBudget.tryAcquireRetry());
+        Assertions.assertFalse(retryBudget.tryAcquireRetry());
+
+        retryBudget.onSuccess();
+        retryBudget.onSuccess();
+        Assertions.assertTrue(retryBudget.tryAcquireRetry());
+        Assertions.assertFalse(retryBudget.tryAcquireRetry());
+        Assertions.assertEquals(3, retryBudget.getPermittedRetries());
+        Assertions.assertEquals(2, retryBudget.getDeniedRetries());
+    }
+
+    @Test
+    public void shareBudgetBetweenThreads() {
+        RetryBudgetRegistry retryBudgetRegistry = new RetryBudgetRegistry(RetryBudgetConfig.builder().maxRetries(1000).perHost(true).build());
+        RetryBudget retryBudget = retryBudgetRegistry.get(URI.create("https://httpbin.org/get"));
+        Assertions.assertSame(retryBudget, retryBudgetRegistry.get(URI.create("https://httpbin.org/post")));
+        Assertions.assertNotSame(retryBudget, retryBudgetRegistry.get(URI.create("http://httpbin.org/get")));
+
+        AtomicInteger permittedRetries = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[8];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (retryBudget.tryAcquireRetry()) {
+                        permittedRetries.incrementAndGet();
+                    }
+                }
+            });
+        }
+        CompletableFuture.allOf(futures).join();
+        Assertions.assertEquals(1000, permittedRetries.get());
+        Assertions.assertEquals(3000, retryBudgetRegistry.getDeniedRetries());
+    }
+
+    @Test
+    public void depositOnlyOnSuccessfulAttempt() {
+        AtomicInteger statusCode = new AtomicInteger(503);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> StubHttpTransport.response(statusCode.get(), "{}"));
+        HttpClientConfig.HttpClientConfigBuilder httpClientConfigBuilder = HttpClientConfig.builder()
+                .retryBudgetConfig(RetryBudgetConfig.builder().maxRetries(1).retryPercentage(100).build());
+        try (HttpClient httpClient = StubHttpTransportProvider.httpClient(stubHttpTransport, httpClientConfigBuilder)) {
+            RetryBudget retryBudget = httpClient.getRetryBudgetRegistry().get(URI.create("http://localhost/orders"));
+            HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("GetOrders", HttpMethod.GET)
+                    .withHost("http://localhost")
+                    .withEndPoint("/orders")
+                    .withRetryPolicy(new RetryPolicy(new DefaultRetryCondition(), (httpRequestResponse, retriesAttempted) -> 0, 3))
+                    .build();
+
+            /* one retry of budget is spent, failed attempts which are not retried anymore do not refill it */
+            for (int i = 0; i < 3; i++) {
+                httpClient.execute(new HttpExecutionContext(), httpRequest, httpResponseHandler());
+            }
+            Assertions.assertEquals(4, stubHttpTransport.getExecutions());
+            Assertions.assertEquals(1, retryBudget.getPermittedRetries());
+            Assertions.assertFalse(retryBudget.tryAcquireRetry());
+
+            statusCode.set(200);
+            httpClient.execute(new HttpExecutionContext(), httpRequest, httpResponseHandler());
+            Assertions.assertTrue(retryBudget.tryAcquireRetry());
+        }
+        stubHttpTransport.close();
+    }
+
+    private static HttpResponseHandler<Object> httpResponseHandler() {
+        return new HttpResponseHandler<Object>() {
+            @Override
+            public Object onResponse(HttpResponse httpResponse) {
+                return null;
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+            }
+        };
+    }
+}
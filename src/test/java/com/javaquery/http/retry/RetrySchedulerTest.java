@@ -0,0 +1,36 @@
+package com.javaquery.http.retry;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class RetrySchedulerTest {
+
+    @Test
+    public void completeAfterDelay() throws Exception {
+        long start = System.nanoTime();
+        RetryScheduler.shared().delay(100).get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+    }
+
+    @Test
+    public void completeImmediatelyWithoutDelay() {
+        Assertions.assertTrue(RetryScheduler.shared().delay(0).isDone());
+    }
+
+    @Test
+    public void cancelBackoff() throws Exception {
+        try (RetryScheduler retryScheduler = new RetryScheduler(1)) {
+            CompletableFuture<Void> backoff = retryScheduler.delay(60 * 1000);
+            CompletableFuture<Void> retry = backoff.thenRun(() -> Assertions.fail("retry must not run after cancel"));
+            backoff.cancel(false);
+            Assertions.assertTrue(retry.isCompletedExceptionally());
+        }
+    }
+}
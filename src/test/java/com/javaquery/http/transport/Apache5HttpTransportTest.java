@@ -0,0 +1,129 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpExecutionContext;
+import com.javaquery.http.HttpMethod;
+import com.javaquery.http.HttpRequest;
+import com.javaquery.http.HttpResponse;
+import com.javaquery.http.handler.HttpResponseHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class Apache5HttpTransportTest {
+
+    private static final int CHUNK = 64 * 1024;
+
+    private final CountDownLatch requestChunkReceived = new CountDownLatch(1);
+    private final CountDownLatch responseChunkRead = new CountDownLatch(1);
+    private HttpServer httpServer;
+
+    @BeforeEach
+    public void start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/upload", httpExchange -> {
+            InputStream inputStream = httpExchange.getRequestBody();
+            long received = 0;
+            byte[] bytes = new byte[8192];
+            while (received < CHUNK) {
+                received += inputStream.read(bytes);
+            }
+            requestChunkReceived.countDown();
+            received += drain(inputStream);
+
+            /* zero length sends chunked response, rest of body is sent only after client read the first chunk */
+            httpExchange.sendResponseHeaders(200, 0);
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                outputStream.write(new byte[CHUNK]);
+                outputStream.flush();
+                await(responseChunkRead);
+                outputStream.write(String.valueOf(received).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        httpServer.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        httpServer.stop(0);
+    }
+
+    @Test
+    public void streamRequestAndResponseBody() {
+        HttpRequest httpRequest = new HttpRequest.HttpRequestBuilder("Upload", HttpMethod.POST)
+                .withHost("http://localhost:" + httpServer.getAddress().getPort())
+                .withEndPoint("/upload")
+                .withHttpPayload(new HttpRequest.HttpPayload("application/octet-stream", outputStream -> {
+                    outputStream.write(new byte[CHUNK]);
+                    outputStream.flush();
+                    /* buffered body would never reach the server while writer waits */
+                    if (!await(requestChunkReceived)) {
+                        throw new IOException("request body is not streamed");
+                    }
+                    outputStream.write(new byte[CHUNK]);
+                }))
+                .build();
+        HttpResponseHandler<String> httpResponseHandler = new HttpResponseHandler<String>() {
+            @Override
+            public String onResponse(HttpResponse httpResponse) {
+                try (InputStream inputStream = httpResponse.getBodyInputStream()) {
+                    byte[] bytes = new byte[CHUNK];
+                    int read = 0;
+                    while (read < CHUNK) {
+                        read += inputStream.read(bytes, read, CHUNK - read);
+                    }
+                    /* buffered response would not be returned before the server sends rest of body */
+                    responseChunkRead.countDown();
+                    byte[] rest = new byte[32];
+                    int length = 0;
+                    for (int n; (n = inputStream.read(rest, length, rest.length - length)) != -1; ) {
+                        length += n;
+                    }
+                    return new String(rest, 0, length, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public void onMaxRetryAttempted(HttpResponse httpResponse) {
+            }
+        };
+        try (HttpClient httpClient = new HttpClient(HttpClientConfig.builder().httpTransportName(Apache5HttpTransport.NAME).build())) {
+            Assertions.assertEquals(String.valueOf(2 * CHUNK), httpClient.execute(new HttpExecutionContext(), httpRequest, httpResponseHandler));
+        }
+    }
+
+    private static long drain(InputStream inputStream) throws IOException {
+        long total = 0;
+        byte[] bytes = new byte[8192];
+        for (int n; (n = inputStream.read(bytes)) != -1; ) {
+            total += n;
+        }
+        return total;
+    }
+
+    private static boolean await(CountDownLatch countDownLatch) {
+        try {
+            return countDownLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
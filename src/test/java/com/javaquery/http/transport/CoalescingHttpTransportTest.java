@@ -0,0 +1,268 @@
+package com.javaquery.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class CoalescingHttpTransportTest {
+
+    private static final String URI = "http://localhost/orders/42";
+
+    @Test
+    public void sendOneRequestForConcurrentFollowers() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "order");
+        });
+        CoalescingHttpTransport coalescingHttpTransport = new CoalescingHttpTransport(stubHttpTransport, Collections.emptyList());
+
+        List<CompletableFuture<String>> bodies = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<String> body = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    body.complete(EntityUtils.toString(coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create()).getEntity()));
+                } catch (Exception e) {
+                    body.completeExceptionally(e);
+                }
+            });
+            thread.start();
+            bodies.add(body);
+            threads.add(thread);
+        }
+        awaitWaiting(threads);
+        respond.countDown();
+
+        for (CompletableFuture<String> body : bodies) {
+            Assertions.assertEquals("order", body.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, stubHttpTransport.getExecutions());
+        coalescingHttpTransport.close();
+    }
+
+    @Test
+    public void followerGivesUpAfterSocketTimeout() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "order");
+        });
+        CoalescingHttpTransport coalescingHttpTransport = new CoalescingHttpTransport(stubHttpTransport, Collections.emptyList());
+        CompletableFuture<HttpResponse> leader = leader(coalescingHttpTransport, stubHttpTransport);
+
+        HttpClientContext httpClientContext = HttpClientContext.create();
+        httpClientContext.setRequestConfig(RequestConfig.custom().setSocketTimeout(100).build());
+        long start = System.currentTimeMillis();
+        Assertions.assertThrows(SocketTimeoutException.class, () -> coalescingHttpTransport.execute(new HttpGet(URI), httpClientContext));
+        Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+
+        respond.countDown();
+        Assertions.assertEquals(200, leader.get(5, TimeUnit.SECONDS).getStatusLine().getStatusCode());
+        Assertions.assertEquals(1, stubHttpTransport.getExecutions());
+        coalescingHttpTransport.close();
+    }
+
+    @Test
+    public void abortStopsFollower() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "order");
+        });
+        CoalescingHttpTransport coalescingHttpTransport = new CoalescingHttpTransport(stubHttpTransport, Collections.emptyList());
+        CompletableFuture<HttpResponse> leader = leader(coalescingHttpTransport, stubHttpTransport);
+
+        HttpGet httpGet = new HttpGet(URI);
+        CompletableFuture<Void> abort = CompletableFuture.runAsync(() -> {
+            sleep(100);
+            httpGet.abort();
+        });
+        Assertions.assertThrows(RequestAbortedException.class, () -> coalescingHttpTransport.execute(httpGet, HttpClientContext.create()));
+        abort.get(5, TimeUnit.SECONDS);
+
+        respond.countDown();
+        Assertions.assertEquals(200, leader.get(5, TimeUnit.SECONDS).getStatusLine().getStatusCode());
+        coalescingHttpTransport.close();
+    }
+
+    @Test
+    public void cancelSharedRequestWhenAllWaitersLeft() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        });
+        CoalescingHttpTransport coalescingHttpTransport = new CoalescingHttpTransport(stubHttpTransport, Collections.emptyList());
+        List<String> events = new CopyOnWriteArrayList<>();
+        Future<?> leader = coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create(), futureCallback(events));
+        Future<?> follower = coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create(), futureCallback(events));
+
+        leader.cancel(true);
+        Assertions.assertFalse(interrupted.await(100, TimeUnit.MILLISECONDS));
+        follower.cancel(true);
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList("cancelled", "cancelled"), events);
+
+        /* cancelled shared request is not joined by later request */
+        Future<?> later = coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create(), futureCallback(events));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stubHttpTransport.getExecutions() < 2 && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        later.cancel(true);
+        Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        coalescingHttpTransport.close();
+    }
+
+    @Test
+    public void completeRemainingWaiterWhenOtherWaiterLeft() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "order");
+        });
+        CoalescingHttpTransport coalescingHttpTransport = new CoalescingHttpTransport(stubHttpTransport, Collections.emptyList());
+        List<String> events = new CopyOnWriteArrayList<>();
+        Future<?> leader = coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create(), futureCallback(events));
+        Future<?> follower = coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create(), futureCallback(events));
+
+        leader.cancel(true);
+        respond.countDown();
+        follower.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(Arrays.asList("cancelled", "order"), events);
+        Assertions.assertEquals(1, stubHttpTransport.getExecutions());
+        coalescingHttpTransport.close();
+    }
+
+    @Test
+    public void keepRequestsOfDifferentCredentialsApart() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        StubHttpTransport stubHttpTransport = new StubHttpTransport((httpUriRequest, httpClientContext) -> {
+            respond.await();
+            return StubHttpTransport.response(200, "order");
+        });
+        CoalescingHttpTransport coalescingHttpTransport = new CoalescingHttpTransport(stubHttpTransport, Collections.emptyList());
+        List<String> events = new CopyOnWriteArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (String password : Arrays.asList("secret", "secret", "other")) {
+            futures.add(coalescingHttpTransport.execute(new HttpGet(URI), httpClientContext("user", password), futureCallback(events)));
+        }
+        respond.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(2, stubHttpTransport.getExecutions());
+        coalescingHttpTransport.close();
+    }
+
+    private static HttpClientContext httpClientContext(String username, String password) {
+        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, password));
+        HttpClientContext httpClientContext = HttpClientContext.create();
+        httpClientContext.setCredentialsProvider(credentialsProvider);
+        return httpClientContext;
+    }
+
+    private static FutureCallback<HttpResponse> futureCallback(List<String> events) {
+        return new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse httpResponse) {
+                try {
+                    events.add(EntityUtils.toString(httpResponse.getEntity()));
+                } catch (IOException e) {
+                    events.add(e.getMessage());
+                }
+            }
+
+            @Override
+            public void failed(Exception exception) {
+                events.add("failed");
+            }
+
+            @Override
+            public void cancelled() {
+                events.add("cancelled");
+            }
+        };
+    }
+
+    private static CompletableFuture<HttpResponse> leader(CoalescingHttpTransport coalescingHttpTransport, StubHttpTransport stubHttpTransport) {
+        CompletableFuture<HttpResponse> leader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return coalescingHttpTransport.execute(new HttpGet(URI), HttpClientContext.create());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stubHttpTransport.getExecutions() == 0 && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        return leader;
+    }
+
+    /**
+     * Wait till every thread blocks inside coalescing transport, leader on stub and followers on shared request.
+     */
+    private static void awaitWaiting(List<Thread> threads) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            long waiting = threads.stream()
+                    .filter(thread -> thread.getState() == Thread.State.WAITING || thread.getState() == Thread.State.TIMED_WAITING)
+                    .filter(thread -> {
+                        for (StackTraceElement stackTraceElement : thread.getStackTrace()) {
+                            if (stackTraceElement.getClassName().equals(CoalescingHttpTransport.class.getName())) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    })
+                    .count();
+            if (waiting == threads.size()) {
+                return;
+            }
+            sleep(10);
+        }
+        Assertions.fail("requests did not join coalesced request");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClientConfig;
+import com.javaquery.http.HttpProtocol;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+/**
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class HttpTransportsTest {
+
+    @Test
+    public void createBuiltInTransports() throws IOException {
+        try (HttpTransport httpTransport = HttpTransports.create(HttpClientConfig.defaultConfig())) {
+            Assertions.assertTrue(httpTransport instanceof ApacheHttpTransport);
+        }
+        try (HttpTransport httpTransport = HttpTransports.create(HttpClientConfig.builder().httpProtocol(HttpProtocol.HTTP_2).build())) {
+            Assertions.assertTrue(httpTransport instanceof Http2Transport);
+        }
+        try (HttpTransport httpTransport = HttpTransports.create(HttpClientConfig.builder().httpTransportName(Apache5HttpTransport.NAME).build())) {
+            Assertions.assertEquals(Apache5HttpTransport.class, httpTransport.getClass());
+        }
+    }
+
+    @Test
+    public void unknownTransport() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HttpTransports.create(HttpClientConfig.builder().httpTransportName("unknown").build()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.javaquery.http.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline transport for tests, responder answers every request. Async requests run on their own thread and
+ * cancelling future interrupts the responder.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class StubHttpTransport implements HttpTransport {
+
+    private final Responder responder;
+    private final AtomicInteger executions = new AtomicInteger();
+    private final List<HttpUriRequest> httpUriRequests = new CopyOnWriteArrayList<>();
+    private final ExecutorService executorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-transport");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new Stub http transport.
+     *
+     * @param responder the responder
+     */
+    public StubHttpTransport(Responder responder) {
+        this.responder = responder;
+    }
+
+    @Override
+    public HttpResponse execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) {
+        try {
+            return respond(httpUriRequest, httpClientContext);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Future<?> execute(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext, FutureCallback<HttpResponse> futureCallback) {
+        return executorService.submit(() -> {
+            HttpResponse httpResponse;
+            try {
+                httpResponse = respond(httpUriRequest, httpClientContext);
+            } catch (InterruptedException | CancellationException e) {
+                futureCallback.cancelled();
+                return;
+            } catch (Exception e) {
+                futureCallback.failed(e);
+                return;
+            }
+            futureCallback.completed(httpResponse);
+        });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Gets number of requests sent to transport.
+     *
+     * @return the executions
+     */
+    public int getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * Gets requests sent to transport.
+     *
+     * @return the http uri requests
+     */
+    public List<HttpUriRequest> getHttpUriRequests() {
+        return httpUriRequests;
+    }
+
+    /**
+     * Is transport closed.
+     *
+     * @return the boolean
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Response with status and body.
+     *
+     * @param statusCode the status code
+     * @param body       the body, nullable
+     * @param headers    pairs of header name and value
+     * @return the stub http response
+     */
+    public static StubHttpResponse response(int statusCode, String body, String... headers) {
+        StubHttpResponse httpResponse = new StubHttpResponse(statusCode);
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            httpResponse.addHeader(headers[i], headers[i + 1]);
+        }
+        if (body != null) {
+            httpResponse.setEntity(new ByteArrayEntity(body.getBytes(StandardCharsets.UTF_8)));
+        }
+        return httpResponse;
+    }
+
+    private HttpResponse respond(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws Exception {
+        executions.incrementAndGet();
+        httpUriRequests.add(httpUriRequest);
+        return responder.respond(httpUriRequest, httpClientContext);
+    }
+
+    /**
+     * Answers request of stub transport.
+     */
+    @FunctionalInterface
+    public interface Responder {
+        HttpResponse respond(HttpUriRequest httpUriRequest, HttpClientContext httpClientContext) throws Exception;
+    }
+
+    /**
+     * Response which remembers whether it was closed.
+     */
+    public static class StubHttpResponse extends BasicHttpResponse implements Closeable {
+        private volatile boolean closed;
+
+        StubHttpResponse(int statusCode) {
+            super(HttpVersion.HTTP_1_1, statusCode, null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+}
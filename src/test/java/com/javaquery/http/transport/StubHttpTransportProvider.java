@@ -0,0 +1,43 @@
+package com.javaquery.http.transport;
+
+import com.javaquery.http.HttpClient;
+import com.javaquery.http.HttpClientConfig;
+
+/**
+ * Provides {@link StubHttpTransport} to {@link HttpClient} of tests, so client runs offline.
+ *
+ * @author javaquery
+ * @since 1.0.7
+ */
+public class StubHttpTransportProvider implements HttpTransportProvider {
+
+    public static final String NAME = "stub";
+
+    private static final ThreadLocal<StubHttpTransport> STUB_HTTP_TRANSPORT = new ThreadLocal<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public HttpTransport create(HttpClientConfig httpClientConfig) {
+        return STUB_HTTP_TRANSPORT.get();
+    }
+
+    /**
+     * Create http client which sends requests to stub transport.
+     *
+     * @param stubHttpTransport      the stub http transport
+     * @param httpClientConfigBuilder the http client config builder
+     * @return the http client
+     */
+    public static HttpClient httpClient(StubHttpTransport stubHttpTransport, HttpClientConfig.HttpClientConfigBuilder httpClientConfigBuilder) {
+        STUB_HTTP_TRANSPORT.set(stubHttpTransport);
+        try {
+            return new HttpClient(httpClientConfigBuilder.httpTransportName(NAME).build());
+        } finally {
+            STUB_HTTP_TRANSPORT.remove();
+        }
+    }
+}